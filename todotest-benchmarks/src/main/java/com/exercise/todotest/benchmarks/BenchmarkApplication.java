@@ -0,0 +1,105 @@
+package com.exercise.todotest.benchmarks;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.exercise.todoreactive.TodotestReactiveApplication;
+import com.exercise.todoreactive.entity.TodoRow;
+import com.exercise.todoreactive.repository.TodoRowRepository;
+import com.exercise.todotest.TodotestApplication;
+import com.exercise.todotest.entity.Todo;
+import com.exercise.todotest.repository.TodoRepository;
+
+/**
+ * Boots the todotest context against an in-memory H2 database, without a web
+ * server unless asked for, so benchmarks exercise the real service and
+ * repository beans. Later arguments override earlier ones.
+ */
+public final class BenchmarkApplication {
+
+	// R2DBC comes with the reactive runtime and would make Boot skip the JDBC DataSource
+	private static final String SERVLET_EXCLUDES = "--spring.autoconfigure.exclude=" + R2dbcAutoConfiguration.class.getName();
+
+	private BenchmarkApplication() {}
+
+	public static ConfigurableApplicationContext start(String... extraArgs) {
+		return new SpringApplicationBuilder(TodotestApplication.class)
+				.web(WebApplicationType.NONE)
+				.run(args(extraArgs, SERVLET_EXCLUDES));
+	}
+
+	/** Same context with Tomcat on a random port, read it with {@link #port}. */
+	public static ConfigurableApplicationContext startWeb(String... extraArgs) {
+		return new SpringApplicationBuilder(TodotestApplication.class)
+				.web(WebApplicationType.SERVLET)
+				.run(args(extraArgs, SERVLET_EXCLUDES, "--server.port=0"));
+	}
+
+	/**
+	 * The WebFlux and R2DBC runtime on Netty and its own H2 database. The JDBC
+	 * and JPA auto-configuration, present on this classpath for the servlet
+	 * runtime, is switched off.
+	 */
+	public static ConfigurableApplicationContext startReactive(String... extraArgs) {
+		return new SpringApplicationBuilder(TodotestReactiveApplication.class, NettyServer.class)
+				.web(WebApplicationType.REACTIVE)
+				.run(args(extraArgs, "--server.port=0",
+						"--spring.r2dbc.url=r2dbc:h2:mem:///benchmarks-reactive?options=DB_CLOSE_DELAY=-1;MODE=MySQL",
+						"--spring.autoconfigure.exclude=" + DataSourceAutoConfiguration.class.getName() + ","
+								+ HibernateJpaAutoConfiguration.class.getName()));
+	}
+
+	public static void seed(TodoRowRepository todoRowRepository, int rows) {
+		List<TodoRow> todoRows = new ArrayList<>(rows);
+		LocalDate today = LocalDate.now();
+		for (int i = 0; i < rows; i++) {
+			todoRows.add(new TodoRow(null, "Todo " + i, "Benchmark description " + i, today.plusDays(1 + i % 365), 1 + i % 4, null));
+		}
+		todoRowRepository.saveAll(todoRows).blockLast();
+	}
+
+	public static int port(ConfigurableApplicationContext context) {
+		return ((WebServerApplicationContext) context).getWebServer().getPort();
+	}
+
+	public static void seed(TodoRepository todoRepository, int rows) {
+		List<Todo> todos = new ArrayList<>(rows);
+		LocalDate today = LocalDate.now();
+		for (int i = 0; i < rows; i++) {
+			todos.add(new Todo(0, "Todo " + i, "Benchmark description " + i, today.plusDays(1 + i % 365), 1 + i % 4));
+		}
+		todoRepository.saveAll(todos);
+	}
+
+	/** Tomcat is on the classpath too and would otherwise serve the reactive runtime. */
+	@Configuration(proxyBeanMethods = false)
+	static class NettyServer {
+		@Bean
+		NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+			return new NettyReactiveWebServerFactory();
+		}
+	}
+
+	private static String[] args(String[] extraArgs, String... defaults) {
+		List<String> args = new ArrayList<>(List.of(
+				"--spring.datasource.url=jdbc:h2:mem:benchmarks;DB_CLOSE_DELAY=-1;MODE=MySQL",
+				"--spring.jpa.show-sql=false",
+				"--spring.main.banner-mode=off",
+				"--logging.level.root=WARN"));
+		args.addAll(List.of(defaults));
+		args.addAll(List.of(extraArgs));
+		return args.toArray(String[]::new);
+	}
+}
@@ -0,0 +1,136 @@
+package com.exercise.todotest.benchmarks;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Per-scenario results of a {@link LoadTest} run, as kept in the committed
+ * baseline file, and the comparison of a run against it.
+ *
+ * The file is a properties file with {@code scenario.metric} keys, latencies
+ * in microseconds and throughput in requests per second, so a change to the
+ * baseline reads as a plain diff in review.
+ */
+final class LoadBaseline {
+	/**
+	 * {@code rate} is the arrival rate the scenario ran at, per second.
+	 * {@code errorRate} is per request sent, {@code dropRate} per arrival.
+	 */
+	record Metrics(double rate, long p50, long p90, long p99, long max, double throughput, double errorRate,
+			double dropRate) {
+	}
+
+	/**
+	 * A latency percentile regresses when it exceeds the baseline by more
+	 * than {@code latencyRatio} and by more than {@code latencySlackMicros},
+	 * the latter so sub-millisecond noise on H2 does not fail a run.
+	 * Throughput regresses when it drops by more than
+	 * {@code throughputRatio}; the error and drop rates when they exceed
+	 * {@code maxErrorRate} and {@code maxDropRate}.
+	 */
+	record Thresholds(double latencyRatio, long latencySlackMicros, double throughputRatio, double maxErrorRate,
+			double maxDropRate) {
+	}
+
+	private LoadBaseline() {}
+
+	static Map<String, Metrics> read(Path path) throws IOException {
+		Properties properties = new Properties();
+		try (Reader reader = Files.newBufferedReader(path)) {
+			properties.load(reader);
+		}
+
+		Map<String, Metrics> baseline = new LinkedHashMap<>();
+		for (String name : properties.stringPropertyNames()) {
+			if (name.endsWith(".p50")) {
+				String scenario = name.substring(0, name.length() - ".p50".length());
+				baseline.put(scenario, new Metrics(
+						Double.parseDouble(properties.getProperty(scenario + ".rate")),
+						Long.parseLong(properties.getProperty(scenario + ".p50")),
+						Long.parseLong(properties.getProperty(scenario + ".p90")),
+						Long.parseLong(properties.getProperty(scenario + ".p99")),
+						Long.parseLong(properties.getProperty(scenario + ".max")),
+						Double.parseDouble(properties.getProperty(scenario + ".throughput")),
+						Double.parseDouble(properties.getProperty(scenario + ".error-rate")),
+						Double.parseDouble(properties.getProperty(scenario + ".drop-rate", "0"))));
+			}
+		}
+		return baseline;
+	}
+
+	static void write(Path path, Map<String, Metrics> results, String comment) throws IOException {
+		try (Writer writer = Files.newBufferedWriter(path)) {
+			writer.write("# " + comment + System.lineSeparator());
+			writer.write("# latencies in microseconds, throughput in requests per second" + System.lineSeparator());
+			for (Map.Entry<String, Metrics> entry : results.entrySet()) {
+				String scenario = entry.getKey();
+				Metrics metrics = entry.getValue();
+				writer.write(System.lineSeparator());
+				writer.write(scenario + ".rate=" + String.format(Locale.ROOT, "%.1f", metrics.rate()) + System.lineSeparator());
+				writer.write(scenario + ".p50=" + metrics.p50() + System.lineSeparator());
+				writer.write(scenario + ".p90=" + metrics.p90() + System.lineSeparator());
+				writer.write(scenario + ".p99=" + metrics.p99() + System.lineSeparator());
+				writer.write(scenario + ".max=" + metrics.max() + System.lineSeparator());
+				writer.write(scenario + ".throughput=" + String.format(Locale.ROOT, "%.1f", metrics.throughput()) + System.lineSeparator());
+				writer.write(scenario + ".error-rate=" + String.format(Locale.ROOT, "%.4f", metrics.errorRate()) + System.lineSeparator());
+				writer.write(scenario + ".drop-rate=" + String.format(Locale.ROOT, "%.4f", metrics.dropRate()) + System.lineSeparator());
+			}
+		}
+	}
+
+	/**
+	 * One line per regression, empty if the run is within the thresholds.
+	 * Scenarios missing from either side, or run at another rate than the
+	 * baseline's, are skipped with a note on standard output.
+	 */
+	static List<String> compare(Map<String, Metrics> baseline, Map<String, Metrics> results, Thresholds thresholds) {
+		List<String> regressions = new ArrayList<>();
+		for (Map.Entry<String, Metrics> entry : results.entrySet()) {
+			String scenario = entry.getKey();
+			Metrics expected = baseline.get(scenario);
+			Metrics actual = entry.getValue();
+			if (expected == null) {
+				System.out.println("Skipping " + scenario + ": not in the baseline");
+				continue;
+			}
+			if (Double.compare(expected.rate(), actual.rate()) != 0) {
+				System.out.printf(Locale.ROOT, "Skipping %s: ran at %.1f/s, the baseline at %.1f/s%n", scenario,
+						actual.rate(), expected.rate());
+				continue;
+			}
+
+			checkLatency(regressions, scenario + " p50", expected.p50(), actual.p50(), thresholds);
+			checkLatency(regressions, scenario + " p90", expected.p90(), actual.p90(), thresholds);
+			checkLatency(regressions, scenario + " p99", expected.p99(), actual.p99(), thresholds);
+			if (actual.throughput() < expected.throughput() * (1 - thresholds.throughputRatio())) {
+				regressions.add(String.format("%s throughput %.1f req/s, baseline %.1f req/s", scenario,
+						actual.throughput(), expected.throughput()));
+			}
+			if (actual.errorRate() > thresholds.maxErrorRate()) {
+				regressions.add(String.format("%s error rate %.4f, allowed %.4f", scenario, actual.errorRate(),
+						thresholds.maxErrorRate()));
+			}
+			if (actual.dropRate() > thresholds.maxDropRate()) {
+				regressions.add(String.format("%s drop rate %.4f, allowed %.4f", scenario, actual.dropRate(),
+						thresholds.maxDropRate()));
+			}
+		}
+		return regressions;
+	}
+
+	private static void checkLatency(List<String> regressions, String metric, long expected, long actual,
+			Thresholds thresholds) {
+		if (actual > expected * (1 + thresholds.latencyRatio()) && actual > expected + thresholds.latencySlackMicros()) {
+			regressions.add(String.format("%s %d us, baseline %d us", metric, actual, expected));
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package com.exercise.todotest.benchmarks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Sends the requests of one scenario and records their latency, in
+ * microseconds, per step. Requests failing with an exception or an
+ * unexpected status count as errors and are not recorded as latencies.
+ */
+class LoadClient {
+	private static final long MAX_LATENCY_MICROS = Duration.ofMinutes(1).toNanos() / 1_000;
+	static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+	private final HttpClient httpClient;
+	private final URI baseUri;
+	private final ConcurrentMap<String, Histogram> latencies = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+	LoadClient(HttpClient httpClient, URI baseUri) {
+		this.httpClient = httpClient;
+		this.baseUri = baseUri;
+	}
+
+	URI uri(String pathAndQuery) {
+		return baseUri.resolve(pathAndQuery);
+	}
+
+	HttpResponse<String> send(String step, HttpRequest.Builder request, int expectedStatus) throws IOException {
+		long sent = System.nanoTime();
+		HttpResponse<String> response;
+		try {
+			response = httpClient.send(request.timeout(REQUEST_TIMEOUT).build(), HttpResponse.BodyHandlers.ofString());
+		} catch (IOException e) {
+			recordError(step);
+			throw e;
+		} catch (InterruptedException e) {
+			recordError(step);
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		}
+
+		if (response.statusCode() != expectedStatus) {
+			recordError(step);
+			throw new IOException(step + ": expected " + expectedStatus + " but got " + response.statusCode());
+		}
+		long micros = (System.nanoTime() - sent) / 1_000;
+		latencies.computeIfAbsent(step, key -> new ConcurrentHistogram(MAX_LATENCY_MICROS, 3))
+				.recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+		return response;
+	}
+
+	/** Latencies per step, in microseconds. */
+	Map<String, Histogram> getLatencies() {
+		return new TreeMap<>(latencies);
+	}
+
+	long getErrors(String step) {
+		LongAdder stepErrors = errors.get(step);
+		return stepErrors == null ? 0 : stepErrors.sum();
+	}
+
+	long getErrors() {
+		return errors.values().stream().mapToLong(LongAdder::sum).sum();
+	}
+
+	private void recordError(String step) {
+		errors.computeIfAbsent(step, key -> new LongAdder()).increment();
+	}
+}
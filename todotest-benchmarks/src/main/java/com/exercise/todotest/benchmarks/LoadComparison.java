@@ -0,0 +1,202 @@
+package com.exercise.todotest.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.exercise.todoreactive.repository.TodoRowRepository;
+import com.exercise.todotest.config.BoundedDataSource;
+import com.exercise.todotest.config.VirtualThreadPinningMonitor;
+import com.exercise.todotest.repository.TodoRepository;
+
+/**
+ * Closed-loop HTTP load against {@code GET /todo} and {@code GET /todo/{id}},
+ * run with Tomcat on platform threads, on virtual threads, and against the
+ * WebFlux/R2DBC runtime on Netty. Caches are turned off so every request of
+ * the servlet runtime reaches the database, as it always does on the
+ * reactive one.
+ *
+ * <pre>
+ * java -cp todotest-benchmarks/target/benchmarks.jar com.exercise.todotest.benchmarks.LoadComparison \
+ *     [--modes=platform,virtual,reactive] [--concurrency=2000] [--duration=PT20S] [--warmup=PT5S] [--rows=5000]
+ * </pre>
+ *
+ * Any other {@code --key=value} argument is passed to every application
+ * context, e.g. {@code --spring.datasource.url} pointing the servlet runtime
+ * at MySQL so queries have real network latency.
+ */
+public class LoadComparison {
+	private static final String[] COMMON_ARGS = {
+			"--todo.cache.enabled=false",
+			"--todo.page-cache.enabled=false" };
+
+	record Result(String mode, long requests, long errors, double seconds, long[] latenciesMicros, String extra) {
+		double throughput() {
+			return requests / seconds;
+		}
+
+		long percentile(double percentile) {
+			if (latenciesMicros.length == 0) {
+				return 0;
+			}
+			int index = (int) Math.ceil(percentile / 100 * latenciesMicros.length) - 1;
+			return latenciesMicros[Math.max(0, Math.min(index, latenciesMicros.length - 1))];
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		int concurrency = 2_000;
+		Duration duration = Duration.ofSeconds(20);
+		Duration warmup = Duration.ofSeconds(5);
+		int rows = 5_000;
+		List<String> modes = List.of("platform", "virtual", "reactive");
+		List<String> contextArgs = new ArrayList<>(List.of(COMMON_ARGS));
+
+		for (String arg : args) {
+			if (arg.startsWith("--concurrency=")) {
+				concurrency = Integer.parseInt(value(arg));
+			} else if (arg.startsWith("--duration=")) {
+				duration = Duration.parse(value(arg));
+			} else if (arg.startsWith("--warmup=")) {
+				warmup = Duration.parse(value(arg));
+			} else if (arg.startsWith("--rows=")) {
+				rows = Integer.parseInt(value(arg));
+			} else if (arg.startsWith("--modes=")) {
+				modes = List.of(value(arg).split(","));
+			} else {
+				contextArgs.add(arg);
+			}
+		}
+
+		List<Result> results = new ArrayList<>();
+		for (String mode : modes) {
+			results.add(run(mode, contextArgs, concurrency, warmup, duration, rows));
+		}
+
+		System.out.printf("%n%-9s %10s %8s %10s %10s %10s %10s  %s%n", "mode", "req/s", "errors", "p50 us", "p90 us",
+				"p99 us", "max us", "");
+		for (Result result : results) {
+			System.out.printf("%-9s %10.1f %8d %10d %10d %10d %10d  %s%n", result.mode(), result.throughput(),
+					result.errors(), result.percentile(50), result.percentile(90), result.percentile(99),
+					result.percentile(100), result.extra());
+		}
+	}
+
+	private static Result run(String mode, List<String> contextArgs, int concurrency, Duration warmup,
+			Duration duration, int rows) throws Exception {
+		try (ConfigurableApplicationContext context = start(mode, contextArgs, rows)) {
+			URI baseUri = URI.create("http://localhost:" + BenchmarkApplication.port(context));
+
+			try (HttpClient client = HttpClient.newBuilder()
+					.version(HttpClient.Version.HTTP_1_1)
+					.executor(Executors.newVirtualThreadPerTaskExecutor())
+					.connectTimeout(Duration.ofSeconds(10))
+					.build()) {
+				drive(client, baseUri, concurrency, warmup, rows);
+				long start = System.nanoTime();
+				List<long[]> perWorker = drive(client, baseUri, concurrency, duration, rows);
+				double seconds = (System.nanoTime() - start) / 1e9;
+
+				long errors = perWorker.stream().mapToLong(worker -> worker[0]).sum();
+				long[] latencies = perWorker.stream()
+						.flatMapToLong(worker -> Arrays.stream(worker, 1, worker.length))
+						.sorted()
+						.toArray();
+				return new Result(mode, latencies.length, errors, seconds, latencies, describe(context));
+			}
+		}
+	}
+
+	private static ConfigurableApplicationContext start(String mode, List<String> contextArgs, int rows) {
+		List<String> modeArgs = new ArrayList<>(contextArgs);
+		ConfigurableApplicationContext context;
+		switch (mode) {
+		case "platform", "virtual" -> {
+			modeArgs.add(0, "--spring.threads.virtual.enabled=" + mode.equals("virtual"));
+			context = BenchmarkApplication.startWeb(modeArgs.toArray(String[]::new));
+			BenchmarkApplication.seed(context.getBean(TodoRepository.class), rows);
+		}
+		case "reactive" -> {
+			context = BenchmarkApplication.startReactive(modeArgs.toArray(String[]::new));
+			BenchmarkApplication.seed(context.getBean(TodoRowRepository.class), rows);
+		}
+		default -> throw new IllegalArgumentException("Unexpected mode: " + mode);
+		}
+		return context;
+	}
+
+	/** Each worker returns its error count followed by its latencies in microseconds. */
+	private static List<long[]> drive(HttpClient client, URI baseUri, int concurrency, Duration duration, int rows)
+			throws Exception {
+		long deadline = System.nanoTime() + duration.toNanos();
+		List<Future<long[]>> workers = new ArrayList<>(concurrency);
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < concurrency; i++) {
+				workers.add(executor.submit(() -> {
+					long[] samples = new long[1024];
+					int count = 1;
+					long errors = 0;
+					while (System.nanoTime() < deadline) {
+						HttpRequest request = HttpRequest.newBuilder(nextUri(baseUri, rows)).GET().build();
+						long sent = System.nanoTime();
+						try {
+							HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+							if (response.statusCode() != 200) {
+								errors++;
+								continue;
+							}
+						} catch (Exception e) {
+							errors++;
+							continue;
+						}
+						if (count == samples.length) {
+							samples = Arrays.copyOf(samples, count * 2);
+						}
+						samples[count++] = (System.nanoTime() - sent) / 1_000;
+					}
+					samples[0] = errors;
+					return Arrays.copyOf(samples, count);
+				}));
+			}
+		}
+
+		List<long[]> results = new ArrayList<>(concurrency);
+		for (Future<long[]> worker : workers) {
+			results.add(worker.get());
+		}
+		return results;
+	}
+
+	private static URI nextUri(URI baseUri, int rows) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		if (random.nextBoolean()) {
+			return baseUri.resolve("/todo/" + (1 + random.nextInt(rows)));
+		}
+		return baseUri.resolve("/todo?sortfield=PRIORITY&sortorder=DESC&limit=20&page=" + random.nextInt(4));
+	}
+
+	private static String describe(ConfigurableApplicationContext context) {
+		StringBuilder extra = new StringBuilder();
+		context.getBeansOfType(BoundedDataSource.class).values().forEach(dataSource -> extra
+				.append("db permits free=").append(dataSource.getAvailablePermits()).append(' '));
+		context.getBeansOfType(VirtualThreadPinningMonitor.class).values().forEach(monitor -> extra
+				.append("pinned events=").append(monitor.getPinnedEvents()));
+		return extra.toString();
+	}
+
+	private static String value(String arg) {
+		return arg.substring(arg.indexOf('=') + 1);
+	}
+}
@@ -0,0 +1,90 @@
+package com.exercise.todotest.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * What one arrival of a {@link LoadTest} scenario does. Each request is
+ * recorded under {@code scenario.step}, so a slow step shows up on its own.
+ */
+public enum LoadScenario {
+	/**
+	 * The {@code App.jsx} list: the first page sorted by priority, then "load
+	 * more" a few times, without think time, until the last page.
+	 */
+	SCROLL("scroll") {
+		@Override
+		void iterate(LoadClient client, ThreadLocalRandom random) throws Exception {
+			int pages = 1 + random.nextInt(5);
+			for (int page = 0; page < pages; page++) {
+				HttpResponse<String> response = client.send("page",
+						HttpRequest.newBuilder(client.uri("/todo?page=" + page + "&limit=20&sortfield=PRIORITY&sortorder=DESC")).GET(),
+						200);
+				if (response.body().contains("\"last\":true")) {
+					return;
+				}
+			}
+		}
+	},
+	/** Creates a todo, reads it back, patches its priority and deletes it. */
+	CRUD("crud") {
+		@Override
+		void iterate(LoadClient client, ThreadLocalRandom random) throws Exception {
+			String body = "{\"title\":\"Load test\",\"description\":\"Created by the load test\",\"targetDate\":\""
+					+ LocalDate.now().plusDays(1 + random.nextInt(365)) + "\",\"priority\":" + (1 + random.nextInt(4)) + "}";
+			HttpResponse<String> created = client.send("create", HttpRequest.newBuilder(client.uri("/todo"))
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString(body)), 201);
+			URI location = URI.create(created.headers().firstValue("Location").orElseThrow());
+
+			client.send("read", HttpRequest.newBuilder(location).GET(), 200);
+			client.send("patch", HttpRequest.newBuilder(location)
+					.header("Content-Type", "application/json")
+					.method("PATCH", HttpRequest.BodyPublishers.ofString("{\"priority\":" + (1 + random.nextInt(4)) + "}")),
+					202);
+			client.send("delete", HttpRequest.newBuilder(location).DELETE(), 202);
+		}
+	},
+	/**
+	 * A burst of lookups for ids that do not exist, half of them from a small
+	 * hot set, as when a client keeps polling deleted todos, and half random.
+	 */
+	NOT_FOUND("not-found") {
+		private static final int BURST = 10;
+		private static final int HOT_IDS = 64;
+		private static final int FIRST_MISSING_ID = 2_000_000_000;
+
+		@Override
+		void iterate(LoadClient client, ThreadLocalRandom random) throws Exception {
+			for (int i = 0; i < BURST; i++) {
+				int id = FIRST_MISSING_ID
+						+ (random.nextBoolean() ? random.nextInt(HOT_IDS) : HOT_IDS + random.nextInt(100_000_000));
+				client.send("get", HttpRequest.newBuilder(client.uri("/todo/" + id)).GET(), 404);
+			}
+		}
+	};
+
+	private final String id;
+
+	LoadScenario(String id) {
+		this.id = id;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	/** Throws after the first unexpected response, which {@code client} has counted as an error. */
+	abstract void iterate(LoadClient client, ThreadLocalRandom random) throws Exception;
+
+	public static LoadScenario fromId(String id) {
+		return Arrays.stream(values())
+				.filter(scenario -> scenario.id.equals(id))
+				.findFirst()
+				.orElseThrow(() -> new IllegalArgumentException("Unexpected scenario: " + id));
+	}
+}
@@ -0,0 +1,311 @@
+package com.exercise.todotest.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.exercise.todotest.repository.TodoRepository;
+
+/**
+ * Open-model HTTP load against the servlet application, with the scenarios
+ * of {@link LoadScenario} running side by side, each at a fixed arrival rate.
+ * Arrivals are scheduled on the clock, not when the previous one finishes, so
+ * a slow server gets more concurrent requests rather than fewer, as it would
+ * in production. Every arrival runs on its own virtual thread.
+ *
+ * <pre>
+ * java -cp todotest-benchmarks/target/benchmarks.jar com.exercise.todotest.benchmarks.LoadTest \
+ *     [--scenarios=scroll,crud,not-found] [--rates=scroll:10,crud:4,not-found:2] [--duration=PT30S] [--warmup=PT10S]
+ *     [--rows=5000] [--max-in-flight=1000] [--fork | --url=http://host:port]
+ *     [--baseline=todotest-benchmarks/load-baseline.properties] [--write-baseline]
+ *     [--max-latency-regression=0.25] [--latency-slack-us=1000] [--max-throughput-regression=0.10] [--max-error-rate=0.001]
+ *     [--max-drop-rate=0.001]
+ * </pre>
+ *
+ * The application runs in this JVM on H2 by default, in a JVM of its own with
+ * {@code --fork}, or not at all with {@code --url}, in which case it is
+ * expected to be running already. Any other {@code --key=value} argument is
+ * passed to the application context. The run exits with status 1 when it
+ * regresses against the baseline.
+ *
+ * The default rates leave the server idle most of the time, so latencies
+ * measure the requests rather than the queue in front of them; a baseline
+ * taken while saturated would let a regression hide in its queueing delay.
+ */
+public class LoadTest {
+	static final int DEFAULT_ROWS = 5_000;
+	private static final String DEFAULT_BASELINE = "todotest-benchmarks/load-baseline.properties";
+
+	record ScenarioRun(LoadScenario scenario, double rate, LoadClient client, long arrivals, long dropped, double seconds) {
+	}
+
+	record Target(URI baseUri, AutoCloseable resource) implements AutoCloseable {
+		@Override
+		public void close() throws Exception {
+			resource.close();
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<LoadScenario, Double> rates = new LinkedHashMap<>();
+		rates.put(LoadScenario.SCROLL, 10.0);
+		rates.put(LoadScenario.CRUD, 4.0);
+		rates.put(LoadScenario.NOT_FOUND, 2.0);
+		List<LoadScenario> scenarios = List.copyOf(rates.keySet());
+		Duration duration = Duration.ofSeconds(30);
+		Duration warmup = Duration.ofSeconds(10);
+		int rows = DEFAULT_ROWS;
+		int maxInFlight = 1_000;
+		boolean fork = false;
+		URI url = null;
+		Path baselinePath = Path.of(DEFAULT_BASELINE);
+		boolean writeBaseline = false;
+		double latencyRatio = 0.25;
+		long latencySlackMicros = 1_000;
+		double throughputRatio = 0.10;
+		double maxErrorRate = 0.001;
+		double maxDropRate = 0.001;
+		List<String> contextArgs = new ArrayList<>();
+
+		for (String arg : args) {
+			if (arg.startsWith("--scenarios=")) {
+				scenarios = List.of(value(arg).split(",")).stream().map(LoadScenario::fromId).toList();
+			} else if (arg.startsWith("--rates=")) {
+				for (String rate : value(arg).split(",")) {
+					String[] scenarioAndRate = rate.split(":");
+					rates.put(LoadScenario.fromId(scenarioAndRate[0]), Double.parseDouble(scenarioAndRate[1]));
+				}
+			} else if (arg.startsWith("--duration=")) {
+				duration = Duration.parse(value(arg));
+			} else if (arg.startsWith("--warmup=")) {
+				warmup = Duration.parse(value(arg));
+			} else if (arg.startsWith("--rows=")) {
+				rows = Integer.parseInt(value(arg));
+			} else if (arg.startsWith("--max-in-flight=")) {
+				maxInFlight = Integer.parseInt(value(arg));
+			} else if (arg.equals("--fork")) {
+				fork = true;
+			} else if (arg.startsWith("--url=")) {
+				url = URI.create(value(arg));
+			} else if (arg.startsWith("--baseline=")) {
+				baselinePath = Path.of(value(arg));
+			} else if (arg.equals("--write-baseline")) {
+				writeBaseline = true;
+			} else if (arg.startsWith("--max-latency-regression=")) {
+				latencyRatio = Double.parseDouble(value(arg));
+			} else if (arg.startsWith("--latency-slack-us=")) {
+				latencySlackMicros = Long.parseLong(value(arg));
+			} else if (arg.startsWith("--max-throughput-regression=")) {
+				throughputRatio = Double.parseDouble(value(arg));
+			} else if (arg.startsWith("--max-error-rate=")) {
+				maxErrorRate = Double.parseDouble(value(arg));
+			} else if (arg.startsWith("--max-drop-rate=")) {
+				maxDropRate = Double.parseDouble(value(arg));
+			} else {
+				contextArgs.add(arg);
+			}
+		}
+
+		Map<LoadScenario, Double> selectedRates = new LinkedHashMap<>();
+		scenarios.forEach(scenario -> selectedRates.put(scenario, rates.get(scenario)));
+
+		List<ScenarioRun> runs;
+		try (Target target = url != null ? new Target(url, () -> {}) : fork ? fork(contextArgs, rows) : start(contextArgs, rows);
+				HttpClient client = HttpClient.newBuilder()
+						.version(HttpClient.Version.HTTP_1_1)
+						.executor(Executors.newVirtualThreadPerTaskExecutor())
+						.connectTimeout(LoadClient.REQUEST_TIMEOUT)
+						.build()) {
+			drive(client, target.baseUri(), selectedRates, warmup, maxInFlight);
+			runs = drive(client, target.baseUri(), selectedRates, duration, maxInFlight);
+		}
+
+		Map<String, LoadBaseline.Metrics> results = report(runs);
+
+		if (writeBaseline) {
+			LoadBaseline.write(baselinePath, results, String.format("LoadTest --rates=%s --duration=%s, %d cpus, Java %s",
+					ratesArg(selectedRates), duration, Runtime.getRuntime().availableProcessors(),
+					Runtime.version().feature()));
+			System.out.println("\nBaseline written to " + baselinePath);
+			return;
+		}
+		if (!Files.exists(baselinePath)) {
+			System.out.println("\nNo baseline at " + baselinePath + ", run with --write-baseline to create one");
+			return;
+		}
+
+		List<String> regressions = LoadBaseline.compare(LoadBaseline.read(baselinePath), results,
+				new LoadBaseline.Thresholds(latencyRatio, latencySlackMicros, throughputRatio, maxErrorRate,
+						maxDropRate));
+		if (regressions.isEmpty()) {
+			System.out.println("\nNo regressions against " + baselinePath);
+			return;
+		}
+		System.out.println("\nRegressions against " + baselinePath + ":");
+		regressions.forEach(regression -> System.out.println("  " + regression));
+		System.exit(1);
+	}
+
+	private static Target start(List<String> contextArgs, int rows) {
+		ConfigurableApplicationContext context = BenchmarkApplication.startWeb(contextArgs.toArray(String[]::new));
+		BenchmarkApplication.seed(context.getBean(TodoRepository.class), rows);
+		return new Target(URI.create("http://localhost:" + BenchmarkApplication.port(context)), context);
+	}
+
+	/** Runs {@link LoadTestServer} with this JVM's executable and class path, and waits for its port. */
+	private static Target fork(List<String> contextArgs, int rows) throws IOException {
+		List<String> command = new ArrayList<>(List.of(
+				ProcessHandle.current().info().command().orElse("java"),
+				"-cp", System.getProperty("java.class.path"),
+				LoadTestServer.class.getName(),
+				"--rows=" + rows));
+		command.addAll(contextArgs);
+		Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+		AutoCloseable stop = () -> {
+			process.getOutputStream().close();
+			if (!process.waitFor(30, TimeUnit.SECONDS)) {
+				process.destroyForcibly();
+			}
+		};
+
+		BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+		String line;
+		while ((line = output.readLine()) != null) {
+			System.out.println(line);
+			if (line.startsWith(LoadTestServer.PORT_PREFIX)) {
+				int port = Integer.parseInt(line.substring(LoadTestServer.PORT_PREFIX.length()));
+				// keep draining, a full pipe would block the server's logging
+				Thread.ofPlatform().daemon().start(() -> output.lines().forEach(System.out::println));
+				return new Target(URI.create("http://localhost:" + port), stop);
+			}
+		}
+		process.destroyForcibly();
+		throw new IOException("Forked server exited with " + process.onExit().join().exitValue() + " before printing its port");
+	}
+
+	/** Runs every scenario at its rate, side by side, and waits for the requests still in flight. */
+	private static List<ScenarioRun> drive(HttpClient httpClient, URI baseUri, Map<LoadScenario, Double> rates,
+			Duration duration, int maxInFlight) throws Exception {
+		List<Future<ScenarioRun>> scenarioRuns = new ArrayList<>();
+		try (ExecutorService dispatchers = Executors.newVirtualThreadPerTaskExecutor()) {
+			rates.forEach((scenario, rate) -> scenarioRuns.add(dispatchers.submit(() -> drive(scenario,
+					new LoadClient(httpClient, baseUri), rate, duration, maxInFlight))));
+		}
+
+		List<ScenarioRun> runs = new ArrayList<>();
+		for (Future<ScenarioRun> scenarioRun : scenarioRuns) {
+			runs.add(scenarioRun.get());
+		}
+		return runs;
+	}
+
+	/**
+	 * Arrivals that find {@code maxInFlight} iterations still running are
+	 * dropped and counted, so an overloaded server shows up as drops instead
+	 * of exhausting the generator's memory.
+	 */
+	private static ScenarioRun drive(LoadScenario scenario, LoadClient client, double rate, Duration duration,
+			int maxInFlight) {
+		long interval = (long) (1_000_000_000 / rate);
+		Semaphore inFlight = new Semaphore(maxInFlight);
+		long arrivals = 0;
+		long dropped = 0;
+		long start = System.nanoTime();
+		long end = start + duration.toNanos();
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (long arrival = start; arrival < end; arrival += interval) {
+				LockSupport.parkNanos(arrival - System.nanoTime());
+				arrivals++;
+				if (!inFlight.tryAcquire()) {
+					dropped++;
+					continue;
+				}
+				executor.execute(() -> {
+					try {
+						scenario.iterate(client, ThreadLocalRandom.current());
+					} catch (Exception e) {
+						// counted by the client, the rest of the iteration is skipped
+					} finally {
+						inFlight.release();
+					}
+				});
+			}
+		}
+		return new ScenarioRun(scenario, rate, client, arrivals, dropped, (System.nanoTime() - start) / 1e9);
+	}
+
+	private static Map<String, LoadBaseline.Metrics> report(List<ScenarioRun> runs) {
+		Map<String, LoadBaseline.Metrics> results = new LinkedHashMap<>();
+		System.out.printf("%n%-20s %10s %8s %8s %10s %10s %10s %10s %10s%n", "scenario", "req/s", "errors", "dropped",
+				"p50 us", "p90 us", "p99 us", "p99.9 us", "max us");
+
+		for (ScenarioRun run : runs) {
+			Histogram total = null;
+			for (Map.Entry<String, Histogram> step : run.client().getLatencies().entrySet()) {
+				Histogram histogram = step.getValue();
+				print(run.scenario().getId() + "." + step.getKey(), histogram, run.client().getErrors(step.getKey()), 0,
+						run.seconds());
+				if (total == null) {
+					total = histogram.copy();
+				} else {
+					total.add(histogram);
+				}
+			}
+			if (total == null) {
+				total = new Histogram(3);
+			}
+			long errors = run.client().getErrors();
+			print(run.scenario().getId(), total, errors, run.dropped(), run.seconds());
+
+			// a dropped arrival sent no requests, so it is a rate of its own rather than an error
+			long requests = total.getTotalCount() + errors;
+			results.put(run.scenario().getId(), new LoadBaseline.Metrics(
+					run.rate(),
+					total.getValueAtPercentile(50),
+					total.getValueAtPercentile(90),
+					total.getValueAtPercentile(99),
+					total.getMaxValue(),
+					total.getTotalCount() / run.seconds(),
+					requests == 0 ? 0 : (double) errors / requests,
+					run.arrivals() == 0 ? 0 : (double) run.dropped() / run.arrivals()));
+		}
+		return results;
+	}
+
+	private static void print(String name, Histogram histogram, long errors, long dropped, double seconds) {
+		System.out.printf("%-20s %10.1f %8d %8d %10d %10d %10d %10d %10d%n", name, histogram.getTotalCount() / seconds,
+				errors, dropped, histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(90),
+				histogram.getValueAtPercentile(99), histogram.getValueAtPercentile(99.9), histogram.getMaxValue());
+	}
+
+	private static String ratesArg(Map<LoadScenario, Double> rates) {
+		List<String> parts = new ArrayList<>();
+		rates.forEach((scenario, rate) -> parts.add(scenario.getId() + ":" + rate.intValue()));
+		return String.join(",", parts);
+	}
+
+	private static String value(String arg) {
+		return arg.substring(arg.indexOf('=') + 1);
+	}
+}
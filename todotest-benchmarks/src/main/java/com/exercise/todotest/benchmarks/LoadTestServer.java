@@ -0,0 +1,39 @@
+package com.exercise.todotest.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.exercise.todotest.repository.TodoRepository;
+
+/**
+ * The application as {@link LoadTest} runs it with {@code --fork}, in a JVM
+ * of its own: seeded, on a random port printed as {@code port=N}, and running
+ * until its standard input closes, which happens when the parent exits.
+ */
+public class LoadTestServer {
+	public static final String PORT_PREFIX = "port=";
+
+	public static void main(String[] args) throws Exception {
+		int rows = LoadTest.DEFAULT_ROWS;
+		List<String> contextArgs = new ArrayList<>();
+		for (String arg : args) {
+			if (arg.startsWith("--rows=")) {
+				rows = Integer.parseInt(arg.substring("--rows=".length()));
+			} else {
+				contextArgs.add(arg);
+			}
+		}
+
+		try (ConfigurableApplicationContext context = BenchmarkApplication.startWeb(contextArgs.toArray(String[]::new))) {
+			BenchmarkApplication.seed(context.getBean(TodoRepository.class), rows);
+			System.out.println(PORT_PREFIX + BenchmarkApplication.port(context));
+			System.out.flush();
+
+			while (System.in.read() != -1) {
+				// wait for the parent to go away
+			}
+		}
+	}
+}
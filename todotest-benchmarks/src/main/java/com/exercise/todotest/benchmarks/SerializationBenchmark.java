@@ -0,0 +1,84 @@
+package com.exercise.todotest.benchmarks;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.exception.ErrorDetails;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Jackson cost of the response bodies, using an {@code ObjectMapper} built
+ * the same way Spring MVC builds its message converter's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+	@Param({ "1", "5", "20" })
+	int pageSize;
+
+	@Param({ "SHORT", "LONG" })
+	String payload;
+
+	ObjectMapper objectMapper;
+	Page<TodoDto> todoPage;
+	ErrorDetails messageErrorDetails;
+	ErrorDetails fieldsErrorDetails;
+
+	@Setup
+	public void setup() {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+		int descriptionLength = "SHORT".equals(payload) ? 10 : 200;
+		List<TodoDto> todos = new ArrayList<>(pageSize);
+		for (int i = 0; i < pageSize; i++) {
+			todos.add(new TodoDto(i, "Todo " + i, "d".repeat(descriptionLength), LocalDate.now().plusDays(1), 1 + i % 4));
+		}
+		todoPage = new PageImpl<>(todos, PageRequest.of(0, pageSize, Sort.by(Sort.Direction.DESC, "priority")), 1_000);
+
+		messageErrorDetails = new ErrorDetails(LocalDateTime.now(), "Resource not found", "No static resource Todo with id '55'.");
+		fieldsErrorDetails = new ErrorDetails(LocalDateTime.now(), "Invalid field inputs",
+				Map.of("title", "size must be between 2 and 20", "description", "must not be null", "priority", "must be less than or equal to 4"));
+	}
+
+	@Benchmark
+	public byte[] serializeTodoPage() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(todoPage);
+	}
+
+	@Benchmark
+	public byte[] serializeErrorDetailsMessage() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(messageErrorDetails);
+	}
+
+	@Benchmark
+	public byte[] serializeErrorDetailsFields() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(fieldsErrorDetails);
+	}
+}
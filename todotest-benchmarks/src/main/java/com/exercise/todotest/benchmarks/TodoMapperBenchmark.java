@@ -0,0 +1,63 @@
+package com.exercise.todotest.benchmarks;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.entity.Todo;
+import com.exercise.todotest.mapper.DirectTodoMapper;
+import com.exercise.todotest.mapper.ModelMapperTodoMapper;
+import com.exercise.todotest.mapper.TodoMapper;
+
+/**
+ * Per-row cost of each {@link TodoMapper} implementation. Run with
+ * {@code -prof gc} to see the allocation rate next to the time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TodoMapperBenchmark {
+	@Param({ "direct", "modelmapper" })
+	String mapper;
+
+	TodoMapper todoMapper;
+	Todo todo;
+	TodoDto todoDto;
+
+	@Setup
+	public void setup() {
+		todoMapper = switch (mapper) {
+		case "direct" -> new DirectTodoMapper();
+		case "modelmapper" -> new ModelMapperTodoMapper(new ModelMapper());
+		default -> throw new IllegalArgumentException("Unexpected value: " + mapper);
+		};
+		todo = new Todo(42, "Benchmark", "Benchmark description", LocalDate.now().plusDays(1), 2);
+		todoDto = new TodoDto(42, "Benchmark", "Benchmark description", LocalDate.now().plusDays(1), 2);
+	}
+
+	@Benchmark
+	public TodoDto toDto() {
+		return todoMapper.toDto(todo);
+	}
+
+	@Benchmark
+	public Todo toEntity() {
+		return todoMapper.toEntity(todoDto);
+	}
+}
@@ -0,0 +1,98 @@
+package com.exercise.todotest.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.entity.Todo;
+import com.exercise.todotest.enums.TodoField;
+import com.exercise.todotest.mapper.TodoMapper;
+import com.exercise.todotest.repository.TodoRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * One page of {@code GET /todo} read three ways, per page size:
+ * {@code entity} loads managed entities in a read-write transaction and maps
+ * them, as the list endpoints used to; {@code entity-readonly} does the same
+ * in a read-only transaction, so Hibernate keeps no snapshots and skips the
+ * flush; {@code projection} is {@link TodoRepository#findDtosBy}. Run with
+ * {@code -prof gc} to compare allocation per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoReadPathBenchmark {
+	private static final int ROWS = 5_000;
+	private static final String SELECT_PAGE = "select t from Todo t order by t.priority desc, t.id desc";
+
+	@Param({ "1", "20", "100" })
+	int pageSize;
+
+	@Param({ "entity", "entity-readonly", "projection" })
+	String path;
+
+	ConfigurableApplicationContext context;
+	TodoRepository todoRepository;
+	TodoMapper todoMapper;
+	EntityManager entityManager;
+	TransactionTemplate transactionTemplate;
+	PageRequest pageRequest;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		context = BenchmarkApplication.start();
+		todoRepository = context.getBean(TodoRepository.class);
+		todoMapper = context.getBean(TodoMapper.class);
+		entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+		transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+		transactionTemplate.setReadOnly(path.equals("entity-readonly"));
+		BenchmarkApplication.seed(todoRepository, ROWS);
+		pageRequest = PageRequest.of(0, pageSize, TodoField.PRIORITY.sortBy(Sort.Direction.DESC));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<TodoDto> readPage() {
+		if (path.equals("projection")) {
+			return todoRepository.findDtosBy(pageRequest).getContent();
+		}
+
+		return transactionTemplate.execute(status -> entityManager.createQuery(SELECT_PAGE, Todo.class)
+				.setFirstResult((int) pageRequest.getOffset())
+				.setMaxResults(pageSize + 1)
+				.getResultList()
+				.stream()
+				.limit(pageSize)
+				.map(todoMapper::toDto)
+				.toList());
+	}
+}
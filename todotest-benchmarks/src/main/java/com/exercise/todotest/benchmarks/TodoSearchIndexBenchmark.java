@@ -0,0 +1,76 @@
+package com.exercise.todotest.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.exercise.todotest.service.TodoSearchIndex;
+
+/**
+ * Latency distribution of {@link TodoSearchIndex#search} for a first page of
+ * 20. Descriptions draw words from a skewed vocabulary, so {@code common}
+ * matches a large share of the todos, {@code rare} a handful, and
+ * {@code mixed} intersects the two. Needs {@code -Xmx2g} or so at a million
+ * todos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TodoSearchIndexBenchmark {
+	private static final int VOCABULARY = 5000;
+
+	@Param({ "1000000" })
+	int todos;
+
+	@Param({ "common", "rare", "mixed" })
+	String query;
+
+	TodoSearchIndex todoSearchIndex;
+	String queryText;
+
+	@Setup
+	public void setup() {
+		todoSearchIndex = new TodoSearchIndex();
+		Random random = new Random(42);
+		StringBuilder description = new StringBuilder();
+		for (int id = 1; id <= todos; id++) {
+			description.setLength(0);
+			for (int word = 0; word < 12; word++) {
+				description.append(word(random)).append(' ');
+			}
+			todoSearchIndex.index(id, "Todo " + word(random), description.toString());
+		}
+
+		queryText = switch (query) {
+		case "common" -> "word0";
+		case "rare" -> "word" + (VOCABULARY - 1);
+		case "mixed" -> "word1 word" + (VOCABULARY / 2);
+		default -> throw new IllegalArgumentException("Unexpected value: " + query);
+		};
+	}
+
+	// squaring a uniform value skews picks toward the low-numbered words
+	private static String word(Random random) {
+		double skewed = random.nextDouble();
+		return "word" + (int) (skewed * skewed * VOCABULARY);
+	}
+
+	@Benchmark
+	public TodoSearchIndex.Hits search() {
+		return todoSearchIndex.search(queryText, 0, 20);
+	}
+}
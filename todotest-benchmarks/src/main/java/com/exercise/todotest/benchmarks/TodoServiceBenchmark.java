@@ -0,0 +1,120 @@
+package com.exercise.todotest.benchmarks;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
+
+import com.exercise.todotest.dto.CursorPageDto;
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.enums.TodoField;
+import com.exercise.todotest.repository.TodoRepository;
+import com.exercise.todotest.service.TodoService;
+
+/**
+ * {@link TodoService} read and write paths against H2, per page size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoServiceBenchmark {
+	private static final int ROWS = 5_000;
+
+	@Param({ "1", "5", "20" })
+	int pageSize;
+
+	@Param({ "ID", "PRIORITY" })
+	TodoField sortfield;
+
+	ConfigurableApplicationContext context;
+	TodoService todoService;
+	int deepPage;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		context = BenchmarkApplication.start();
+		todoService = context.getBean(TodoService.class);
+		BenchmarkApplication.seed(context.getBean(TodoRepository.class), ROWS);
+		deepPage = ROWS / pageSize - 1;
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Page<TodoDto> getAllTodosFirstPage() {
+		return todoService.getAllTodos(0, pageSize, sortfield, Sort.Direction.DESC);
+	}
+
+	@Benchmark
+	public Page<TodoDto> getAllTodosDeepPage() {
+		return todoService.getAllTodos(deepPage, pageSize, sortfield, Sort.Direction.DESC);
+	}
+
+	@Benchmark
+	public Slice<TodoDto> getTodosSlice() {
+		return todoService.getTodosSlice(0, pageSize, sortfield, Sort.Direction.DESC);
+	}
+
+	@Benchmark
+	public CursorPageDto<TodoDto> getTodosByCursor() {
+		return todoService.getTodosByCursor("", pageSize, sortfield, Sort.Direction.DESC);
+	}
+
+	@Benchmark
+	public TodoDto getTodoDtoById() throws NoResourceFoundException {
+		return todoService.getTodoDtoById(ROWS / 2);
+	}
+
+	/**
+	 * Write path, through {@code partialUpdateSwitchCase}, with different
+	 * payload shapes. Kept in its own state so the read benchmarks above are not
+	 * multiplied by the patch shapes.
+	 */
+	@State(Scope.Benchmark)
+	public static class PatchState {
+		@Param({ "title", "title+priority", "all" })
+		String shape;
+
+		Map<String, ?> patch;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			patch = switch (shape) {
+			case "title" -> Map.of("title", "Patched");
+			case "title+priority" -> Map.of("title", "Patched", "priority", 3);
+			case "all" -> Map.of("title", "Patched", "description", "Patched description",
+					"targetDate", LocalDate.now().plusDays(10).toString(), "priority", 3);
+			default -> throw new IllegalArgumentException("Unexpected value: " + shape);
+			};
+		}
+	}
+
+	@Benchmark
+	public TodoDto partialUpdateTodo(PatchState patchState) throws NoResourceFoundException {
+		return todoService.partialUpdateTodo(ROWS / 2, patchState.patch);
+	}
+}
@@ -2,6 +2,8 @@ package com.exercise.todotest.dto;
 
 import java.time.LocalDate;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -24,6 +26,9 @@ public class TodoDto {
 	@Min(value = 1)
 	@Max(value = 4)
 	private int priority;
+	// exposed as the ETag header, never in the body
+	@JsonIgnore
+	private long version;
 	
 	public TodoDto() {}
 	
@@ -36,6 +41,11 @@ public class TodoDto {
 		this.priority = priority;
 	}
 	
+	public TodoDto(int id, String title, String description, LocalDate targetDate, int priority, long version) {
+		this(id, title, description, targetDate, priority);
+		this.version = version;
+	}
+	
 	public int getId() {
 		return id;
 	}
@@ -66,5 +76,11 @@ public class TodoDto {
 	public void setPriority(int priority) {
 		this.priority = priority;
 	}
+	public long getVersion() {
+		return version;
+	}
+	public void setVersion(long version) {
+		this.version = version;
+	}
 	
 }
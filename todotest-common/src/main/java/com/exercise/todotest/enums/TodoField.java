@@ -0,0 +1,32 @@
+package com.exercise.todotest.enums;
+
+import org.springframework.data.domain.Sort;
+
+public enum TodoField {
+
+	ID("id"),
+	TITLE("title"),
+	DESCRIPTION("description"),
+	TARGETDATE("targetDate"),
+	PRIORITY("priority");
+	
+	private final String field;
+
+	private TodoField(String field) {
+		this.field = field;
+	}
+	
+	public String getTodoField() {
+		return this.field;
+	}
+	
+	/**
+	 * Sort by this field using the id as tiebreaker, in the same direction, so
+	 * rows with equal sort keys always come back in a stable order.
+	 */
+	public Sort sortBy(Sort.Direction direction) {
+		Sort sort = Sort.by(direction, this.field);
+		return this == ID ? sort : sort.and(Sort.by(direction, ID.field));
+	}
+	
+}
@@ -0,0 +1,11 @@
+package com.exercise.todotest.repository;
+
+/**
+ * Projection of the columns that identify a todo's state, enough to build an
+ * ETag without loading the rest of the row.
+ */
+public interface TodoVersion {
+	int getId();
+
+	long getVersion();
+}
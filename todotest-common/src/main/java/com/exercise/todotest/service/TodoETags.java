@@ -0,0 +1,88 @@
+package com.exercise.todotest.service;
+
+import java.util.List;
+
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.exception.PreconditionFailedException;
+import com.exercise.todotest.repository.TodoVersion;
+
+/**
+ * Entity tags for todos. A single todo's tag is its {@code @Version}; a page's
+ * tag is a hash of the total and the (id, version) of every row on it, which
+ * can be computed from a two-column projection without mapping the rows.
+ */
+public final class TodoETags {
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private TodoETags() {}
+
+	public static String forTodo(TodoDto todoDto) {
+		return quote(Long.toString(todoDto.getVersion()));
+	}
+
+	public static String forPage(long total, List<TodoDto> todoDtos) {
+		long hash = mix(FNV_OFFSET_BASIS, total);
+		for (TodoDto todoDto : todoDtos) {
+			hash = mix(mix(hash, todoDto.getId()), todoDto.getVersion());
+		}
+		return quote(Long.toHexString(hash));
+	}
+
+	public static String forPageVersions(long total, List<TodoVersion> todoVersions) {
+		long hash = mix(FNV_OFFSET_BASIS, total);
+		for (TodoVersion todoVersion : todoVersions) {
+			hash = mix(mix(hash, todoVersion.getId()), todoVersion.getVersion());
+		}
+		return quote(Long.toHexString(hash));
+	}
+
+	/**
+	 * Whether an {@code If-None-Match} header matches the given tag, using weak
+	 * comparison as RFC 9110 requires for that header.
+	 */
+	public static boolean matches(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+		for (String candidate : ifNoneMatch.split(",")) {
+			String trimmed = candidate.trim();
+			if (trimmed.equals("*") || stripWeak(trimmed).equals(etag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Version expected by an {@code If-Match} header, or {@code null} for
+	 * {@code *} (any current representation).
+	 */
+	public static Long expectedVersion(String ifMatch) {
+		String trimmed = ifMatch.trim();
+		if (trimmed.equals("*")) {
+			return null;
+		}
+		try {
+			return Long.valueOf(trimmed.substring(1, trimmed.length() - 1));
+		} catch (RuntimeException e) {
+			throw new PreconditionFailedException("If-Match '" + ifMatch + "' is not a todo entity tag");
+		}
+	}
+
+	private static String stripWeak(String etag) {
+		return etag.startsWith("W/") ? etag.substring(2) : etag;
+	}
+
+	private static String quote(String value) {
+		return "\"" + value + "\"";
+	}
+
+	private static long mix(long hash, long value) {
+		for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+			hash ^= (value >>> shift) & 0xff;
+			hash *= FNV_PRIME;
+		}
+		return hash;
+	}
+}
@@ -0,0 +1,78 @@
+package com.exercise.todotest.service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.exercise.todotest.enums.TodoField;
+
+import jakarta.validation.ValidationException;
+
+/**
+ * Parses and validates a partial update body into the columns it changes.
+ * Shared by every runtime that serves {@code PATCH /todo/{id}}, so they reject
+ * the same input with the same messages.
+ */
+public final class TodoPatches {
+
+	private TodoPatches() {}
+
+	public static Map<TodoField, Object> parse(Map<String, ?> todo) {
+		Map<TodoField, Object> changes = new EnumMap<>(TodoField.class);
+
+		for (Entry<String, ?> entry : todo.entrySet()) {
+			put(changes, entry.getKey(), entry.getValue());
+		}
+		return changes;
+	}
+
+	private static void put(Map<TodoField, Object> changes, String key, Object value) {
+		DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+		switch (key) {
+		case "title" -> {
+			if (value.toString().length() < 2 || value.toString().length() > 20) {
+				throw new ValidationException("'Title' must be between 2 and 20");
+			} else {
+				changes.put(TodoField.TITLE, value.toString());
+			}
+			break;
+		}
+		case "description" -> {
+			if (value.toString().length() < 10 || value.toString().length() > 200) {
+				throw new ValidationException("'Description' must be between 10 and 200");
+			} else {
+				changes.put(TodoField.DESCRIPTION, value.toString());
+			}
+			break;
+		}
+		case "targetDate" -> {
+			try {
+				LocalDate date = LocalDate.parse(value.toString(), formatter);
+
+				if (date.isAfter(LocalDate.now())) {
+					changes.put(TodoField.TARGETDATE, date);
+				} else {
+					throw new ValidationException("'Target Date' must be in future");
+				}
+			} catch (Exception e) {
+				throw new ValidationException(e);
+			}
+			break;
+		}
+		case "priority" -> {
+			int priority = Integer.parseInt(value.toString());
+
+			if (priority < 1 || priority > 4) {
+				throw new ValidationException("'Priority' must be between 1 and 4");
+			} else {
+				changes.put(TodoField.PRIORITY, priority);
+			}
+			break;
+		}
+		default -> throw new IllegalArgumentException("Unexpected value: " + key);
+		}
+	}
+}
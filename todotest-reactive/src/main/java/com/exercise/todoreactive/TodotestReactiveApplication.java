@@ -0,0 +1,16 @@
+package com.exercise.todoreactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.PropertySource;
+
+// Not application.properties: this jar shares classpaths with the servlet application in the benchmarks
+@SpringBootApplication
+@PropertySource("classpath:todotest-reactive.properties")
+public class TodotestReactiveApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(TodotestReactiveApplication.class, args);
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.exercise.todoreactive.entity;
+
+import java.time.LocalDate;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * R2DBC mapping of the {@code todo} table. A {@code null} id or version marks
+ * a row that hasn't been inserted yet.
+ */
+@Table("todo")
+public class TodoRow {
+	@Id
+	private Integer id;
+	private String title;
+	private String description;
+	private LocalDate targetDate;
+	private int priority;
+	@Version
+	private Long version;
+
+	public TodoRow() {}
+
+	public TodoRow(Integer id, String title, String description, LocalDate targetDate, int priority, Long version) {
+		super();
+		this.id = id;
+		this.title = title;
+		this.description = description;
+		this.targetDate = targetDate;
+		this.priority = priority;
+		this.version = version;
+	}
+
+	public Integer getId() {
+		return id;
+	}
+
+	public void setId(Integer id) {
+		this.id = id;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public void setTitle(String title) {
+		this.title = title;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	public void setDescription(String description) {
+		this.description = description;
+	}
+
+	public LocalDate getTargetDate() {
+		return targetDate;
+	}
+
+	public void setTargetDate(LocalDate targetDate) {
+		this.targetDate = targetDate;
+	}
+
+	public int getPriority() {
+		return priority;
+	}
+
+	public void setPriority(int priority) {
+		this.priority = priority;
+	}
+
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+}
@@ -0,0 +1,19 @@
+package com.exercise.todoreactive.exception;
+
+/**
+ * Rejected request input, rendered as a 400 with this message and details.
+ */
+public class InvalidInputException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	private final transient Object details;
+
+	public InvalidInputException(String message, Object details) {
+		super(message);
+		this.details = details;
+	}
+
+	public Object getDetails() {
+		return details;
+	}
+}
@@ -0,0 +1,47 @@
+package com.exercise.todoreactive.exception;
+
+import java.time.LocalDateTime;
+
+import org.springframework.core.codec.DecodingException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.reactive.resource.NoResourceFoundException;
+import org.springframework.web.server.ServerWebInputException;
+
+import com.exercise.todotest.exception.ErrorDetails;
+import com.exercise.todotest.exception.PreconditionFailedException;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Renders errors as the {@link ErrorDetails} bodies and statuses the servlet
+ * stack's {@code CustomizedResponseEntityExceptionHandler} produces, so
+ * clients can't tell the two runtimes apart.
+ */
+@Component
+public class TodoErrorResponses {
+
+	public Mono<ServerResponse> render(Throwable ex, ServerRequest request) {
+		if (ex instanceof InvalidInputException invalidInput) {
+			return respond(HttpStatus.BAD_REQUEST, invalidInput.getMessage(), invalidInput.getDetails());
+		}
+		if (ex instanceof NoResourceFoundException notFound) {
+			return respond(HttpStatus.NOT_FOUND, "Resource not found", notFound.getReason());
+		}
+		if (ex instanceof PreconditionFailedException preconditionFailed) {
+			return respond(HttpStatus.PRECONDITION_FAILED, "Precondition failed", preconditionFailed.getMessage());
+		}
+		if (ex instanceof ServerWebInputException && ex.getCause() instanceof DecodingException decoding) {
+			return respond(HttpStatus.BAD_REQUEST, "Invalid body request", decoding.getMessage());
+		}
+
+		String message = ex.getCause() != null ? ex.getCause().getLocalizedMessage() : ex.getMessage();
+		return respond(HttpStatus.INTERNAL_SERVER_ERROR, message, "uri=" + request.path());
+	}
+
+	private Mono<ServerResponse> respond(HttpStatus status, String message, Object details) {
+		return ServerResponse.status(status).bodyValue(new ErrorDetails(LocalDateTime.now(), message, details));
+	}
+}
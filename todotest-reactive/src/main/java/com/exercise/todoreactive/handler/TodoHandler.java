@@ -0,0 +1,241 @@
+package com.exercise.todoreactive.handler;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.reactive.resource.NoResourceFoundException;
+
+import com.exercise.todoreactive.entity.TodoRow;
+import com.exercise.todoreactive.exception.InvalidInputException;
+import com.exercise.todoreactive.mapper.TodoRowMapper;
+import com.exercise.todoreactive.repository.TodoRowRepository;
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.enums.TodoField;
+import com.exercise.todotest.exception.PreconditionFailedException;
+import com.exercise.todotest.service.TodoETags;
+import com.exercise.todotest.service.TodoPatches;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Non-blocking counterpart of {@code TodoController}: same parameters,
+ * defaults, statuses and headers. Errors are left to the router's filter.
+ */
+@Component
+public class TodoHandler {
+	private static final String RETURN_MINIMAL = "return=minimal";
+	private static final int MAX_LIMIT = 20;
+	private static final int MAX_UPDATE_RETRIES = 3;
+	private static final ParameterizedTypeReference<Map<String, Object>> PATCH_BODY = new ParameterizedTypeReference<>() {};
+
+	@Autowired
+	TodoRowRepository todoRowRepository;
+
+	@Autowired
+	TodoRowMapper todoRowMapper;
+
+	@Autowired
+	Validator validator;
+
+	public Mono<ServerResponse> retrieveAllTodos(ServerRequest request) {
+		int page = intParam(request, "page", 0);
+		if (page < 0) {
+			throw new InvalidInputException("Invalid Parameter Input", "Page must not be negative");
+		}
+		int limit = intParam(request, "limit", MAX_LIMIT);
+		if (limit < 1 || limit > MAX_LIMIT) {
+			throw new InvalidInputException("Invalid Parameter Input", "Limit must be between 1 and 20");
+		}
+		TodoField sortfield = enumParam(request, "sortfield", TodoField.class, TodoField.ID);
+		Sort.Direction sortorder = enumParam(request, "sortorder", Sort.Direction.class, Sort.Direction.DESC);
+
+		Pageable pageable = PageRequest.of(page, limit, sortfield.sortBy(sortorder));
+		Mono<List<TodoDto>> content = todoRowRepository.findAllBy(pageable).map(todoRowMapper::toDto).collectList();
+
+		return Mono.zip(content, todoRowRepository.count())
+				.map(pageAndTotal -> new PageImpl<>(pageAndTotal.getT1(), pageable, pageAndTotal.getT2()))
+				.flatMap(todoDtoPage -> ServerResponse.ok().bodyValue(todoDtoPage));
+	}
+
+	public Mono<ServerResponse> retrieveTodoById(ServerRequest request) {
+		int id = idParam(request);
+		String ifNoneMatch = request.headers().firstHeader(HttpHeaders.IF_NONE_MATCH);
+
+		return findTodo(id).map(todoRowMapper::toDto).flatMap(todoDto -> {
+			String etag = TodoETags.forTodo(todoDto);
+			if (TodoETags.matches(ifNoneMatch, etag)) {
+				return ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+			}
+			return ServerResponse.ok().eTag(etag).bodyValue(todoDto);
+		});
+	}
+
+	public Mono<ServerResponse> createTodo(ServerRequest request) {
+		return request.bodyToMono(TodoDto.class)
+				.switchIfEmpty(missingBody())
+				.map(this::validate)
+				.map(todoRowMapper::toNewRow)
+				.flatMap(todoRowRepository::save)
+				.map(todoRowMapper::toDto)
+				.flatMap(todoDto -> ServerResponse.created(request.uriBuilder().path("/{id}").build(todoDto.getId()))
+						.eTag(TodoETags.forTodo(todoDto))
+						.bodyValue(todoDto));
+	}
+
+	public Mono<ServerResponse> deleteTodo(ServerRequest request) {
+		int id = idParam(request);
+		Long expectedVersion = expectedVersion(request);
+
+		Mono<Integer> deletedRows = expectedVersion == null ? todoRowRepository.deleteTodoById(id)
+				: todoRowRepository.deleteTodoById(id, expectedVersion);
+		return deletedRows.flatMap(rows -> rows > 0 ? ServerResponse.accepted().build() : writeMissed(id, expectedVersion));
+	}
+
+	public Mono<ServerResponse> updateTodo(ServerRequest request) {
+		int id = idParam(request);
+		Long expectedVersion = expectedVersion(request);
+
+		return request.bodyToMono(TodoDto.class)
+				.switchIfEmpty(missingBody())
+				.map(this::validate)
+				.flatMap(todoDto -> update(id, expectedVersion, todoRow -> todoRowMapper.overwrite(todoRow, todoDto)))
+				.flatMap(todoDto -> ServerResponse.accepted().eTag(TodoETags.forTodo(todoDto)).bodyValue(todoDto));
+	}
+
+	public Mono<ServerResponse> partialUpdateTodo(ServerRequest request) {
+		int id = idParam(request);
+		Long expectedVersion = expectedVersion(request);
+		boolean returnMinimal = RETURN_MINIMAL.equalsIgnoreCase(request.headers().firstHeader("Prefer"));
+
+		return request.bodyToMono(PATCH_BODY)
+				.switchIfEmpty(missingBody())
+				.map(TodoPatches::parse)
+				.flatMap(changes -> changes.isEmpty()
+						? findTodo(id).map(todoRow -> checkVersion(id, todoRow, expectedVersion)).map(todoRowMapper::toDto)
+						: update(id, expectedVersion, todoRow -> todoRowMapper.apply(todoRow, changes)))
+				.flatMap(todoDto -> returnMinimal
+						? ServerResponse.accepted().header("Preference-Applied", RETURN_MINIMAL).build()
+						: ServerResponse.accepted().eTag(TodoETags.forTodo(todoDto)).bodyValue(todoDto));
+	}
+
+	/**
+	 * Read-modify-write guarded by the row version. With {@code If-Match} a
+	 * concurrent write is a 412; without it the last writer wins, as on the
+	 * servlet stack, so the update is re-read and retried.
+	 */
+	private Mono<TodoDto> update(int id, Long expectedVersion, UnaryOperator<TodoRow> change) {
+		Mono<TodoDto> update = findTodo(id)
+				.map(todoRow -> checkVersion(id, todoRow, expectedVersion))
+				.map(change)
+				.flatMap(todoRowRepository::save)
+				.map(todoRowMapper::toDto);
+
+		if (expectedVersion != null) {
+			return update.onErrorMap(OptimisticLockingFailureException.class, ex -> preconditionFailed(id, expectedVersion));
+		}
+		return update.retryWhen(Retry.max(MAX_UPDATE_RETRIES).filter(OptimisticLockingFailureException.class::isInstance));
+	}
+
+	private Mono<TodoRow> findTodo(int id) {
+		return todoRowRepository.findById(id).switchIfEmpty(Mono.error(() -> todoNotFound(id)));
+	}
+
+	private TodoRow checkVersion(int id, TodoRow todoRow, Long expectedVersion) {
+		if (expectedVersion != null && !expectedVersion.equals(todoRow.getVersion())) {
+			throw preconditionFailed(id, expectedVersion);
+		}
+		return todoRow;
+	}
+
+	private Mono<ServerResponse> writeMissed(int id, Long expectedVersion) {
+		if (expectedVersion == null) {
+			return Mono.error(todoNotFound(id));
+		}
+		return todoRowRepository.existsById(id)
+				.flatMap(exists -> Mono.error(exists ? preconditionFailed(id, expectedVersion) : todoNotFound(id)));
+	}
+
+	private TodoDto validate(TodoDto todoDto) {
+		Set<ConstraintViolation<TodoDto>> violations = validator.validate(todoDto);
+		if (!violations.isEmpty()) {
+			Map<String, Object> errorsMap = new HashMap<>();
+			violations.forEach(violation -> errorsMap.put(violation.getPropertyPath().toString(), violation.getMessage()));
+			throw new InvalidInputException("Invalid field inputs", errorsMap);
+		}
+		return todoDto;
+	}
+
+	private static Long expectedVersion(ServerRequest request) {
+		String ifMatch = request.headers().firstHeader(HttpHeaders.IF_MATCH);
+		return ifMatch == null ? null : TodoETags.expectedVersion(ifMatch);
+	}
+
+	private static int idParam(ServerRequest request) {
+		String value = request.pathVariable("id");
+		try {
+			return Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			throw typeMismatch("id", value, "int", "");
+		}
+	}
+
+	private static int intParam(ServerRequest request, String name, int defaultValue) {
+		String value = request.queryParam(name).orElse("");
+		if (value.isBlank()) {
+			return defaultValue;
+		}
+		try {
+			return Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			throw typeMismatch(name, value, "Integer", "");
+		}
+	}
+
+	private static <E extends Enum<E>> E enumParam(ServerRequest request, String name, Class<E> type, E defaultValue) {
+		String value = request.queryParam(name).orElse("");
+		if (value.isBlank()) {
+			return defaultValue;
+		}
+		try {
+			return Enum.valueOf(type, value.trim());
+		} catch (IllegalArgumentException e) {
+			throw typeMismatch(name, value, type.getSimpleName(), Arrays.asList(type.getEnumConstants()).toString());
+		}
+	}
+
+	private static InvalidInputException typeMismatch(String name, String value, String type, String supportedValues) {
+		return new InvalidInputException("Invalid Argument Type",
+				"Failed to convert '" + name + "' with value: '" + value + "' -  Must be '" + type + "'" + supportedValues);
+	}
+
+	private static <T> Mono<T> missingBody() {
+		return Mono.error(() -> new InvalidInputException("Invalid body request", "Required request body is missing"));
+	}
+
+	private static PreconditionFailedException preconditionFailed(int id, long expectedVersion) {
+		return new PreconditionFailedException("Todo with id '" + id + "' is no longer at version " + expectedVersion);
+	}
+
+	private static NoResourceFoundException todoNotFound(int id) {
+		return new NoResourceFoundException("Todo with id '" + id + "'");
+	}
+}
@@ -0,0 +1,50 @@
+package com.exercise.todoreactive.mapper;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.exercise.todoreactive.entity.TodoRow;
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.enums.TodoField;
+
+/**
+ * Plain field copies between {@link TodoRow} and {@link TodoDto}; nothing
+ * here blocks, so it runs inline on the event loop.
+ */
+@Component
+public class TodoRowMapper {
+
+	public TodoDto toDto(TodoRow todoRow) {
+		return new TodoDto(todoRow.getId(), todoRow.getTitle(), todoRow.getDescription(), todoRow.getTargetDate(),
+				todoRow.getPriority(), todoRow.getVersion() == null ? 0 : todoRow.getVersion());
+	}
+
+	/** Row for a new todo; the id from the request is ignored. */
+	public TodoRow toNewRow(TodoDto todoDto) {
+		return new TodoRow(null, todoDto.getTitle(), todoDto.getDescription(), todoDto.getTargetDate(),
+				todoDto.getPriority(), null);
+	}
+
+	public TodoRow overwrite(TodoRow todoRow, TodoDto todoDto) {
+		todoRow.setTitle(todoDto.getTitle());
+		todoRow.setDescription(todoDto.getDescription());
+		todoRow.setTargetDate(todoDto.getTargetDate());
+		todoRow.setPriority(todoDto.getPriority());
+		return todoRow;
+	}
+
+	public TodoRow apply(TodoRow todoRow, Map<TodoField, Object> changes) {
+		changes.forEach((field, value) -> {
+			switch (field) {
+			case TITLE -> todoRow.setTitle((String) value);
+			case DESCRIPTION -> todoRow.setDescription((String) value);
+			case TARGETDATE -> todoRow.setTargetDate((LocalDate) value);
+			case PRIORITY -> todoRow.setPriority((Integer) value);
+			default -> throw new IllegalArgumentException("Unexpected value: " + field);
+			}
+		});
+		return todoRow;
+	}
+}
@@ -0,0 +1,24 @@
+package com.exercise.todoreactive.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+
+import com.exercise.todoreactive.entity.TodoRow;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface TodoRowRepository extends R2dbcRepository<TodoRow, Integer> {
+
+	Flux<TodoRow> findAllBy(Pageable pageable);
+
+	@Modifying
+	@Query("DELETE FROM todo WHERE id = :id")
+	Mono<Integer> deleteTodoById(int id);
+
+	@Modifying
+	@Query("DELETE FROM todo WHERE id = :id AND version = :version")
+	Mono<Integer> deleteTodoById(int id, long version);
+}
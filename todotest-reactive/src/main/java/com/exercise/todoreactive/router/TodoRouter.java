@@ -0,0 +1,31 @@
+package com.exercise.todoreactive.router;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.exercise.todoreactive.exception.TodoErrorResponses;
+import com.exercise.todoreactive.handler.TodoHandler;
+
+import reactor.core.publisher.Mono;
+
+@Configuration
+public class TodoRouter {
+
+	@Bean
+	public RouterFunction<ServerResponse> todoRoutes(TodoHandler todoHandler, TodoErrorResponses todoErrorResponses) {
+		return RouterFunctions.route()
+				.GET("/todo", todoHandler::retrieveAllTodos)
+				.GET("/todo/{id}", todoHandler::retrieveTodoById)
+				.POST("/todo", todoHandler::createTodo)
+				.DELETE("/todo/{id}", todoHandler::deleteTodo)
+				.PUT("/todo/{id}", todoHandler::updateTodo)
+				.PATCH("/todo/{id}", todoHandler::partialUpdateTodo)
+				// handlers may also throw while reading parameters, before returning a Mono
+				.filter((request, next) -> Mono.defer(() -> next.handle(request))
+						.onErrorResume(ex -> todoErrorResponses.render(ex, request)))
+				.build();
+	}
+}
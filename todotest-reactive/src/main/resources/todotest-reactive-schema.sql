@@ -0,0 +1,22 @@
+-- Local H2 schema. Ids come from AUTO_INCREMENT here, while the JPA stack
+-- allocates them from todo_seq, so each runtime owns its own database.
+CREATE TABLE IF NOT EXISTS todo (
+	id INT AUTO_INCREMENT PRIMARY KEY,
+	description VARCHAR(255),
+	priority INT NOT NULL,
+	target_date DATE,
+	title VARCHAR(255),
+	version BIGINT NOT NULL
+);
+
+-- Sort indexes, as in the JPA stack's H2 migrations: one per TodoField sort and
+-- direction, since H2 can't read an index backwards
+CREATE INDEX IF NOT EXISTS idx_todo_id_desc ON todo (id DESC);
+CREATE INDEX IF NOT EXISTS idx_todo_title_id ON todo (title, id);
+CREATE INDEX IF NOT EXISTS idx_todo_title_id_desc ON todo (title DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_todo_description_id ON todo (description, id);
+CREATE INDEX IF NOT EXISTS idx_todo_description_id_desc ON todo (description DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_todo_target_date_id ON todo (target_date, id);
+CREATE INDEX IF NOT EXISTS idx_todo_target_date_id_desc ON todo (target_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_todo_priority_id ON todo (priority, id);
+CREATE INDEX IF NOT EXISTS idx_todo_priority_id_desc ON todo (priority DESC, id DESC);
@@ -0,0 +1,135 @@
+package com.exercise.todoreactive.router;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.exercise.todotest.dto.TodoDto;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+class TodoRouterTest {
+	@Autowired
+	WebTestClient webTestClient;
+
+	@Test
+	void createAndRetrieveTodo_Success() {
+		TodoDto created = createTodo("Reactive title");
+
+		webTestClient.get().uri("/todo/{id}", created.getId()).exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+				.expectBody()
+				.jsonPath("$.title").isEqualTo("Reactive title")
+				.jsonPath("$.version").doesNotExist();
+
+		webTestClient.get().uri("/todo/{id}", created.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"0\"").exchange()
+				.expectStatus().isNotModified();
+	}
+
+	@Test
+	void retrieveAllTodos_Success() {
+		createTodo("Page title");
+
+		webTestClient.get().uri("/todo?limit=1&sortfield=PRIORITY&sortorder=ASC").exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.content.length()").isEqualTo(1)
+				.jsonPath("$.size").isEqualTo(1)
+				.jsonPath("$.totalElements").exists();
+	}
+
+	@Test
+	void retrieveAllTodos_InvalidParams_Failure() {
+		webTestClient.get().uri("/todo?limit=21").exchange()
+				.expectStatus().isBadRequest()
+				.expectBody()
+				.jsonPath("$.message").isEqualTo("Invalid Parameter Input")
+				.jsonPath("$.details").isEqualTo("Limit must be between 1 and 20");
+
+		webTestClient.get().uri("/todo?page=-1").exchange()
+				.expectStatus().isBadRequest()
+				.expectBody()
+				.jsonPath("$.message").isEqualTo("Invalid Parameter Input")
+				.jsonPath("$.details").isEqualTo("Page must not be negative");
+
+		webTestClient.get().uri("/todo?sortorder=desc").exchange()
+				.expectStatus().isBadRequest()
+				.expectBody()
+				.jsonPath("$.message").isEqualTo("Invalid Argument Type")
+				.jsonPath("$.details").isEqualTo("Failed to convert 'sortorder' with value: 'desc' -  Must be 'Direction'[ASC, DESC]");
+	}
+
+	@Test
+	void retrieveTodoById_IdNotFound_Failure() {
+		webTestClient.get().uri("/todo/{id}", -1).exchange()
+				.expectStatus().isNotFound()
+				.expectBody()
+				.jsonPath("$.message").isEqualTo("Resource not found")
+				.jsonPath("$.details").isEqualTo("No static resource Todo with id '-1'.");
+	}
+
+	@Test
+	void createTodo_InvalidFields_Failure() {
+		webTestClient.post().uri("/todo").bodyValue(new TodoDto(0, "T", null, LocalDate.now().plusDays(1), 5)).exchange()
+				.expectStatus().isBadRequest()
+				.expectBody()
+				.jsonPath("$.message").isEqualTo("Invalid field inputs")
+				.jsonPath("$.details.title").exists()
+				.jsonPath("$.details.description").exists()
+				.jsonPath("$.details.priority").exists();
+	}
+
+	@Test
+	void updateTodo_StaleIfMatch_Failure() {
+		TodoDto created = createTodo("Versioned title");
+		TodoDto update = new TodoDto(0, "Updated title", "Updated description", LocalDate.now().plusDays(2), 2);
+
+		webTestClient.put().uri("/todo/{id}", created.getId()).header(HttpHeaders.IF_MATCH, "\"0\"").bodyValue(update).exchange()
+				.expectStatus().isAccepted()
+				.expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"");
+
+		webTestClient.put().uri("/todo/{id}", created.getId()).header(HttpHeaders.IF_MATCH, "\"0\"").bodyValue(update).exchange()
+				.expectStatus().isEqualTo(412)
+				.expectBody()
+				.jsonPath("$.message").isEqualTo("Precondition failed");
+	}
+
+	@Test
+	void partialUpdateAndDeleteTodo_Success() {
+		TodoDto created = createTodo("Patched title");
+
+		webTestClient.patch().uri("/todo/{id}", created.getId()).bodyValue(Map.of("priority", 4)).exchange()
+				.expectStatus().isAccepted()
+				.expectBody()
+				.jsonPath("$.priority").isEqualTo(4)
+				.jsonPath("$.title").isEqualTo("Patched title");
+
+		webTestClient.patch().uri("/todo/{id}", created.getId()).bodyValue(Map.of("priority", 9)).exchange()
+				.expectStatus().is5xxServerError()
+				.expectBody()
+				.jsonPath("$.message").isEqualTo("'Priority' must be between 1 and 4");
+
+		webTestClient.delete().uri("/todo/{id}", created.getId()).exchange().expectStatus().isAccepted();
+		webTestClient.delete().uri("/todo/{id}", created.getId()).exchange().expectStatus().isNotFound();
+	}
+
+	private TodoDto createTodo(String title) {
+		TodoDto todoDto = new TodoDto(0, title, "Reactive description", LocalDate.now().plusDays(1), 3);
+
+		TodoDto created = webTestClient.post().uri("/todo").bodyValue(todoDto).exchange()
+				.expectStatus().isCreated()
+				.expectHeader().exists(HttpHeaders.LOCATION)
+				.expectBody(TodoDto.class).returnResult().getResponseBody();
+		assertThat(created.getId()).isPositive();
+		return created;
+	}
+}
@@ -0,0 +1,113 @@
+package com.exercise.todotest.config;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Admits at most {@code permits} open connections at a time through a fair
+ * semaphore. Meant to sit in front of a pool of the same size, so virtual
+ * threads queue here in arrival order instead of all spinning inside the
+ * pool's own hand-off. A permit is held from {@code getConnection()} until
+ * the connection is closed.
+ */
+public class BoundedDataSource extends DelegatingDataSource implements Closeable {
+	private final Semaphore permits;
+	private final Duration acquireTimeout;
+
+	public BoundedDataSource(DataSource targetDataSource, int permits, Duration acquireTimeout) {
+		super(targetDataSource);
+		this.permits = new Semaphore(permits, true);
+		this.acquireTimeout = acquireTimeout;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		acquire();
+		try {
+			return bounded(super.getConnection());
+		} catch (SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		acquire();
+		try {
+			return bounded(super.getConnection(username, password));
+		} catch (SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/** Closes the pool behind, which is no longer a bean of its own once wrapped. */
+	@Override
+	public void close() throws IOException {
+		if (getTargetDataSource() instanceof Closeable closeable) {
+			closeable.close();
+		}
+	}
+
+	public int getAvailablePermits() {
+		return permits.availablePermits();
+	}
+
+	public int getQueueLength() {
+		return permits.getQueueLength();
+	}
+
+	private void acquire() throws SQLException {
+		try {
+			if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+				throw new SQLTransientConnectionException(
+						"No database permit available after " + acquireTimeout.toMillis() + "ms");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLTransientConnectionException("Interrupted while waiting for a database permit", e);
+		}
+	}
+
+	private Connection bounded(Connection connection) {
+		AtomicBoolean released = new AtomicBoolean();
+		InvocationHandler handler = (proxy, method, args) -> {
+			if (isClose(method) && released.compareAndSet(false, true)) {
+				try {
+					return method.invoke(connection, args);
+				} catch (InvocationTargetException e) {
+					throw e.getTargetException();
+				} finally {
+					permits.release();
+				}
+			}
+			try {
+				return method.invoke(connection, args);
+			} catch (InvocationTargetException e) {
+				throw e.getTargetException();
+			}
+		};
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+				handler);
+	}
+
+	private static boolean isClose(Method method) {
+		return method.getName().equals("close") && method.getParameterCount() == 0;
+	}
+}
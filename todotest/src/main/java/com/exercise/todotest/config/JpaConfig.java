@@ -0,0 +1,28 @@
+package com.exercise.todotest.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JpaConfig {
+
+	/**
+	 * JDBC batching for inserts and updates. Todo ids come from a pooled-lo
+	 * sequence, so Hibernate can assign them without a round trip per row and
+	 * group the INSERTs. On MySQL also add {@code rewriteBatchedStatements=true}
+	 * to the JDBC URL so the driver sends a batch as one multi-row statement.
+	 */
+	@Bean
+	public HibernatePropertiesCustomizer batchingHibernatePropertiesCustomizer(
+			@Value("${todo.batch.jdbc-batch-size:50}") int jdbcBatchSize) {
+		return properties -> {
+			properties.put(AvailableSettings.STATEMENT_BATCH_SIZE, jdbcBatchSize);
+			properties.put(AvailableSettings.ORDER_INSERTS, true);
+			properties.put(AvailableSettings.ORDER_UPDATES, true);
+			properties.put(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "pooled-lo");
+		};
+	}
+}
@@ -0,0 +1,23 @@
+package com.exercise.todotest.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Application metrics on top of what Boot records on its own (requests,
+ * Hikari pools, Hibernate statistics), all scraped from
+ * {@code /actuator/prometheus}. Which timers get histogram buckets is set in
+ * {@code application.properties}.
+ */
+@Configuration
+public class MetricsConfig {
+
+	/** Times the methods of beans annotated with {@code @Timed}: the service and the mappers. */
+	@Bean
+	public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+		return new TimedAspect(meterRegistry);
+	}
+}
@@ -0,0 +1,85 @@
+package com.exercise.todotest.config;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Keeps a client's reads on the primary for {@code window} after it writes,
+ * so the location returned by a {@code 201 Created} can be read right away
+ * even if the replicas lag behind.
+ *
+ * The deadline travels in a cookie rather than server-side state, so any
+ * instance can honour it. It is set before the request is handled, as the
+ * response may be committed by then, and so also after a write that failed;
+ * that only keeps the client on the primary a little longer. Deadlines
+ * further out than {@code window} are ignored.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+	public static final String COOKIE = "todo-read-primary-until";
+	private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+	private final Duration window;
+	private final Clock clock;
+
+	public ReadYourWritesFilter(Duration window, Clock clock) {
+		this.window = window;
+		this.clock = clock;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		if (window.isZero()) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+
+		long now = clock.millis();
+		boolean write = WRITE_METHODS.contains(request.getMethod());
+		if (write) {
+			Cookie cookie = new Cookie(COOKIE, Long.toString(now + window.toMillis()));
+			cookie.setPath(request.getContextPath().isEmpty() ? "/" : request.getContextPath());
+			cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+			cookie.setHttpOnly(true);
+			response.addCookie(cookie);
+		} else if (!withinWindow(request, now)) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+
+		ReplicaRoutingDataSource.readFromPrimary();
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			ReplicaRoutingDataSource.clearReadFromPrimary();
+		}
+	}
+
+	private boolean withinWindow(HttpServletRequest request, long now) {
+		if (request.getCookies() == null) {
+			return false;
+		}
+
+		for (Cookie cookie : request.getCookies()) {
+			if (COOKIE.equals(cookie.getName())) {
+				try {
+					long until = Long.parseLong(cookie.getValue());
+					return now < until && until <= now + window.toMillis();
+				} catch (NumberFormatException e) {
+					return false;
+				}
+			}
+		}
+		return false;
+	}
+}
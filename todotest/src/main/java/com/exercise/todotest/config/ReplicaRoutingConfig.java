@@ -0,0 +1,84 @@
+package com.exercise.todotest.config;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read replicas, listed in {@code todo.datasource.replica-urls}. The primary
+ * keeps its {@code spring.datasource.*} settings, and every pool, primary or
+ * replica, gets the {@code spring.datasource.hikari.*} ones. Flyway and all
+ * writes use the primary; replicas are expected to receive the schema through
+ * replication. With virtual threads, each pool gets the semaphore
+ * {@link VirtualThreadConfig} puts in front of a single one.
+ */
+@Configuration
+@ConditionalOnProperty(name = "todo.datasource.replica-urls")
+public class ReplicaRoutingConfig {
+
+	@Bean
+	public ReplicaRoutingDataSource dataSource(DataSourceProperties properties, Environment environment,
+			@Value("${todo.datasource.replica-urls}") List<String> replicaUrls,
+			@Value("${todo.datasource.replica-username:}") String replicaUsername,
+			@Value("${todo.datasource.replica-password:}") String replicaPassword,
+			@Value("${todo.datasource.replica-selection:round-robin}") ReplicaRoutingDataSource.Selection selection,
+			@Value("${todo.virtual-threads.db-permits:0}") int dbPermits,
+			@Value("${todo.virtual-threads.db-acquire-timeout:PT30S}") Duration acquireTimeout,
+			ObjectProvider<MeterRegistry> meterRegistry) {
+		Binder binder = Binder.get(environment);
+
+		HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+		primary.setPoolName("todo-primary");
+
+		List<DataSource> replicas = new ArrayList<>(replicaUrls.size());
+		for (String replicaUrl : replicaUrls) {
+			HikariDataSource replica = DataSourceBuilder.create(properties.getClassLoader())
+					.type(HikariDataSource.class)
+					.url(replicaUrl.trim())
+					.username(replicaUsername.isEmpty() ? properties.determineUsername() : replicaUsername)
+					.password(replicaPassword.isEmpty() ? properties.determinePassword() : replicaPassword)
+					.build();
+			binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+			replica.setPoolName("todo-replica-" + replicas.size());
+			replica.setReadOnly(true);
+			// Boot only instruments the primary, the pool it finds behind the bean
+			meterRegistry.ifAvailable(registry -> replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+			replicas.add(replica);
+		}
+
+		if (Threading.VIRTUAL.isActive(environment)) {
+			replicas.replaceAll(replica -> VirtualThreadConfig.bounded(replica, dbPermits, acquireTimeout));
+			return new ReplicaRoutingDataSource(VirtualThreadConfig.bounded(primary, dbPermits, acquireTimeout),
+					List.copyOf(replicas), selection);
+		}
+		return new ReplicaRoutingDataSource(primary, List.copyOf(replicas), selection);
+	}
+
+	/** {@code PT0S} turns read-your-writes off. */
+	@Bean
+	public ReadYourWritesFilter readYourWritesFilter(
+			@Value("${todo.datasource.read-your-writes-window:PT5S}") Duration window) {
+		return new ReadYourWritesFilter(window, Clock.systemUTC());
+	}
+}
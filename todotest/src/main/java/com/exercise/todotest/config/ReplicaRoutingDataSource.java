@@ -0,0 +1,169 @@
+package com.exercise.todotest.config;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the
+ * primary.
+ *
+ * Connections are fetched lazily, on the first statement, by which point the
+ * transaction manager has marked them read-only: so
+ * {@code @Transactional(readOnly = true)} reads land on one of
+ * {@code replicas}, while writes, and reads joining a write transaction, stay
+ * on {@code primary}. A thread marked with {@link #readFromPrimary()} reads
+ * from the primary too, which is how {@link ReadYourWritesFilter} lets a
+ * client see its own writes before they have replicated, and reads that fill
+ * a cache use {@link #readFromPrimary(Supplier)} so no client is served a
+ * replica's lag from it.
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+	public enum Selection {
+		ROUND_ROBIN, LEAST_CONNECTIONS
+	}
+
+	private static final ThreadLocal<Boolean> READ_FROM_PRIMARY = new ThreadLocal<>();
+
+	private final DataSource primary;
+	private final List<DataSource> replicas;
+	private final Selection selection;
+	private final AtomicInteger next = new AtomicInteger();
+	// connections handed out per replica and not closed yet
+	private final AtomicIntegerArray inUse;
+
+	public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Selection selection) {
+		super(primary);
+		if (replicas.isEmpty()) {
+			throw new IllegalArgumentException("At least one replica is required");
+		}
+		this.primary = primary;
+		this.replicas = List.copyOf(replicas);
+		this.selection = selection;
+		this.inUse = new AtomicIntegerArray(replicas.size());
+		setReadOnlyDataSource(new AbstractDataSource() {
+			@Override
+			public Connection getConnection() throws SQLException {
+				return readConnection(null, null);
+			}
+
+			@Override
+			public Connection getConnection(String username, String password) throws SQLException {
+				return readConnection(username, password);
+			}
+		});
+	}
+
+	/** Routes this thread's read-only transactions to the primary until {@link #clearReadFromPrimary()}. */
+	public static void readFromPrimary() {
+		READ_FROM_PRIMARY.set(Boolean.TRUE);
+	}
+
+	public static void clearReadFromPrimary() {
+		READ_FROM_PRIMARY.remove();
+	}
+
+	/**
+	 * Runs {@code read} with this thread's read-only transactions on the
+	 * primary, then restores the routing it had. Only takes effect before the
+	 * transaction's first statement, as its connection is fetched there.
+	 */
+	public static <T> T readFromPrimary(Supplier<T> read) {
+		Boolean previous = READ_FROM_PRIMARY.get();
+		READ_FROM_PRIMARY.set(Boolean.TRUE);
+		try {
+			return read.get();
+		} finally {
+			if (previous == null) {
+				READ_FROM_PRIMARY.remove();
+			}
+		}
+	}
+
+	public int getConnectionsInUse(int replica) {
+		return inUse.get(replica);
+	}
+
+	/** The primary, then the replicas. */
+	public List<DataSource> getDataSources() {
+		return Stream.concat(Stream.of(primary), replicas.stream()).toList();
+	}
+
+	@Override
+	public void close() throws IOException {
+		for (DataSource dataSource : replicas) {
+			if (dataSource instanceof Closeable closeable) {
+				closeable.close();
+			}
+		}
+		if (primary instanceof Closeable closeable) {
+			closeable.close();
+		}
+	}
+
+	private Connection readConnection(String username, String password) throws SQLException {
+		if (READ_FROM_PRIMARY.get() != null) {
+			return username == null ? primary.getConnection() : primary.getConnection(username, password);
+		}
+
+		int replica = selectReplica();
+		DataSource dataSource = replicas.get(replica);
+		inUse.incrementAndGet(replica);
+		try {
+			return tracked(username == null ? dataSource.getConnection() : dataSource.getConnection(username, password),
+					replica);
+		} catch (SQLException | RuntimeException e) {
+			inUse.decrementAndGet(replica);
+			throw e;
+		}
+	}
+
+	private int selectReplica() {
+		int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+		if (selection == Selection.ROUND_ROBIN) {
+			return start;
+		}
+
+		// starting from the round-robin pick spreads ties across replicas
+		int selected = start;
+		for (int offset = 1; offset < replicas.size(); offset++) {
+			int candidate = (start + offset) % replicas.size();
+			if (inUse.get(candidate) < inUse.get(selected)) {
+				selected = candidate;
+			}
+		}
+		return selected;
+	}
+
+	private Connection tracked(Connection connection, int replica) {
+		AtomicBoolean released = new AtomicBoolean();
+		InvocationHandler handler = (proxy, method, args) -> {
+			if (method.getName().equals("close") && method.getParameterCount() == 0
+					&& released.compareAndSet(false, true)) {
+				inUse.decrementAndGet(replica);
+			}
+			try {
+				return method.invoke(connection, args);
+			} catch (InvocationTargetException e) {
+				throw e.getTargetException();
+			}
+		};
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+				handler);
+	}
+}
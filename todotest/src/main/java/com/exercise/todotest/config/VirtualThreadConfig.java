@@ -0,0 +1,93 @@
+package com.exercise.todotest.config;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Extras for {@code spring.threads.virtual.enabled=true}, which already runs
+ * Tomcat requests and the application task executor on virtual threads.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+	private static final int DEFAULT_POOL_SIZE = 10;
+
+	/**
+	 * Bounds concurrent database access to the Hikari pool size (or
+	 * {@code todo.virtual-threads.db-permits}) with a fair semaphore.
+	 * {@link ReplicaRoutingConfig} bounds each of its pools itself, since a
+	 * single semaphore in front of them all would cap the replicas at one
+	 * pool's size.
+	 */
+	@Bean
+	public static BeanPostProcessor boundedDataSourcePostProcessor(
+			@Value("${todo.virtual-threads.db-permits:0}") int dbPermits,
+			@Value("${todo.virtual-threads.db-acquire-timeout:PT30S}") Duration acquireTimeout) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+				if (!(bean instanceof DataSource dataSource) || bean instanceof BoundedDataSource
+						|| bean instanceof ReplicaRoutingDataSource) {
+					return bean;
+				}
+				return bounded(dataSource, dbPermits, acquireTimeout);
+			}
+		};
+	}
+
+	/** {@code dataSource} behind as many permits as its pool has connections, or {@code dbPermits} when set. */
+	static BoundedDataSource bounded(DataSource dataSource, int dbPermits, Duration acquireTimeout) {
+		// Hikari reports -1 until the pool starts and applies its default
+		int permits = dbPermits;
+		if (permits <= 0 && dataSource instanceof HikariDataSource hikari) {
+			permits = hikari.getMaximumPoolSize();
+		}
+		if (permits <= 0) {
+			permits = DEFAULT_POOL_SIZE;
+		}
+		return new BoundedDataSource(dataSource, permits, acquireTimeout);
+	}
+
+	/** Free permits and threads queued for one, per pool, next to Hikari's own pool metrics. */
+	@Bean
+	public MeterBinder boundedDataSourceMetrics(ObjectProvider<DataSource> dataSources) {
+		return meterRegistry -> dataSources.orderedStream()
+				.flatMap(dataSource -> dataSource instanceof ReplicaRoutingDataSource routing
+						? routing.getDataSources().stream() : Stream.of(dataSource))
+				.filter(BoundedDataSource.class::isInstance)
+				.map(BoundedDataSource.class::cast)
+				.forEach(dataSource -> {
+					String pool = dataSource.getTargetDataSource() instanceof HikariDataSource hikari
+							? Objects.requireNonNullElse(hikari.getPoolName(), "default") : "default";
+					Gauge.builder("todo.db.permits.available", dataSource, BoundedDataSource::getAvailablePermits)
+							.tag("pool", pool).register(meterRegistry);
+					Gauge.builder("todo.db.permits.waiting", dataSource, BoundedDataSource::getQueueLength)
+							.tag("pool", pool).register(meterRegistry);
+				});
+	}
+
+	@Bean(initMethod = "start", destroyMethod = "close")
+	@ConditionalOnProperty(name = "todo.virtual-threads.pinning-monitor.enabled", matchIfMissing = true)
+	public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+			@Value("${todo.virtual-threads.pinning-monitor.threshold:PT0.02S}") Duration threshold) {
+		return new VirtualThreadPinningMonitor(threshold);
+	}
+}
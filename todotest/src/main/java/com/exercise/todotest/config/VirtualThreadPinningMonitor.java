@@ -0,0 +1,62 @@
+package com.exercise.todotest.config;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Streams {@code jdk.VirtualThreadPinned} JFR events and logs each one with
+ * the frames that held the carrier thread, typically a {@code synchronized}
+ * block in the JDBC driver wrapped around blocking socket I/O.
+ */
+public class VirtualThreadPinningMonitor implements AutoCloseable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+	private static final int LOGGED_FRAMES = 12;
+
+	private final RecordingStream recordingStream = new RecordingStream();
+	private final LongAdder pinnedEvents = new LongAdder();
+
+	public VirtualThreadPinningMonitor(Duration threshold) {
+		recordingStream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+		recordingStream.onEvent("jdk.VirtualThreadPinned", this::report);
+	}
+
+	public void start() {
+		recordingStream.startAsync();
+	}
+
+	public long getPinnedEvents() {
+		return pinnedEvents.sum();
+	}
+
+	@Override
+	public void close() {
+		recordingStream.close();
+	}
+
+	private void report(RecordedEvent event) {
+		pinnedEvents.increment();
+		if (!LOGGER.isWarnEnabled()) {
+			return;
+		}
+
+		String frames = event.getStackTrace() == null ? "(no stack trace)"
+				: event.getStackTrace().getFrames().stream()
+						.limit(LOGGED_FRAMES)
+						.map(VirtualThreadPinningMonitor::format)
+						.collect(Collectors.joining("\n\tat "));
+		LOGGER.warn("Virtual thread pinned its carrier for {}ms on {}\n\tat {}", event.getDuration().toMillis(),
+				event.getThread() == null ? "?" : event.getThread().getJavaName(), frames);
+	}
+
+	private static String format(RecordedFrame frame) {
+		return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+	}
+}
@@ -0,0 +1,29 @@
+package com.exercise.todotest.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.exercise.todotest.enums.ExportFormat;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+	/** Async requests are streamed exports, which may take longer than the container's default timeout. */
+	@Value("${todo.export.async-timeout:PT30M}")
+	Duration asyncTimeout;
+
+	@Override
+	public void addFormatters(FormatterRegistry registry) {
+		registry.addConverter(String.class, ExportFormat.class, ExportFormat::fromParameter);
+	}
+
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		configurer.setDefaultTimeout(asyncTimeout.toMillis());
+	}
+}
@@ -0,0 +1,31 @@
+package com.exercise.todotest.controller;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.exercise.todotest.service.TodoCache;
+import com.exercise.todotest.service.TodoPageCache;
+
+@RestController
+public class CacheController {
+
+	@Autowired
+	TodoCache todoCache;
+
+	@Autowired
+	TodoPageCache todoPageCache;
+
+	@GetMapping("/cache/todo")
+	public ResponseEntity<Map<String, Object>> retrieveTodoCacheStats() {
+		return ResponseEntity.ok(todoCache.stats());
+	}
+
+	@GetMapping("/cache/todo-page")
+	public ResponseEntity<Map<String, Object>> retrieveTodoPageCacheStats() {
+		return ResponseEntity.ok(todoPageCache.stats());
+	}
+}
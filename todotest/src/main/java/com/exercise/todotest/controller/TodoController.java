@@ -1,11 +1,25 @@
 package com.exercise.todotest.controller;
 
+import java.io.InputStream;
 import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,38 +28,150 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.resource.NoResourceFoundException;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.exercise.todotest.dto.CursorPageDto;
+import com.exercise.todotest.dto.TodoChangePageDto;
 import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.dto.WriteOperationDto;
+import com.exercise.todotest.enums.ExportFormat;
+import com.exercise.todotest.enums.PaginationMode;
 import com.exercise.todotest.enums.TodoField;
+import com.exercise.todotest.exception.BatchValidationException;
+import com.exercise.todotest.service.TodoChangeLog;
+import com.exercise.todotest.service.TodoETags;
+import com.exercise.todotest.service.TodoEventBroadcaster;
+import com.exercise.todotest.service.TodoFilter;
+import com.exercise.todotest.service.TodoImportService;
+import com.exercise.todotest.service.TodoPageCache;
+import com.exercise.todotest.service.TodoPatchCoalescer;
 import com.exercise.todotest.service.TodoService;
+import com.exercise.todotest.service.TodoWriteQueue;
 
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 
 @RestController
 public class TodoController {
+	private static final String RETURN_MINIMAL = "return=minimal";
+	private static final String PRIORITY_RANGE = "Priority must be between 1 and 4";
+	private static final String PAGE_RANGE = "Page must not be negative";
+	private static final String LIMIT_RANGE = "Limit must be between 1 and 20";
+	private static final String CHANGES_LIMIT_RANGE = "Limit must be between 1 and 1000";
 	
 	@Autowired
 	TodoService todoService;
+	
+	@Autowired
+	TodoImportService todoImportService;
+	
+	@Autowired
+	TodoPatchCoalescer todoPatchCoalescer;
+	
+	@Autowired
+	TodoWriteQueue todoWriteQueue;
+	
+	@Autowired
+	TodoEventBroadcaster todoEventBroadcaster;
+	
+	@Autowired
+	TodoChangeLog todoChangeLog;
+	
+	@Autowired
+	Validator validator;
+	
+	@Value("${todo.batch.max-items:10000}")
+	int batchMaxItems;
 
 	@GetMapping("/todo")
-	public ResponseEntity<?> retrieveAllTodos(@RequestParam(defaultValue = "0") Integer page,
-			@RequestParam(defaultValue = "20") @Max(value = 20, message = "Size must be between 1 and 20") Integer limit,
+	public ResponseEntity<?> retrieveAllTodos(@RequestParam(defaultValue = "0") @Min(value = 0, message = PAGE_RANGE) Integer page,
+			@RequestParam(defaultValue = "20") @Min(value = 1, message = LIMIT_RANGE) @Max(value = 20, message = LIMIT_RANGE) Integer limit,
 			@RequestParam(defaultValue = "ID") TodoField sortfield,
-			@RequestParam(defaultValue = "DESC") Sort.Direction sortorder) {
+			@RequestParam(defaultValue = "DESC") Sort.Direction sortorder,
+			@RequestParam(defaultValue = "PAGE") PaginationMode pagination,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) List<@Min(value = 1, message = PRIORITY_RANGE) @Max(value = 4, message = PRIORITY_RANGE) Integer> priority,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueBefore,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueAfter,
+			@RequestParam(required = false) Boolean overdue,
+			@RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		TodoFilter filter = TodoFilter.of(priority, dueBefore, dueAfter, overdue, LocalDate.now());
+		
+		// Any 'cursor' parameter, even an empty one, switches to keyset pagination
+		if (cursor != null) {
+			CursorPageDto<TodoDto> todoDtoCursorPage = todoService.getTodosByCursor(cursor, limit, sortfield, sortorder, filter);
+			return ResponseEntity.ok().body(todoDtoCursorPage);
+		}
+		
+		if (pagination == PaginationMode.SLICE) {
+			Slice<TodoDto> todoDtoSlice = todoService.getTodosSlice(page, limit, sortfield, sortorder, filter);
+			return ResponseEntity.ok().body(todoDtoSlice);
+		}
 		
-		Page<TodoDto> todoDtoPage = todoService.getAllTodos(page, limit, sortfield, sortorder);
+		// Conditional requests are answered from ids and versions, before mapping anything
+		if (ifNoneMatch != null) {
+			String etag = todoService.getAllTodosETag(page, limit, sortfield, sortorder, filter);
+			if (TodoETags.matches(ifNoneMatch, etag)) {
+				return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+			}
+		}
+		
+		TodoPageCache.CachedPage todoDtoPage = todoService.getAllTodosSerialized(page, limit, sortfield, sortorder, filter);
+		return ResponseEntity.ok().eTag(todoDtoPage.etag()).contentType(MediaType.APPLICATION_JSON)
+				.body(todoDtoPage.body());
+	}
+
+	@GetMapping("/todo/search")
+	public ResponseEntity<Page<TodoDto>> searchTodos(@RequestParam String q,
+			@RequestParam(defaultValue = "0") @Min(value = 0, message = PAGE_RANGE) Integer page,
+			@RequestParam(defaultValue = "20") @Min(value = 1, message = LIMIT_RANGE) @Max(value = 20, message = LIMIT_RANGE) Integer limit) {
+		Page<TodoDto> todoDtoPage = todoService.searchTodos(q, page, limit);
 		return ResponseEntity.ok().body(todoDtoPage);
 	}
 
+	@GetMapping("/todo/export")
+	public ResponseEntity<StreamingResponseBody> exportTodos(@RequestParam(defaultValue = "NDJSON") ExportFormat format,
+			@RequestParam(defaultValue = "ID") TodoField sortfield,
+			@RequestParam(defaultValue = "ASC") Sort.Direction sortorder) {
+		// Runs on an async thread once this method has returned, in its own transaction
+		StreamingResponseBody body = outputStream -> todoService.exportTodos(format, sortfield, sortorder, outputStream);
+
+		return ResponseEntity.ok().contentType(format.getMediaType())
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"todos." + format.getExtension() + "\"")
+				.body(body);
+	}
+
+	@GetMapping("/todo/changes")
+	public ResponseEntity<TodoChangePageDto> retrieveTodoChanges(@RequestParam(required = false) String since,
+			@RequestParam(defaultValue = "100") @Min(value = 1, message = CHANGES_LIMIT_RANGE) @Max(value = 1000, message = CHANGES_LIMIT_RANGE) Integer limit) {
+		return ResponseEntity.ok().body(todoChangeLog.getChanges(since, limit));
+	}
+
+	// Each subscriber holds one of the server.tomcat.max-connections set in application.properties
+	@GetMapping(path = "/todo/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamTodoEvents(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+		return todoEventBroadcaster.subscribe(lastEventId);
+	}
+
 	@GetMapping("/todo/{id}")
-	public ResponseEntity<?> retrieveTodoById(@PathVariable int id) throws NoResourceFoundException {
+	public ResponseEntity<?> retrieveTodoById(@PathVariable int id,
+			@RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) throws NoResourceFoundException {
 		TodoDto todoDto = todoService.getTodoDtoById(id);
-		return ResponseEntity.ok(todoDto);
+		String etag = TodoETags.forTodo(todoDto);
+		
+		if (TodoETags.matches(ifNoneMatch, etag)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+		}
+		return ResponseEntity.ok().eTag(etag).body(todoDto);
 	}
 
 	@PostMapping("/todo")
@@ -55,28 +181,123 @@ public class TodoController {
 		URI location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(todoDto.getId())
 				.toUri();
 
-		return ResponseEntity.created(location).body(todoDto);
+		return ResponseEntity.created(location).eTag(TodoETags.forTodo(todoDto)).body(todoDto);
+	}
+
+	@PostMapping("/todo/batch")
+	public ResponseEntity<List<Integer>> createTodos(@RequestBody List<TodoDto> todos) {
+		if (todos.isEmpty() || todos.size() > batchMaxItems) {
+			throw new BatchValidationException("Invalid Parameter Input", "Batch must have between 1 and " + batchMaxItems + " items");
+		}
+		
+		Map<Integer, Map<String, String>> errorsByIndex = new TreeMap<>();
+		for (int index = 0; index < todos.size(); index++) {
+			Set<ConstraintViolation<TodoDto>> violations = validator.validate(todos.get(index));
+			if (!violations.isEmpty()) {
+				Map<String, String> errorsMap = new HashMap<>();
+				violations.forEach(violation -> errorsMap.put(violation.getPropertyPath().toString(), violation.getMessage()));
+				errorsByIndex.put(index, errorsMap);
+			}
+		}
+		if (!errorsByIndex.isEmpty()) {
+			throw new BatchValidationException("Invalid field inputs", errorsByIndex);
+		}
+		
+		List<Integer> ids = todoService.createTodos(todos);
+		return ResponseEntity.status(HttpStatus.CREATED).body(ids);
+	}
+
+	@PostMapping(path = "/todo/import", consumes = { MediaType.APPLICATION_NDJSON_VALUE, "text/csv" })
+	public ResponseEntity<StreamingResponseBody> importTodos(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+			InputStream inputStream) {
+		MediaType mediaType = MediaType.parseMediaType(contentType);
+		ExportFormat format = ExportFormat.fromMediaType(mediaType);
+		Charset charset = mediaType.getCharset() != null ? mediaType.getCharset() : StandardCharsets.UTF_8;
+
+		// The body is read on the async thread, so results stream back while the client is still sending
+		StreamingResponseBody body = outputStream -> todoImportService.importTodos(format, charset, inputStream, outputStream);
+
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+	}
+
+	@GetMapping("/todo/operations/{operationId}")
+	public ResponseEntity<WriteOperationDto> retrieveWriteOperation(@PathVariable String operationId)
+			throws NoResourceFoundException {
+		return ResponseEntity.ok().body(todoWriteQueue.getOperation(operationId));
 	}
 
 	@DeleteMapping("/todo/{id}")
-	public ResponseEntity<Object> deleteTodo(@PathVariable int id) throws NoResourceFoundException {
-		todoService.removeTodoById(id);
+	public ResponseEntity<?> deleteTodo(@PathVariable int id,
+			@RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws NoResourceFoundException {
+		if (todoWriteQueue.isEnabled()) {
+			return accepted(todoWriteQueue.submitDelete(id, expectedVersion(ifMatch)));
+		}
+		
+		if (ifMatch != null) {
+			todoService.removeTodoById(id, TodoETags.expectedVersion(ifMatch));
+		} else {
+			todoService.removeTodoById(id);
+		}
 		return ResponseEntity.accepted().build();
 	
 	}
 
 	@PutMapping("/todo/{id}")
-	public ResponseEntity<TodoDto> updateTodo(@PathVariable int id, @Valid @RequestBody TodoDto todo) throws NoResourceFoundException {
+	public ResponseEntity<?> updateTodo(@PathVariable int id, @Valid @RequestBody TodoDto todo,
+			@RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws NoResourceFoundException {
+		if (todoWriteQueue.isEnabled()) {
+			return accepted(todoWriteQueue.submitUpdate(id, todo, expectedVersion(ifMatch)));
+		}
+		
+		// Only a conditional update knows the new version, so only it gets an ETag back
+		if (ifMatch != null) {
+			TodoDto todoDto = todoService.fullUpdateTodo(id, todo, TodoETags.expectedVersion(ifMatch));
+			return ResponseEntity.accepted().eTag(TodoETags.forTodo(todoDto)).body(todoDto);
+		}
+		
 		TodoDto todoDto = todoService.fullUpdateTodo(id, todo);
 		
 		return ResponseEntity.accepted().body(todoDto);
 	}
 
 	@PatchMapping("/todo/{id}")
-	public ResponseEntity<TodoDto> partialUpdateTodo(@PathVariable int id, @RequestBody Map<String, ?> todo) throws NoResourceFoundException {
-		TodoDto todoDto = todoService.partialUpdateTodo(id, todo);
-		return ResponseEntity.accepted().body(todoDto);
+	public ResponseEntity<?> partialUpdateTodo(@PathVariable int id, @RequestBody Map<String, ?> todo,
+			@RequestHeader(name = "Prefer", required = false) String prefer,
+			@RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws NoResourceFoundException {
+		if (todoWriteQueue.isEnabled()) {
+			return accepted(todoWriteQueue.submitPatch(id, todo, expectedVersion(ifMatch)));
+		}
+		
+		// 'Prefer: return=minimal' skips re-reading the updated row
+		boolean returnMinimal = RETURN_MINIMAL.equalsIgnoreCase(prefer);
+		TodoDto todoDto;
+		if (ifMatch != null) {
+			todoDto = todoService.partialUpdateTodo(id, todo, !returnMinimal, TodoETags.expectedVersion(ifMatch));
+		} else if (todoPatchCoalescer.isEnabled()) {
+			// Only unconditional patches are merged, each conditional one checks its own version
+			todoDto = todoPatchCoalescer.patch(id, todo, !returnMinimal);
+		} else if (returnMinimal) {
+			todoDto = todoService.partialUpdateTodo(id, todo, false);
+		} else {
+			todoDto = todoService.partialUpdateTodo(id, todo);
+		}
+		
+		if (returnMinimal) {
+			return ResponseEntity.accepted().header("Preference-Applied", RETURN_MINIMAL).build();
+		}
+		return ResponseEntity.accepted().eTag(TodoETags.forTodo(todoDto)).body(todoDto);
+
+	}
+
+	/** Async writes answer with the operation, and where to poll it, instead of the todo. */
+	private ResponseEntity<WriteOperationDto> accepted(WriteOperationDto operation) {
+		URI location = ServletUriComponentsBuilder.fromCurrentContextPath().path("/todo/operations/{operationId}")
+				.buildAndExpand(operation.getId()).toUri();
+		return ResponseEntity.accepted().location(location).body(operation);
+	}
 
+	private static Long expectedVersion(String ifMatch) {
+		return ifMatch == null ? null : TodoETags.expectedVersion(ifMatch);
 	}
 
 }
@@ -0,0 +1,46 @@
+package com.exercise.todotest.dto;
+
+import java.util.List;
+
+public class CursorPageDto<T> {
+	private List<T> content;
+	private int size;
+	private String nextCursor;
+	private boolean last;
+	
+	public CursorPageDto() {}
+	
+	public CursorPageDto(List<T> content, String nextCursor) {
+		super();
+		this.content = content;
+		this.size = content.size();
+		this.nextCursor = nextCursor;
+		this.last = nextCursor == null;
+	}
+	
+	public List<T> getContent() {
+		return content;
+	}
+	public void setContent(List<T> content) {
+		this.content = content;
+	}
+	public int getSize() {
+		return size;
+	}
+	public void setSize(int size) {
+		this.size = size;
+	}
+	public String getNextCursor() {
+		return nextCursor;
+	}
+	public void setNextCursor(String nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+	public boolean isLast() {
+		return last;
+	}
+	public void setLast(boolean last) {
+		this.last = last;
+	}
+	
+}
@@ -0,0 +1,49 @@
+package com.exercise.todotest.dto;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one record of a {@code POST /todo/import} body: the id it was
+ * created with, or why it was rejected.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportResultDto {
+	private long line;
+	private Integer id;
+	private Map<String, String> errors;
+
+	public ImportResultDto() {}
+
+	public ImportResultDto(long line, Integer id, Map<String, String> errors) {
+		super();
+		this.line = line;
+		this.id = id;
+		this.errors = errors;
+	}
+
+	public long getLine() {
+		return line;
+	}
+
+	public void setLine(long line) {
+		this.line = line;
+	}
+
+	public Integer getId() {
+		return id;
+	}
+
+	public void setId(Integer id) {
+		this.id = id;
+	}
+
+	public Map<String, String> getErrors() {
+		return errors;
+	}
+
+	public void setErrors(Map<String, String> errors) {
+		this.errors = errors;
+	}
+}
@@ -0,0 +1,33 @@
+package com.exercise.todotest.dto;
+
+/**
+ * Last line of a {@code POST /todo/import} response.
+ */
+public class ImportSummaryDto {
+	private long created;
+	private long failed;
+
+	public ImportSummaryDto() {}
+
+	public ImportSummaryDto(long created, long failed) {
+		super();
+		this.created = created;
+		this.failed = failed;
+	}
+
+	public long getCreated() {
+		return created;
+	}
+
+	public void setCreated(long created) {
+		this.created = created;
+	}
+
+	public long getFailed() {
+		return failed;
+	}
+
+	public void setFailed(long failed) {
+		this.failed = failed;
+	}
+}
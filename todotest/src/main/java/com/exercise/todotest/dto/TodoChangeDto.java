@@ -0,0 +1,42 @@
+package com.exercise.todotest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * A todo that changed since the requested token: its current state, or a
+ * tombstone with {@code deleted} set and no {@code todo}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TodoChangeDto {
+	private int todoId;
+	private boolean deleted;
+	private TodoDto todo;
+
+	public TodoChangeDto() {}
+
+	public TodoChangeDto(int todoId, boolean deleted, TodoDto todo) {
+		super();
+		this.todoId = todoId;
+		this.deleted = deleted;
+		this.todo = todo;
+	}
+
+	public int getTodoId() {
+		return todoId;
+	}
+	public void setTodoId(int todoId) {
+		this.todoId = todoId;
+	}
+	public boolean isDeleted() {
+		return deleted;
+	}
+	public void setDeleted(boolean deleted) {
+		this.deleted = deleted;
+	}
+	public TodoDto getTodo() {
+		return todo;
+	}
+	public void setTodo(TodoDto todo) {
+		this.todo = todo;
+	}
+}
@@ -0,0 +1,49 @@
+package com.exercise.todotest.dto;
+
+import java.util.List;
+
+/**
+ * Unlike {@link CursorPageDto}, {@code nextToken} is always set: once
+ * {@code last}, it is where the next poll picks up.
+ */
+public class TodoChangePageDto {
+	private List<TodoChangeDto> content;
+	private int size;
+	private String nextToken;
+	private boolean last;
+
+	public TodoChangePageDto() {}
+
+	public TodoChangePageDto(List<TodoChangeDto> content, String nextToken, boolean last) {
+		super();
+		this.content = content;
+		this.size = content.size();
+		this.nextToken = nextToken;
+		this.last = last;
+	}
+
+	public List<TodoChangeDto> getContent() {
+		return content;
+	}
+	public void setContent(List<TodoChangeDto> content) {
+		this.content = content;
+	}
+	public int getSize() {
+		return size;
+	}
+	public void setSize(int size) {
+		this.size = size;
+	}
+	public String getNextToken() {
+		return nextToken;
+	}
+	public void setNextToken(String nextToken) {
+		this.nextToken = nextToken;
+	}
+	public boolean isLast() {
+		return last;
+	}
+	public void setLast(boolean last) {
+		this.last = last;
+	}
+}
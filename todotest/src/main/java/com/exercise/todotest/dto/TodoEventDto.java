@@ -0,0 +1,49 @@
+package com.exercise.todotest.dto;
+
+import com.exercise.todotest.enums.TodoEventType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Data of a {@code GET /todo/stream} event. {@code todo} is absent for
+ * deletes and for partial updates answered without a body; clients that need
+ * it read {@code GET /todo/{id}}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TodoEventDto {
+	private TodoEventType type;
+	private int todoId;
+	private TodoDto todo;
+
+	public TodoEventDto() {}
+
+	public TodoEventDto(TodoEventType type, int todoId, TodoDto todo) {
+		super();
+		this.type = type;
+		this.todoId = todoId;
+		this.todo = todo;
+	}
+
+	public TodoEventType getType() {
+		return type;
+	}
+
+	public void setType(TodoEventType type) {
+		this.type = type;
+	}
+
+	public int getTodoId() {
+		return todoId;
+	}
+
+	public void setTodoId(int todoId) {
+		this.todoId = todoId;
+	}
+
+	public TodoDto getTodo() {
+		return todo;
+	}
+
+	public void setTodo(TodoDto todo) {
+		this.todo = todo;
+	}
+}
@@ -0,0 +1,69 @@
+package com.exercise.todotest.dto;
+
+import com.exercise.todotest.enums.WriteOperationStatus;
+import com.exercise.todotest.enums.WriteOperationType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * A mutation accepted for asynchronous writing, as returned with the
+ * {@code 202 Accepted} and by {@code GET /todo/operations/{id}}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WriteOperationDto {
+	private String id;
+	private WriteOperationType type;
+	private int todoId;
+	private WriteOperationStatus status;
+	private String error;
+
+	public WriteOperationDto() {}
+
+	public WriteOperationDto(String id, WriteOperationType type, int todoId, WriteOperationStatus status, String error) {
+		super();
+		this.id = id;
+		this.type = type;
+		this.todoId = todoId;
+		this.status = status;
+		this.error = error;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public WriteOperationType getType() {
+		return type;
+	}
+
+	public void setType(WriteOperationType type) {
+		this.type = type;
+	}
+
+	public int getTodoId() {
+		return todoId;
+	}
+
+	public void setTodoId(int todoId) {
+		this.todoId = todoId;
+	}
+
+	public WriteOperationStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(WriteOperationStatus status) {
+		this.status = status;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	public void setError(String error) {
+		this.error = error;
+	}
+}
@@ -6,6 +6,8 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -16,7 +18,8 @@ import jakarta.validation.constraints.Size;
 @Entity
 public class Todo {
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todo_seq")
+	@SequenceGenerator(name = "todo_seq", sequenceName = "todo_seq", allocationSize = 50)
 	private int id;
 	@NotEmpty
 	@Size(min = 2, max = 20)
@@ -31,6 +34,8 @@ public class Todo {
 	@Min(value = 1)
 	@Max(value = 4)
 	private int priority;
+	@Version
+	private long version;
 	
 	public Todo() {}
 	
@@ -73,6 +78,12 @@ public class Todo {
 	public void setPriority(int priority) {
 		this.priority = priority;
 	}
+	public long getVersion() {
+		return version;
+	}
+	public void setVersion(long version) {
+		this.version = version;
+	}
 
 	@Override
 	public String toString() {
@@ -0,0 +1,55 @@
+package com.exercise.todotest.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+/**
+ * A row of the change log: {@code todoId} was created or updated, or deleted
+ * when {@code deleted} is set. The id is the change sequence, taken from
+ * {@code todo_change_counter} as the write commits.
+ */
+@Entity
+public class TodoChange {
+	@Id
+	private long id;
+	private int todoId;
+	private boolean deleted;
+	private Instant changedAt;
+
+	public TodoChange() {}
+
+	public TodoChange(long id, int todoId, boolean deleted, Instant changedAt) {
+		super();
+		this.id = id;
+		this.todoId = todoId;
+		this.deleted = deleted;
+		this.changedAt = changedAt;
+	}
+
+	public long getId() {
+		return id;
+	}
+	public void setId(long id) {
+		this.id = id;
+	}
+	public int getTodoId() {
+		return todoId;
+	}
+	public void setTodoId(int todoId) {
+		this.todoId = todoId;
+	}
+	public boolean isDeleted() {
+		return deleted;
+	}
+	public void setDeleted(boolean deleted) {
+		this.deleted = deleted;
+	}
+	public Instant getChangedAt() {
+		return changedAt;
+	}
+	public void setChangedAt(Instant changedAt) {
+		this.changedAt = changedAt;
+	}
+}
@@ -0,0 +1,41 @@
+package com.exercise.todotest.enums;
+
+import java.util.Locale;
+
+import org.springframework.http.MediaType;
+
+public enum ExportFormat {
+	NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+	CSV(new MediaType("text", "csv"), "csv");
+
+	private final MediaType mediaType;
+	private final String extension;
+
+	private ExportFormat(MediaType mediaType, String extension) {
+		this.mediaType = mediaType;
+		this.extension = extension;
+	}
+
+	public MediaType getMediaType() {
+		return this.mediaType;
+	}
+
+	public String getExtension() {
+		return this.extension;
+	}
+
+	/** Lenient on case, so both {@code format=csv} and {@code format=CSV} work. */
+	public static ExportFormat fromParameter(String value) {
+		return valueOf(value.trim().toUpperCase(Locale.ROOT));
+	}
+
+	/** Format of a request body, from its {@code Content-Type}. */
+	public static ExportFormat fromMediaType(MediaType mediaType) {
+		for (ExportFormat format : values()) {
+			if (format.mediaType.isCompatibleWith(mediaType)) {
+				return format;
+			}
+		}
+		throw new IllegalArgumentException("Unexpected value: " + mediaType);
+	}
+}
@@ -0,0 +1,10 @@
+package com.exercise.todotest.enums;
+
+public enum PaginationMode {
+
+	/** Page numbers plus totals; the total comes from {@code TodoCountCache}. */
+	PAGE,
+	/** Page numbers without totals; fetches one extra row to tell if there is a next page. */
+	SLICE;
+
+}
@@ -0,0 +1,10 @@
+package com.exercise.todotest.enums;
+
+public enum TodoEventType {
+
+	CREATED,
+	/** Carries the todo when the write knew all its columns, otherwise only its id. */
+	UPDATED,
+	DELETED;
+
+}
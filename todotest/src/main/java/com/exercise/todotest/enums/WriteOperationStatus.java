@@ -0,0 +1,12 @@
+package com.exercise.todotest.enums;
+
+public enum WriteOperationStatus {
+
+	/** Accepted and queued, or in a batch not committed yet. */
+	PENDING,
+	/** Committed. */
+	APPLIED,
+	/** Rejected when its turn came, e.g. the todo was deleted or changed version meanwhile. */
+	FAILED;
+
+}
@@ -0,0 +1,12 @@
+package com.exercise.todotest.enums;
+
+public enum WriteOperationType {
+
+	/** {@code DELETE /todo/{id}} */
+	DELETE,
+	/** {@code PUT /todo/{id}} */
+	UPDATE,
+	/** {@code PATCH /todo/{id}} */
+	PATCH;
+
+}
@@ -0,0 +1,20 @@
+package com.exercise.todotest.exception;
+
+/**
+ * Rejects a whole batch request. {@code details} says what is wrong, e.g.
+ * the field errors of each invalid item keyed by its index in the request.
+ */
+public class BatchValidationException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	private final transient Object details;
+
+	public BatchValidationException(String message, Object details) {
+		super(message);
+		this.details = details;
+	}
+
+	public Object getDetails() {
+		return details;
+	}
+}
@@ -5,8 +5,11 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.TypeMismatchException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.MessageSourceResolvable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -23,17 +26,56 @@ import org.springframework.web.method.annotation.HandlerMethodValidationExceptio
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 import org.springframework.web.servlet.resource.NoResourceFoundException;
 
+import com.exercise.todotest.enums.ExportFormat;
+import com.exercise.todotest.enums.PaginationMode;
 import com.exercise.todotest.enums.TodoField;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 @ControllerAdvice
 public class CustomizedResponseEntityExceptionHandler extends ResponseEntityExceptionHandler {
+	static final String ERRORS_METRIC = "todo.errors";
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
 	@ExceptionHandler(Exception.class)
 	public final ResponseEntity<ErrorDetails> handleAllExceptions(Exception ex, WebRequest request) throws Exception {
 		
 		String message = ex.getCause() != null? ex.getCause().getLocalizedMessage() : ex.getMessage();
 		
 		ErrorDetails details = new ErrorDetails(LocalDateTime.now(), message , request.getDescription(false));
-		return new ResponseEntity<ErrorDetails>(details, HttpStatus.INTERNAL_SERVER_ERROR);
+		return respond(ex, details, HttpStatus.INTERNAL_SERVER_ERROR);
+	}
+	
+	@ExceptionHandler(InvalidCursorException.class)
+	public final ResponseEntity<ErrorDetails> handleInvalidCursor(InvalidCursorException ex, WebRequest request) {
+		ErrorDetails details = new ErrorDetails(LocalDateTime.now(), "Invalid Parameter Input", ex.getMessage());
+		return respond(ex, details, HttpStatus.BAD_REQUEST);
+	}
+	
+	@ExceptionHandler(BatchValidationException.class)
+	public final ResponseEntity<ErrorDetails> handleBatchValidation(BatchValidationException ex, WebRequest request) {
+		ErrorDetails details = new ErrorDetails(LocalDateTime.now(), ex.getMessage(), ex.getDetails());
+		return respond(ex, details, HttpStatus.BAD_REQUEST);
+	}
+	
+	@ExceptionHandler(PreconditionFailedException.class)
+	public final ResponseEntity<ErrorDetails> handlePreconditionFailed(PreconditionFailedException ex, WebRequest request) {
+		ErrorDetails details = new ErrorDetails(LocalDateTime.now(), "Precondition failed", ex.getMessage());
+		return respond(ex, details, HttpStatus.PRECONDITION_FAILED);
+	}
+	
+	@ExceptionHandler(WriteQueueFullException.class)
+	public final ResponseEntity<ErrorDetails> handleWriteQueueFull(WriteQueueFullException ex, WebRequest request) {
+		ErrorDetails details = new ErrorDetails(LocalDateTime.now(), "Service unavailable", ex.getMessage());
+		return respond(ex, details, HttpStatus.SERVICE_UNAVAILABLE);
+	}
+	
+	@ExceptionHandler(ResyncRequiredException.class)
+	public final ResponseEntity<ErrorDetails> handleResyncRequired(ResyncRequiredException ex, WebRequest request) {
+		ErrorDetails details = new ErrorDetails(LocalDateTime.now(), "Resync required", ex.getMessage());
+		return respond(ex, details, HttpStatus.GONE);
 	}
 	
 	@Override
@@ -47,7 +89,7 @@ public class CustomizedResponseEntityExceptionHandler extends ResponseEntityExce
 		
 		ErrorDetails details = new ErrorDetails(LocalDateTime.now(), "Invalid field inputs", errorsMap );
 		
-		return new ResponseEntity<Object>(details, HttpStatus.BAD_REQUEST);
+		return respond(ex, details, HttpStatus.BAD_REQUEST);
 	}
 	
 	@Override
@@ -61,25 +103,37 @@ public class CustomizedResponseEntityExceptionHandler extends ResponseEntityExce
 		}
 		
 		ErrorDetails details = new ErrorDetails(LocalDateTime.now(), "Invalid Argument Type", defaultDetail);
-		return new ResponseEntity<Object>(details, HttpStatus.BAD_REQUEST);
+		return respond(ex, details, HttpStatus.BAD_REQUEST);
 	}
 	
 	@Override
 	protected ResponseEntity<Object> handleHttpMessageNotReadable(HttpMessageNotReadableException ex, HttpHeaders headers, HttpStatusCode status, WebRequest request) {
 		ErrorDetails details = new ErrorDetails(LocalDateTime.now(), "Invalid body request", ex.getMessage());
-		return new ResponseEntity<Object>(details, HttpStatus.BAD_REQUEST);
+		return respond(ex, details, HttpStatus.BAD_REQUEST);
 	}
 	
 	@Override
 	protected ResponseEntity<Object> handleHandlerMethodValidationException(HandlerMethodValidationException ex, HttpHeaders headers, HttpStatusCode status, WebRequest request) {
-		ErrorDetails details = new ErrorDetails(LocalDateTime.now(), "Invalid Parameter Input", "Limit must be between 1 and 20");
-		return new ResponseEntity<Object>(details, HttpStatus.BAD_REQUEST);
+		String detail = ex.getAllValidationResults().stream()
+				.flatMap(result -> result.getResolvableErrors().stream())
+				.map(MessageSourceResolvable::getDefaultMessage)
+				.distinct()
+				.collect(Collectors.joining("; "));
+		ErrorDetails details = new ErrorDetails(LocalDateTime.now(), "Invalid Parameter Input", detail);
+		return respond(ex, details, HttpStatus.BAD_REQUEST);
 	}	
 	
 	@Override
 	protected ResponseEntity<Object> handleNoResourceFoundException(NoResourceFoundException ex, HttpHeaders headers, HttpStatusCode status, WebRequest request) {
 		ErrorDetails details = new ErrorDetails(LocalDateTime.now(), "Resource not found", ex.getMessage());
-		return new ResponseEntity<Object>(details, HttpStatus.NOT_FOUND);
+		return respond(ex, details, HttpStatus.NOT_FOUND);
+	}
+	
+	/** Every error response goes through here, counted per exception type and status. */
+	private <T> ResponseEntity<T> respond(Exception ex, T details, HttpStatus status) {
+		meterRegistry.counter(ERRORS_METRIC, "exception", ex.getClass().getSimpleName(), "status",
+				Integer.toString(status.value())).increment();
+		return new ResponseEntity<>(details, status);
 	}
 	
 	private List<?> getEnumSupportedValues(String enumName) {
@@ -90,6 +144,12 @@ public class CustomizedResponseEntityExceptionHandler extends ResponseEntityExce
 		case "TodoField": {
 			yield Arrays.asList(TodoField.values());
 		}
+		case "PaginationMode": {
+			yield Arrays.asList(PaginationMode.values());
+		}
+		case "ExportFormat": {
+			yield Arrays.asList(ExportFormat.values());
+		}
 		default:
 			throw new IllegalArgumentException("Unexpected value: " + enumName);
 		};
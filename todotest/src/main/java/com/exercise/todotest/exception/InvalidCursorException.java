@@ -0,0 +1,13 @@
+package com.exercise.todotest.exception;
+
+public class InvalidCursorException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public InvalidCursorException(String message) {
+		super(message);
+	}
+
+	public InvalidCursorException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
@@ -0,0 +1,9 @@
+package com.exercise.todotest.exception;
+
+public class ResyncRequiredException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public ResyncRequiredException(String message) {
+		super(message);
+	}
+}
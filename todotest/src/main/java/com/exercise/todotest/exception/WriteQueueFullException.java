@@ -0,0 +1,9 @@
+package com.exercise.todotest.exception;
+
+public class WriteQueueFullException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public WriteQueueFullException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,32 @@
+package com.exercise.todotest.mapper;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.entity.Todo;
+
+import io.micrometer.core.annotation.Timed;
+
+/**
+ * Plain field copies, no reflection and no intermediate objects.
+ */
+@Component
+@Timed("todo.mapping")
+@ConditionalOnProperty(name = "todo.mapper", havingValue = "direct", matchIfMissing = true)
+public class DirectTodoMapper implements TodoMapper {
+
+	@Override
+	public TodoDto toDto(Todo todo) {
+		return new TodoDto(todo.getId(), todo.getTitle(), todo.getDescription(), todo.getTargetDate(),
+				todo.getPriority(), todo.getVersion());
+	}
+
+	@Override
+	public Todo toEntity(TodoDto todoDto) {
+		Todo todo = new Todo(todoDto.getId(), todoDto.getTitle(), todoDto.getDescription(), todoDto.getTargetDate(),
+				todoDto.getPriority());
+		todo.setVersion(todoDto.getVersion());
+		return todo;
+	}
+}
@@ -0,0 +1,35 @@
+package com.exercise.todotest.mapper;
+
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.entity.Todo;
+
+import io.micrometer.core.annotation.Timed;
+
+@Component
+@Timed("todo.mapping")
+@ConditionalOnProperty(name = "todo.mapper", havingValue = "modelmapper")
+public class ModelMapperTodoMapper implements TodoMapper {
+	@Autowired
+	ModelMapper modelMapper;
+
+	public ModelMapperTodoMapper() {}
+
+	public ModelMapperTodoMapper(ModelMapper modelMapper) {
+		this.modelMapper = modelMapper;
+	}
+
+	@Override
+	public TodoDto toDto(Todo todo) {
+		return modelMapper.map(todo, TodoDto.class);
+	}
+
+	@Override
+	public Todo toEntity(TodoDto todoDto) {
+		return modelMapper.map(todoDto, Todo.class);
+	}
+}
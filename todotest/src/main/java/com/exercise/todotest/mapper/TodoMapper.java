@@ -0,0 +1,15 @@
+package com.exercise.todotest.mapper;
+
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.entity.Todo;
+
+/**
+ * Conversion between {@link Todo} and {@link TodoDto}. The implementation is
+ * picked with the {@code todo.mapper} property ({@code direct} by default,
+ * {@code modelmapper} for the reflective one) so both can be compared.
+ */
+public interface TodoMapper {
+	TodoDto toDto(Todo todo);
+
+	Todo toEntity(TodoDto todoDto);
+}
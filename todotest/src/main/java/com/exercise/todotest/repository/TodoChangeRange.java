@@ -0,0 +1,5 @@
+package com.exercise.todotest.repository;
+
+/** Oldest and newest change sequence still in the log, both null when it's empty. */
+public record TodoChangeRange(Long oldest, Long newest) {
+}
@@ -0,0 +1,29 @@
+package com.exercise.todotest.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.exercise.todotest.entity.TodoChange;
+
+public interface TodoChangeRepository extends JpaRepository<TodoChange, Long>, TodoChangeRepositoryCustom {
+	/** A page of the log after {@code id}, read as a primary key range. */
+	List<TodoChange> findByIdGreaterThanOrderById(long id, Limit limit);
+
+	@Query("select new com.exercise.todotest.repository.TodoChangeRange(min(c.id), max(c.id)) from TodoChange c")
+	TodoChangeRange findRange();
+
+	@Transactional(readOnly = true)
+	@Query("select max(c.id) from TodoChange c where c.changedAt < :before")
+	Long findLastIdBefore(Instant before);
+
+	@Transactional
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("delete from TodoChange c where c.id <= :id")
+	int deleteUpTo(long id);
+}
@@ -0,0 +1,23 @@
+package com.exercise.todotest.repository;
+
+import java.util.List;
+
+import com.exercise.todotest.entity.TodoChange;
+
+public interface TodoChangeRepositoryCustom {
+	/**
+	 * Takes the next {@code count} change sequences by bumping the counter
+	 * row, which stays locked until the transaction ends.
+	 *
+	 * @return the first of the sequences taken
+	 */
+	long nextSequences(int count);
+
+	/**
+	 * Appends the changes, ids included, with a single multi-row
+	 * {@code INSERT ... VALUES}.
+	 *
+	 * @return the number of rows inserted
+	 */
+	int insertChanges(List<TodoChange> changes);
+}
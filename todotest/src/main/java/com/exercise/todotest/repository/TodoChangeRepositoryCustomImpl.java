@@ -0,0 +1,48 @@
+package com.exercise.todotest.repository;
+
+import java.util.List;
+
+import com.exercise.todotest.entity.TodoChange;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+public class TodoChangeRepositoryCustomImpl implements TodoChangeRepositoryCustom {
+	@PersistenceContext
+	EntityManager entityManager;
+
+	@Override
+	public long nextSequences(int count) {
+		entityManager.createNativeQuery("update todo_change_counter set last_id = last_id + :count where id = 1")
+				.setParameter("count", count)
+				.executeUpdate();
+		Number last = (Number) entityManager.createNativeQuery("select last_id from todo_change_counter where id = 1")
+				.getSingleResult();
+		return last.longValue() - count + 1;
+	}
+
+	@Override
+	public int insertChanges(List<TodoChange> changes) {
+		if (changes.isEmpty()) {
+			return 0;
+		}
+
+		StringBuilder hql = new StringBuilder("insert into TodoChange (id, todoId, deleted, changedAt) values ");
+		for (int i = 0; i < changes.size(); i++) {
+			hql.append(i == 0 ? "" : ", ")
+					.append("(:id").append(i).append(", :todoId").append(i).append(", :deleted").append(i)
+					.append(", :changedAt").append(i).append(")");
+		}
+
+		Query insert = entityManager.createQuery(hql.toString());
+		for (int i = 0; i < changes.size(); i++) {
+			TodoChange change = changes.get(i);
+			insert.setParameter("id" + i, change.getId())
+					.setParameter("todoId" + i, change.getTodoId())
+					.setParameter("deleted" + i, change.isDeleted())
+					.setParameter("changedAt" + i, change.getChangedAt());
+		}
+		return insert.executeUpdate();
+	}
+}
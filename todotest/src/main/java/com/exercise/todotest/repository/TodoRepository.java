@@ -1,8 +1,63 @@
 package com.exercise.todotest.repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.exercise.todotest.dto.TodoDto;
 import com.exercise.todotest.entity.Todo;
 
-public interface TodoRepository extends JpaRepository<Todo, Integer>{
+public interface TodoRepository extends JpaRepository<Todo, Integer>, JpaSpecificationExecutor<Todo>, TodoRepositoryCustom {
+	/**
+	 * Reads for the GET endpoints select straight into {@link TodoDto}, so no
+	 * entity is instantiated, registered in the persistence context or
+	 * snapshotted for dirty checking.
+	 */
+	String SELECT_TODO_DTO = "select new com.exercise.todotest.dto.TodoDto(t.id, t.title, t.description, t.targetDate, t.priority, t.version) from Todo t";
+
+	@Transactional(readOnly = true)
+	@Query(SELECT_TODO_DTO)
+	Slice<TodoDto> findDtosBy(Pageable pageable);
+
+	@Transactional(readOnly = true)
+	@Query(SELECT_TODO_DTO + " where t.id = :id")
+	Optional<TodoDto> findDtoById(int id);
+
+	@Transactional(readOnly = true)
+	@Query(SELECT_TODO_DTO + " where t.id in :ids")
+	List<TodoDto> findDtosByIdIn(Collection<Integer> ids);
+
+	Window<Todo> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+	@Transactional(readOnly = true)
+	Slice<TodoVersion> findVersionsBy(Pageable pageable);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("update Todo t set t.title = :title, t.description = :description, t.targetDate = :targetDate, t.priority = :priority, t.version = t.version + 1 where t.id = :id")
+	int updateTodo(int id, String title, String description, LocalDate targetDate, int priority);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("update Todo t set t.title = :title, t.description = :description, t.targetDate = :targetDate, t.priority = :priority, t.version = t.version + 1 where t.id = :id and t.version = :version")
+	int updateTodo(int id, long version, String title, String description, LocalDate targetDate, int priority);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("delete from Todo t where t.id = :id")
+	int deleteTodoById(int id);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("delete from Todo t where t.id = :id and t.version = :version")
+	int deleteTodoById(int id, long version);
 }
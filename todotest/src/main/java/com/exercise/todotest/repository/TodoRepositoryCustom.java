@@ -0,0 +1,45 @@
+package com.exercise.todotest.repository;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.entity.Todo;
+import com.exercise.todotest.enums.TodoField;
+
+public interface TodoRepositoryCustom {
+	/**
+	 * Issues a single {@code UPDATE todo SET <fields>, version = version + 1
+	 * WHERE id = ?} touching only the given columns. When
+	 * {@code expectedVersion} is not null the row must also still have that
+	 * version.
+	 *
+	 * @return the number of rows affected, 0 when the id does not exist or the
+	 *         version did not match
+	 */
+	int updateFields(int id, Map<TodoField, Object> fields, Long expectedVersion);
+
+	/**
+	 * Forward-only, read-only stream over every todo in {@code sort} order,
+	 * fetched {@code fetchSize} rows per round trip. Must be consumed and
+	 * closed inside a transaction. On MySQL the fetch size only takes effect
+	 * with {@code useCursorFetch=true} on the JDBC URL; otherwise the driver
+	 * buffers the whole result.
+	 */
+	Stream<Todo> streamAll(Sort sort, int fetchSize);
+
+	/**
+	 * {@code findDtosBy(Pageable)} restricted by {@code specification}: one
+	 * query for a page and one extra row to tell whether another follows, no
+	 * {@code COUNT}.
+	 */
+	Slice<TodoDto> findDtoSlice(Specification<Todo> specification, Pageable pageable);
+
+	/** {@code findVersionsBy(Pageable)} restricted by {@code specification}. */
+	Slice<TodoVersion> findVersionSlice(Specification<Todo> specification, Pageable pageable);
+}
@@ -0,0 +1,124 @@
+package com.exercise.todotest.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.entity.Todo;
+import com.exercise.todotest.enums.TodoField;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+
+public class TodoRepositoryCustomImpl implements TodoRepositoryCustom {
+	private static final String VERSION = "version";
+
+	@PersistenceContext
+	EntityManager entityManager;
+
+	@Override
+	public int updateFields(int id, Map<TodoField, Object> fields, Long expectedVersion) {
+		CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+		CriteriaUpdate<Todo> update = builder.createCriteriaUpdate(Todo.class);
+		Root<Todo> todo = update.from(Todo.class);
+
+		for (Entry<TodoField, Object> field : fields.entrySet()) {
+			update.set(todo.get(field.getKey().getTodoField()), field.getValue());
+		}
+		Path<Long> version = todo.get(VERSION);
+		update.set(version, builder.sum(version, 1L));
+
+		if (expectedVersion == null) {
+			update.where(builder.equal(todo.get(TodoField.ID.getTodoField()), id));
+		} else {
+			update.where(builder.equal(todo.get(TodoField.ID.getTodoField()), id), builder.equal(version, expectedVersion));
+		}
+
+		// same contract as @Modifying(flushAutomatically = true, clearAutomatically = true)
+		entityManager.flush();
+		int updatedRows = entityManager.createQuery(update).executeUpdate();
+		entityManager.clear();
+
+		return updatedRows;
+	}
+
+	@Override
+	public Stream<Todo> streamAll(Sort sort, int fetchSize) {
+		CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Todo> query = builder.createQuery(Todo.class);
+		Root<Todo> todo = query.from(Todo.class);
+		query.select(todo).orderBy(QueryUtils.toOrders(sort, todo, builder));
+
+		return entityManager.createQuery(query)
+				.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+				.setHint(HibernateHints.HINT_READ_ONLY, true)
+				.getResultStream();
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Slice<TodoDto> findDtoSlice(Specification<Todo> specification, Pageable pageable) {
+		CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+		CriteriaQuery<TodoDto> query = builder.createQuery(TodoDto.class);
+		Root<Todo> todo = query.from(Todo.class);
+		query.select(builder.construct(TodoDto.class, todo.get(TodoField.ID.getTodoField()),
+				todo.get(TodoField.TITLE.getTodoField()), todo.get(TodoField.DESCRIPTION.getTodoField()),
+				todo.get(TodoField.TARGETDATE.getTodoField()), todo.get(TodoField.PRIORITY.getTodoField()),
+				todo.get(VERSION)))
+				.where(specification.toPredicate(todo, query, builder))
+				.orderBy(QueryUtils.toOrders(pageable.getSort(), todo, builder));
+
+		return toSlice(entityManager.createQuery(query), pageable);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Slice<TodoVersion> findVersionSlice(Specification<Todo> specification, Pageable pageable) {
+		CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Version> query = builder.createQuery(Version.class);
+		Root<Todo> todo = query.from(Todo.class);
+		query.select(builder.construct(Version.class, todo.get(TodoField.ID.getTodoField()), todo.get(VERSION)))
+				.where(specification.toPredicate(todo, query, builder))
+				.orderBy(QueryUtils.toOrders(pageable.getSort(), todo, builder));
+
+		return toSlice(entityManager.createQuery(query), pageable).map(TodoVersion.class::cast);
+	}
+
+	private static <T> Slice<T> toSlice(TypedQuery<T> query, Pageable pageable) {
+		List<T> rows = query.setFirstResult((int) pageable.getOffset())
+				.setMaxResults(pageable.getPageSize() + 1)
+				.getResultList();
+
+		boolean hasNext = rows.size() > pageable.getPageSize();
+		return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+	}
+
+	record Version(int id, long version) implements TodoVersion {
+		@Override
+		public int getId() {
+			return id;
+		}
+
+		@Override
+		public long getVersion() {
+			return version;
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package com.exercise.todotest.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.exercise.todotest.entity.Todo;
+import com.exercise.todotest.enums.TodoField;
+
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Filters for {@code GET /todo}. Each one compares a bare column with bind
+ * parameters, so it can be answered from an index range scan; see the V3
+ * migration for the composite index they share.
+ */
+public final class TodoSpecifications {
+
+	private TodoSpecifications() {
+	}
+
+	public static Specification<Todo> priorityIn(Collection<Integer> priorities) {
+		return (todo, query, builder) -> todo.get(TodoField.PRIORITY.getTodoField()).in(priorities);
+	}
+
+	/** Target date strictly before {@code date}. */
+	public static Specification<Todo> dueBefore(LocalDate date) {
+		return (todo, query, builder) -> builder.lessThan(todo.get(TodoField.TARGETDATE.getTodoField()), date);
+	}
+
+	/** Target date strictly after {@code date}. */
+	public static Specification<Todo> dueAfter(LocalDate date) {
+		return (todo, query, builder) -> builder.greaterThan(todo.get(TodoField.TARGETDATE.getTodoField()), date);
+	}
+
+	/**
+	 * Todos after ({@code value}, {@code id}) in {@link TodoField#sortBy}
+	 * order, for a {@code field} that may be null, including {@code value}.
+	 * Null sorts lowest, as on H2 and MySQL: first ascending, last descending.
+	 */
+	public static <T extends Comparable<? super T>> Specification<Todo> after(TodoField field, T value, int id,
+			Sort.Direction direction) {
+		return (todo, query, builder) -> {
+			Path<T> key = todo.get(field.getTodoField());
+			Path<Integer> todoId = todo.get(TodoField.ID.getTodoField());
+			boolean ascending = direction.isAscending();
+			Predicate idAfter = ascending ? builder.greaterThan(todoId, id) : builder.lessThan(todoId, id);
+			if (value == null) {
+				Predicate nullAfter = builder.and(builder.isNull(key), idAfter);
+				return ascending ? builder.or(nullAfter, builder.isNotNull(key)) : nullAfter;
+			}
+
+			Predicate keyAfter = ascending ? builder.greaterThan(key, value) : builder.lessThan(key, value);
+			Predicate after = builder.or(keyAfter, builder.and(builder.equal(key, value), idAfter));
+			return ascending ? after : builder.or(after, builder.isNull(key));
+		};
+	}
+}
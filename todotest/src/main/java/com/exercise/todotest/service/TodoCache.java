@@ -0,0 +1,152 @@
+package com.exercise.todotest.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.exercise.todotest.dto.TodoDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Bounded (W-TinyLFU) cache of single todos by id, plus a short-lived
+ * negative cache of ids that returned 404.
+ *
+ * Writes evict the entry right away and apply the new state after the
+ * surrounding transaction commits, so a rollback leaves nothing behind and a
+ * reader that loaded the old row before the commit can't keep it cached.
+ * Loads carry a stamp taken before the query and are dropped if any write
+ * happened in between. They must read the primary: a lagging replica would
+ * cache the state from before a write that already committed.
+ */
+@Component
+public class TodoCache {
+	private final boolean enabled;
+	private final Cache<Integer, TodoDto> todos;
+	private final Cache<Integer, Boolean> missingIds;
+	private final AtomicLong writeStamp = new AtomicLong();
+
+	public TodoCache(@Value("${todo.cache.enabled:true}") boolean enabled,
+			@Value("${todo.cache.maximum-size:10000}") long maximumSize,
+			@Value("${todo.cache.ttl:PT10M}") Duration ttl,
+			@Value("${todo.cache.negative-ttl:PT5S}") Duration negativeTtl) {
+		this.enabled = enabled;
+		this.todos = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).recordStats().build();
+		this.missingIds = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(negativeTtl).recordStats().build();
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public TodoDto get(int id) {
+		return enabled ? todos.getIfPresent(id) : null;
+	}
+
+	public boolean isMissing(int id) {
+		return enabled && missingIds.getIfPresent(id) != null;
+	}
+
+	/** Stamp to take before loading from the database, see {@link #putLoaded}. */
+	public long stamp() {
+		return writeStamp.get();
+	}
+
+	public void putLoaded(TodoDto todoDto, long stamp) {
+		if (enabled && stamp == writeStamp.get()) {
+			todos.put(todoDto.getId(), todoDto);
+		}
+	}
+
+	public void putLoadedMissing(int id, long stamp) {
+		if (enabled && stamp == writeStamp.get()) {
+			missingIds.put(id, Boolean.TRUE);
+		}
+	}
+
+	/** The todo was written with all its columns known: cache the new state once committed. */
+	public void refresh(TodoDto todoDto) {
+		onWrite(() -> todos.invalidate(todoDto.getId()), () -> {
+			missingIds.invalidate(todoDto.getId());
+			todos.put(todoDto.getId(), todoDto);
+		});
+	}
+
+	public void invalidate(int id) {
+		onWrite(() -> todos.invalidate(id), () -> todos.invalidate(id));
+	}
+
+	public void remove(int id) {
+		onWrite(() -> todos.invalidate(id), () -> {
+			todos.invalidate(id);
+			missingIds.put(id, Boolean.TRUE);
+		});
+	}
+
+	/** New rows were created; ids cached as missing may exist now. */
+	public void invalidateMissing() {
+		onWrite(() -> {}, missingIds::invalidateAll);
+	}
+
+	public Map<String, Object> stats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("enabled", enabled);
+		stats.put("todos", toMap(todos.stats(), todos.estimatedSize()));
+		stats.put("missingIds", toMap(missingIds.stats(), missingIds.estimatedSize()));
+		return stats;
+	}
+
+	public Cache<Integer, TodoDto> getTodos() {
+		return todos;
+	}
+
+	public Cache<Integer, Boolean> getMissingIds() {
+		return missingIds;
+	}
+
+	private void onWrite(Runnable evict, Runnable apply) {
+		if (!enabled) {
+			return;
+		}
+
+		writeStamp.incrementAndGet();
+		evict.run();
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			apply.run();
+			return;
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				writeStamp.incrementAndGet();
+				apply.run();
+			}
+
+			@Override
+			public void afterCompletion(int status) {
+				if (status != STATUS_COMMITTED) {
+					writeStamp.incrementAndGet();
+					evict.run();
+				}
+			}
+		});
+	}
+
+	private static Map<String, Object> toMap(CacheStats cacheStats, long size) {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("size", size);
+		stats.put("hitCount", cacheStats.hitCount());
+		stats.put("missCount", cacheStats.missCount());
+		stats.put("hitRate", cacheStats.hitRate());
+		stats.put("evictionCount", cacheStats.evictionCount());
+		return stats;
+	}
+}
@@ -0,0 +1,231 @@
+package com.exercise.todotest.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.exercise.todotest.dto.TodoChangeDto;
+import com.exercise.todotest.dto.TodoChangePageDto;
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.entity.TodoChange;
+import com.exercise.todotest.exception.InvalidCursorException;
+import com.exercise.todotest.exception.ResyncRequiredException;
+import com.exercise.todotest.repository.TodoChangeRange;
+import com.exercise.todotest.repository.TodoChangeRepository;
+import com.exercise.todotest.repository.TodoRepository;
+
+/**
+ * Change log behind {@code GET /todo/changes}. Every {@link TodoService} write
+ * appends a row in its own transaction, deletes as tombstones, and a token is
+ * the last change sequence a client has seen.
+ *
+ * The rows of a transaction are inserted just before it commits, numbered
+ * from a one-row counter it bumps there. The counter's row lock is held until
+ * the commit, so sequences become visible in order and a rollback leaves no
+ * gap: a reader never passes a change that is still to commit. Holding the
+ * lock only from the bump on keeps writes serialized for as little as
+ * possible. Changes older than {@code todo.changes.retention} are trimmed
+ * every {@code compact-interval}; a token from before the oldest change
+ * left, or from another database, answers 410 and the client reloads every
+ * todo.
+ */
+@Component
+public class TodoChangeLog implements SmartLifecycle {
+	private static final Logger log = LoggerFactory.getLogger(TodoChangeLog.class);
+
+	@Autowired
+	TodoChangeRepository todoChangeRepository;
+
+	@Autowired
+	TodoRepository todoRepository;
+
+	private final Duration retention;
+	private final Duration compactInterval;
+
+	private ScheduledExecutorService compactor;
+
+	public TodoChangeLog(@Value("${todo.changes.retention:P1D}") Duration retention,
+			@Value("${todo.changes.compact-interval:PT5M}") Duration compactInterval) {
+		this.retention = retention;
+		this.compactInterval = compactInterval;
+	}
+
+	/** Records creates and updates; must run inside the write's transaction. */
+	public void recordChanged(List<Integer> todoIds) {
+		pendingChanges().add(todoIds, false);
+	}
+
+	/** Records a tombstone; must run inside the delete's transaction. */
+	public void recordDeleted(int todoId) {
+		pendingChanges().add(List.of(todoId), true);
+	}
+
+	/**
+	 * The todos changed after {@code since}, in change order, each once with
+	 * its current state. Without a token, returns the current one and no
+	 * changes: clients take it before loading {@code GET /todo}.
+	 */
+	// not read-only: a replica behind the primary would take a fresh token for a stale one
+	@Transactional
+	public TodoChangePageDto getChanges(String since, int limit) {
+		TodoChangeRange range = todoChangeRepository.findRange();
+		long newest = range.newest() == null ? 0 : range.newest();
+		if (since == null) {
+			return new TodoChangePageDto(List.of(), Long.toString(newest), true);
+		}
+
+		long sinceId = parseToken(since);
+		long oldest = range.oldest() == null ? newest + 1 : range.oldest();
+		if (sinceId < oldest - 1 || sinceId > newest) {
+			throw new ResyncRequiredException("Change token '" + since + "' is outside the retained changes, reload all todos");
+		}
+
+		List<TodoChange> entries = todoChangeRepository.findByIdGreaterThanOrderById(sinceId, Limit.of(limit + 1));
+		Map<Integer, Boolean> deletedById = new LinkedHashMap<>();
+		long next = sinceId;
+		for (TodoChange entry : entries.subList(0, Math.min(limit, entries.size()))) {
+			// keyed by todo, in the order of its latest change
+			deletedById.remove(entry.getTodoId());
+			deletedById.put(entry.getTodoId(), entry.isDeleted());
+			next = entry.getId();
+		}
+		boolean last = entries.size() <= limit;
+
+		List<Integer> liveIds = deletedById.entrySet().stream().filter(entry -> !entry.getValue())
+				.map(Map.Entry::getKey).toList();
+		Map<Integer, TodoDto> todosById = liveIds.isEmpty() ? Map.of()
+				: todoRepository.findDtosByIdIn(liveIds).stream()
+						.collect(Collectors.toMap(TodoDto::getId, Function.identity()));
+
+		// a todo updated here and deleted in a later change is already gone: its tombstone comes early
+		List<TodoChangeDto> changes = deletedById.keySet().stream().map(id -> {
+			TodoDto todo = todosById.get(id);
+			return new TodoChangeDto(id, todo == null, todo);
+		}).toList();
+		return new TodoChangePageDto(changes, Long.toString(next), last);
+	}
+
+	/**
+	 * Deletes the changes older than the retention, as a prefix of the log so
+	 * the oldest sequence left tells which tokens are still valid. The newest
+	 * change is always kept.
+	 *
+	 * @return the number of changes deleted
+	 */
+	public int compact() {
+		Long lastExpired = todoChangeRepository.findLastIdBefore(Instant.now().minus(retention));
+		TodoChangeRange range = todoChangeRepository.findRange();
+		if (lastExpired == null || range.newest() == null) {
+			return 0;
+		}
+		return todoChangeRepository.deleteUpTo(Math.min(lastExpired, range.newest() - 1));
+	}
+
+	@Override
+	public void start() {
+		compactor = Executors.newSingleThreadScheduledExecutor(
+				Thread.ofPlatform().name("todo-changes-compactor").daemon().factory());
+		compactor.scheduleWithFixedDelay(this::compactQuietly, compactInterval.toMillis(), compactInterval.toMillis(),
+				TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void stop() {
+		compactor.shutdownNow();
+		compactor = null;
+	}
+
+	@Override
+	public boolean isRunning() {
+		return compactor != null;
+	}
+
+	private void compactQuietly() {
+		try {
+			int deleted = compact();
+			if (deleted > 0) {
+				log.info("Compacted {} todo changes older than {}", deleted, retention);
+			}
+		} catch (RuntimeException e) {
+			// a failed run must not cancel the next ones
+			log.warn("Todo change log compaction failed", e);
+		}
+	}
+
+	/** The changes recorded in the current transaction, bound to it on the first one. */
+	private PendingChanges pendingChanges() {
+		PendingChanges pendingChanges = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+		if (pendingChanges == null) {
+			if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+				throw new IllegalStateException("Todo changes must be recorded inside the write's transaction");
+			}
+			pendingChanges = new PendingChanges();
+			TransactionSynchronizationManager.bindResource(this, pendingChanges);
+			TransactionSynchronizationManager.registerSynchronization(pendingChanges);
+		}
+		return pendingChanges;
+	}
+
+	private static long parseToken(String token) {
+		try {
+			long id = Long.parseLong(token);
+			if (id >= 0) {
+				return id;
+			}
+		} catch (NumberFormatException e) {
+			// fall through
+		}
+		throw new InvalidCursorException("Invalid change token '" + token + "'");
+	}
+
+	/** One insert per recording call, numbered and sent as the transaction commits. */
+	private final class PendingChanges implements TransactionSynchronization {
+		private final List<List<TodoChange>> inserts = new ArrayList<>();
+		private int size;
+
+		void add(List<Integer> todoIds, boolean deleted) {
+			inserts.add(todoIds.stream().map(todoId -> new TodoChange(0, todoId, deleted, null)).toList());
+			size += todoIds.size();
+		}
+
+		@Override
+		public void beforeCommit(boolean readOnly) {
+			if (size == 0) {
+				return;
+			}
+			long sequence = todoChangeRepository.nextSequences(size);
+			Instant changedAt = Instant.now();
+			for (List<TodoChange> changes : inserts) {
+				for (TodoChange change : changes) {
+					change.setId(sequence++);
+					change.setChangedAt(changedAt);
+				}
+				todoChangeRepository.insertChanges(changes);
+			}
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			TransactionSynchronizationManager.unbindResource(TodoChangeLog.this);
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package com.exercise.todotest.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Approximate todo totals per filter, so paged responses don't pay a
+ * {@code SELECT COUNT(*)} on every request. Creates and deletes adjust the
+ * unfiltered total in place and drop every filtered one; entries also expire
+ * after a TTL so any drift from concurrent writers is bounded.
+ *
+ * As in {@link TodoCache}, the adjustment is applied once the surrounding
+ * transaction commits, so a rollback leaves the total alone, and a total
+ * counted while a write was in flight is not cached over it.
+ *
+ * Filter keys come from the request, date ranges included, so the cache is
+ * capped at {@code maximum-size} entries. Filtered totals are dropped by
+ * bumping a generation, as in {@link TodoPageCache}, instead of walking the
+ * keys on every update.
+ */
+@Component
+public class TodoCountCache {
+	public static final String ALL = "all";
+
+	private final Cache<String, CachedCount> counts;
+	private final AtomicLong filteredGeneration = new AtomicLong();
+	private final AtomicLong writeStamp = new AtomicLong();
+	private final long ttlNanos;
+
+	public TodoCountCache(@Value("${todo.count-cache.maximum-size:10000}") long maximumSize,
+			@Value("${todo.count-cache.ttl:PT5M}") Duration ttl) {
+		this.counts = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).build();
+		this.ttlNanos = ttl.toNanos();
+	}
+
+	public long getTotal(String filterKey, LongSupplier counter) {
+		long now = System.nanoTime();
+		long generation = filteredGeneration.get();
+		long stamp = writeStamp.get();
+		CachedCount cached = counts.getIfPresent(filterKey);
+		if (cached != null && now - cached.loadedAt() < ttlNanos
+				&& (ALL.equals(filterKey) || cached.generation() == generation)) {
+			return cached.total();
+		}
+
+		// a filtered total loaded across an update keeps the older generation, so it's never served
+		CachedCount loaded = new CachedCount(counter.getAsLong(), now, generation);
+		if (!ALL.equals(filterKey) || stamp == writeStamp.get()) {
+			counts.put(filterKey, loaded);
+		}
+		return loaded.total();
+	}
+
+	/** Shifts the unfiltered total by {@code delta} once the surrounding transaction commits. */
+	public void adjust(long delta) {
+		onWrite(() -> counts.asMap().computeIfPresent(ALL,
+				(key, cached) -> new CachedCount(Math.max(0, cached.total() + delta), cached.loadedAt(), cached.generation())));
+	}
+
+	/** An update may have moved todos in or out of any filter, but not changed the total. */
+	public void invalidateFiltered() {
+		onWrite(() -> {});
+	}
+
+	public void invalidate() {
+		filteredGeneration.incrementAndGet();
+		counts.invalidateAll();
+	}
+
+	/**
+	 * Drops the filtered totals now, so none loaded during the transaction is
+	 * served, and again with {@code apply} once it commits, so none read
+	 * before the commit became visible is either. Rolled back, only the
+	 * filtered totals are dropped.
+	 */
+	private void onWrite(Runnable apply) {
+		writeStamp.incrementAndGet();
+		filteredGeneration.incrementAndGet();
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			apply.run();
+			return;
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				apply.run();
+			}
+
+			@Override
+			public void afterCompletion(int status) {
+				writeStamp.incrementAndGet();
+				filteredGeneration.incrementAndGet();
+			}
+		});
+	}
+
+	private record CachedCount(long total, long loadedAt, long generation) {
+	}
+}
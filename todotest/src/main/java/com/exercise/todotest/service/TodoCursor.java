@@ -0,0 +1,127 @@
+package com.exercise.todotest.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.exercise.todotest.entity.Todo;
+import com.exercise.todotest.enums.TodoField;
+import com.exercise.todotest.exception.InvalidCursorException;
+import com.exercise.todotest.repository.TodoSpecifications;
+
+/**
+ * Opaque keyset position for {@code GET /todo?cursor=}. The token carries the
+ * sort it was issued for plus the last row's sort key and id, so the next
+ * page is a plain {@code WHERE (key, id) > (?, ?)} seek instead of an OFFSET.
+ * A null sort key is left out of the token, see {@link #toNullableSeek()}.
+ */
+public class TodoCursor {
+	private static final String SEPARATOR = "|";
+
+	private final TodoField sortfield;
+	private final Sort.Direction sortorder;
+	private final int id;
+	// null when the last row's sort key was
+	private final String value;
+
+	private TodoCursor(TodoField sortfield, Sort.Direction sortorder, int id, String value) {
+		this.sortfield = sortfield;
+		this.sortorder = sortorder;
+		this.id = id;
+		this.value = value;
+	}
+
+	public static TodoCursor after(Todo todo, TodoField sortfield, Sort.Direction sortorder) {
+		String value = switch (sortfield) {
+		case ID -> "";
+		case TITLE -> todo.getTitle();
+		case DESCRIPTION -> todo.getDescription();
+		case TARGETDATE -> todo.getTargetDate() == null ? null : todo.getTargetDate().toString();
+		case PRIORITY -> String.valueOf(todo.getPriority());
+		};
+		return new TodoCursor(sortfield, sortorder, todo.getId(), value);
+	}
+
+	public static TodoCursor decode(String token) {
+		try {
+			String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			String[] parts = decoded.split("\\" + SEPARATOR, 4);
+			if (parts.length < 3) {
+				throw new InvalidCursorException("Malformed cursor '" + token + "'");
+			}
+			return new TodoCursor(TodoField.valueOf(parts[0]), Sort.Direction.valueOf(parts[1]),
+					Integer.parseInt(parts[2]), parts.length == 4 ? parts[3] : null);
+		} catch (IllegalArgumentException e) {
+			throw new InvalidCursorException("Malformed cursor '" + token + "'", e);
+		}
+	}
+
+	/**
+	 * Resolves the cursor of a request, or {@code null} for a blank token,
+	 * which starts from the beginning. The token must have been issued for the
+	 * same sort.
+	 */
+	public static TodoCursor forSort(String token, TodoField sortfield, Sort.Direction sortorder) {
+		if (token == null || token.isBlank()) {
+			return null;
+		}
+
+		TodoCursor cursor = decode(token);
+		if (cursor.sortfield != sortfield || cursor.sortorder != sortorder) {
+			throw new InvalidCursorException(
+					"Cursor was issued for sortfield=" + cursor.sortfield + "&sortorder=" + cursor.sortorder);
+		}
+		return cursor;
+	}
+
+	/**
+	 * Spring Data's keyset seek compares the sort key with {@code >} and
+	 * {@code =}, which never hold for null: after a null key it would match
+	 * nothing, and descending it would skip the nulls, which sort last. For
+	 * the columns that allow null, the seek is this predicate instead, scrolled
+	 * from the start; {@code null} for the others, which use
+	 * {@link #toScrollPosition()}.
+	 */
+	public Specification<Todo> toNullableSeek() {
+		return switch (sortfield) {
+		case ID, PRIORITY -> null;
+		case TITLE, DESCRIPTION -> TodoSpecifications.after(sortfield, value, id, sortorder);
+		case TARGETDATE -> TodoSpecifications.after(sortfield,
+				value == null ? null : parse(() -> LocalDate.parse(value)), id, sortorder);
+		};
+	}
+
+	public ScrollPosition toScrollPosition() {
+		Map<String, Object> keys = new LinkedHashMap<>();
+		switch (sortfield) {
+		case ID -> {
+		}
+		case TITLE, DESCRIPTION -> keys.put(sortfield.getTodoField(), value);
+		case TARGETDATE -> keys.put(sortfield.getTodoField(), parse(() -> LocalDate.parse(value)));
+		case PRIORITY -> keys.put(sortfield.getTodoField(), parse(() -> Integer.valueOf(value)));
+		}
+		keys.put(TodoField.ID.getTodoField(), id);
+
+		return ScrollPosition.forward(keys);
+	}
+
+	public String encode() {
+		String raw = sortfield + SEPARATOR + sortorder + SEPARATOR + id + (value == null ? "" : SEPARATOR + value);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private <T> T parse(Supplier<T> parser) {
+		try {
+			return parser.get();
+		} catch (RuntimeException e) {
+			throw new InvalidCursorException("Malformed cursor value '" + value + "' for " + sortfield, e);
+		}
+	}
+}
@@ -0,0 +1,300 @@
+package com.exercise.todotest.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.dto.TodoEventDto;
+import com.exercise.todotest.enums.TodoEventType;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Fans the writes of {@link TodoService} out to the {@code GET /todo/stream}
+ * subscribers of this node, once their transaction has committed.
+ *
+ * Each subscriber has a buffer of {@code todo.events.buffer-size} events and
+ * holds no thread while it's empty: a virtual thread is started to send its
+ * events only when some are pending, so idle subscribers cost a connection and
+ * a small object each. A subscriber whose buffer is full is too slow to keep
+ * up; with {@code todo.events.slow-consumer=drop-oldest} it loses its oldest
+ * pending event and is sent a {@code resync} event before the next one, with
+ * {@code disconnect} its stream is closed and the client reconnects.
+ *
+ * The last {@code todo.events.retained} events are kept, so a client
+ * reconnecting with {@code Last-Event-ID} gets the ones it missed. Event ids
+ * start with a per-instance epoch; an id from before a restart, older than
+ * the retained window, or that missed more events than its buffer holds, gets
+ * a {@code resync} event instead, telling the client to reload its todos.
+ */
+@Component
+public class TodoEventBroadcaster implements MeterBinder {
+	public enum SlowConsumerPolicy {
+		DROP_OLDEST, DISCONNECT
+	}
+
+	record Event(long sequence, String id, TodoEventDto payload) {
+	}
+
+	private static final Event RESYNC = new Event(-1, null, null);
+	private static final Event HEARTBEAT = new Event(-1, null, null);
+
+	private final int retained;
+	private final int bufferSize;
+	private final SlowConsumerPolicy slowConsumerPolicy;
+	private final Duration timeout;
+	private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+	// guards sequence and window, and the fan-out, so every subscriber sees events in sequence order
+	private final Object lock = new Object();
+	private long sequence;
+	private final ArrayDeque<Event> window;
+
+	private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+	private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+	private final ScheduledExecutorService heartbeats = Executors
+			.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("todo-events-heartbeat").daemon().factory());
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder disconnected = new LongAdder();
+
+	public TodoEventBroadcaster(@Value("${todo.events.retained:1024}") int retained,
+			@Value("${todo.events.buffer-size:256}") int bufferSize,
+			@Value("${todo.events.slow-consumer:drop-oldest}") String slowConsumer,
+			@Value("${todo.events.timeout:PT30M}") Duration timeout,
+			@Value("${todo.events.heartbeat:PT30S}") Duration heartbeat) {
+		this.retained = retained;
+		this.bufferSize = Math.max(1, bufferSize);
+		this.slowConsumerPolicy = SlowConsumerPolicy.valueOf(slowConsumer.toUpperCase().replace('-', '_'));
+		this.timeout = timeout;
+		this.window = new ArrayDeque<>(Math.max(1, retained));
+		heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeat.toMillis(), heartbeat.toMillis(),
+				TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Broadcasts an event after the current transaction commits, or right away
+	 * outside of one. Rolled back writes publish nothing.
+	 *
+	 * @param todo the todo after the write, or {@code null} when not known
+	 */
+	public void publish(TodoEventType type, int todoId, TodoDto todo) {
+		TodoEventDto payload = new TodoEventDto(type, todoId, todo);
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			broadcast(payload);
+			return;
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				broadcast(payload);
+			}
+		});
+	}
+
+	public SseEmitter subscribe(String lastEventId) {
+		return subscribe(new SseEmitter(timeout.toMillis()), lastEventId);
+	}
+
+	// package-private for tests, which pass in emitters that record what they're sent
+	SseEmitter subscribe(SseEmitter emitter, String lastEventId) {
+		Subscriber subscriber = new Subscriber(emitter);
+		emitter.onCompletion(subscriber::closed);
+		emitter.onTimeout(subscriber::closed);
+		emitter.onError(e -> subscriber.closed());
+
+		synchronized (lock) {
+			if (lastEventId != null) {
+				long lastSequence = parseSequence(lastEventId);
+				long oldestRetained = window.isEmpty() ? sequence + 1 : window.peekFirst().sequence();
+				// a replay overflowing the buffer would be cut short or disconnect before sending anything
+				if (lastSequence < oldestRetained - 1 || lastSequence > sequence || sequence - lastSequence > bufferSize) {
+					subscriber.offer(RESYNC);
+				} else {
+					window.stream().filter(event -> event.sequence() > lastSequence).forEach(subscriber::offer);
+				}
+			}
+			subscriber.register();
+		}
+		return emitter;
+	}
+
+	public int getSubscriberCount() {
+		return subscribers.size();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		registry.gauge("todo.events.subscribers", subscribers, Set::size);
+		FunctionCounter.builder("todo.events.dropped", dropped, LongAdder::doubleValue)
+				.description("Events dropped from the buffer of a slow subscriber").register(registry);
+		FunctionCounter.builder("todo.events.disconnected", disconnected, LongAdder::doubleValue)
+				.description("Subscribers disconnected for being too slow").register(registry);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		heartbeats.shutdownNow();
+		subscribers.forEach(Subscriber::close);
+		senders.shutdown();
+	}
+
+	private void broadcast(TodoEventDto payload) {
+		synchronized (lock) {
+			long next = ++sequence;
+			Event event = new Event(next, epoch + "-" + next, payload);
+			if (retained > 0) {
+				if (window.size() == retained) {
+					window.removeFirst();
+				}
+				window.addLast(event);
+			}
+			subscribers.forEach(subscriber -> subscriber.offer(event));
+		}
+	}
+
+	private void heartbeat() {
+		subscribers.forEach(Subscriber::heartbeat);
+	}
+
+	/** The sequence part of an id this instance handed out, or -1 for anything else. */
+	private long parseSequence(String eventId) {
+		if (!eventId.startsWith(epoch + "-")) {
+			return -1;
+		}
+		try {
+			return Long.parseLong(eventId.substring(epoch.length() + 1));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	private static SseEmitter.SseEventBuilder toSse(Event event) {
+		if (event == HEARTBEAT) {
+			return SseEmitter.event().comment("heartbeat");
+		}
+		if (event == RESYNC) {
+			return SseEmitter.event().name("resync").data("resync");
+		}
+		return SseEmitter.event().id(event.id()).data(event.payload(), MediaType.APPLICATION_JSON);
+	}
+
+	private final class Subscriber {
+		private final SseEmitter emitter;
+		// all guarded by this
+		private final ArrayDeque<Event> pending = new ArrayDeque<>();
+		private boolean sending;
+		private boolean missed;
+		private boolean closed;
+
+		Subscriber(SseEmitter emitter) {
+			this.emitter = emitter;
+		}
+
+		void offer(Event event) {
+			synchronized (this) {
+				if (closed) {
+					return;
+				}
+				if (pending.size() >= bufferSize) {
+					if (slowConsumerPolicy == SlowConsumerPolicy.DISCONNECT) {
+						disconnected.increment();
+						close();
+						return;
+					}
+					pending.removeFirst();
+					missed = true;
+					dropped.increment();
+				}
+				pending.addLast(event);
+				if (sending) {
+					return;
+				}
+				sending = true;
+			}
+			senders.execute(this::send);
+		}
+
+		/** Keeps proxies from closing an idle stream; skipped while events are going out anyway. */
+		void heartbeat() {
+			synchronized (this) {
+				if (closed || sending) {
+					return;
+				}
+				pending.addLast(HEARTBEAT);
+				sending = true;
+			}
+			senders.execute(this::send);
+		}
+
+		private void send() {
+			while (true) {
+				Event next;
+				synchronized (this) {
+					if (closed) {
+						return;
+					}
+					if (missed) {
+						missed = false;
+						next = RESYNC;
+					} else {
+						next = pending.pollFirst();
+					}
+					if (next == null) {
+						sending = false;
+						return;
+					}
+				}
+
+				try {
+					emitter.send(toSse(next));
+				} catch (IOException | IllegalStateException e) {
+					// the client is gone, the container reports it through onError/onCompletion
+					closed();
+					return;
+				}
+			}
+		}
+
+		/** Completes the stream, off the caller's thread as the emitter may be blocked in a send. */
+		void close() {
+			closed();
+			senders.execute(emitter::complete);
+		}
+
+		/** Joins the fan-out, unless the stream closed already. */
+		void register() {
+			synchronized (this) {
+				if (!closed) {
+					subscribers.add(this);
+				}
+			}
+		}
+
+		void closed() {
+			synchronized (this) {
+				closed = true;
+				pending.clear();
+				subscribers.remove(this);
+			}
+		}
+	}
+}
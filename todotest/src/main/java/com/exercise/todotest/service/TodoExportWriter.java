@@ -0,0 +1,110 @@
+package com.exercise.todotest.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.enums.ExportFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Writes todos one at a time in an {@link ExportFormat}, buffering at most a
+ * few kilobytes before they reach the response.
+ */
+public abstract class TodoExportWriter implements AutoCloseable {
+
+	public static TodoExportWriter of(ExportFormat format, ObjectMapper objectMapper, OutputStream outputStream)
+			throws IOException {
+		return switch (format) {
+		case NDJSON -> new NdjsonWriter(objectMapper, outputStream);
+		case CSV -> new CsvWriter(outputStream);
+		};
+	}
+
+	public abstract void write(TodoDto todoDto) throws IOException;
+
+	public abstract void flush() throws IOException;
+
+	/** Flushes what is left; the response stream itself is closed by the container. */
+	@Override
+	public void close() throws IOException {
+		flush();
+	}
+
+	private static final class NdjsonWriter extends TodoExportWriter {
+		private final ObjectWriter objectWriter;
+		private final JsonGenerator generator;
+
+		NdjsonWriter(ObjectMapper objectMapper, OutputStream outputStream) throws IOException {
+			this.objectWriter = objectMapper.writerFor(TodoDto.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+			this.generator = objectMapper.getFactory().createGenerator(outputStream);
+			this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			this.generator.setRootValueSeparator(null);
+		}
+
+		@Override
+		public void write(TodoDto todoDto) throws IOException {
+			objectWriter.writeValue(generator, todoDto);
+			generator.writeRaw('\n');
+		}
+
+		@Override
+		public void flush() throws IOException {
+			generator.flush();
+		}
+	}
+
+	private static final class CsvWriter extends TodoExportWriter {
+		private static final String HEADER = "id,title,description,targetDate,priority";
+
+		private final Writer writer;
+
+		CsvWriter(OutputStream outputStream) throws IOException {
+			this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+			this.writer.write(HEADER);
+			this.writer.write("\r\n");
+		}
+
+		@Override
+		public void write(TodoDto todoDto) throws IOException {
+			writer.write(Integer.toString(todoDto.getId()));
+			writer.write(',');
+			writeField(todoDto.getTitle());
+			writer.write(',');
+			writeField(todoDto.getDescription());
+			writer.write(',');
+			if (todoDto.getTargetDate() != null) {
+				writer.write(todoDto.getTargetDate().toString());
+			}
+			writer.write(',');
+			writer.write(Integer.toString(todoDto.getPriority()));
+			writer.write("\r\n");
+		}
+
+		@Override
+		public void flush() throws IOException {
+			writer.flush();
+		}
+
+		// RFC 4180: quote fields holding a separator, quote or line break, doubling inner quotes
+		private void writeField(String value) throws IOException {
+			if (value == null) {
+				return;
+			}
+			if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+				writer.write(value);
+				return;
+			}
+			writer.write('"');
+			writer.write(value.replace("\"", "\"\""));
+			writer.write('"');
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package com.exercise.todotest.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.exercise.todotest.entity.Todo;
+import com.exercise.todotest.repository.TodoSpecifications;
+
+/**
+ * Restrictions on {@code GET /todo}, normalized so that equal filters are
+ * equal records: priorities are sorted and deduplicated, and {@code overdue}
+ * is folded into the date bounds. The record doubles as a cache key.
+ *
+ * @param dueBefore exclusive upper bound on the target date, or {@code null}
+ * @param dueAfter  exclusive lower bound on the target date, or {@code null}
+ */
+public record TodoFilter(List<Integer> priorities, LocalDate dueBefore, LocalDate dueAfter) {
+	public static final TodoFilter NONE = new TodoFilter(List.of(), null, null);
+
+	/**
+	 * @param overdue {@code true} keeps todos due before {@code today},
+	 *                {@code false} those due today or later
+	 */
+	public static TodoFilter of(List<Integer> priorities, LocalDate dueBefore, LocalDate dueAfter, Boolean overdue,
+			LocalDate today) {
+		if (Boolean.TRUE.equals(overdue)) {
+			dueBefore = dueBefore == null || today.isBefore(dueBefore) ? today : dueBefore;
+		} else if (Boolean.FALSE.equals(overdue)) {
+			LocalDate yesterday = today.minusDays(1);
+			dueAfter = dueAfter == null || yesterday.isAfter(dueAfter) ? yesterday : dueAfter;
+		}
+
+		List<Integer> sortedPriorities = priorities == null ? List.of() : priorities.stream().distinct().sorted().toList();
+		return new TodoFilter(sortedPriorities, dueBefore, dueAfter);
+	}
+
+	public boolean isEmpty() {
+		return priorities.isEmpty() && dueBefore == null && dueAfter == null;
+	}
+
+	/** Key of this filter's total in {@link TodoCountCache}. */
+	public String key() {
+		return isEmpty() ? TodoCountCache.ALL : "priority=" + priorities + ";dueBefore=" + dueBefore + ";dueAfter=" + dueAfter;
+	}
+
+	public Specification<Todo> toSpecification() {
+		Specification<Todo> specification = Specification.where(null);
+		if (!priorities.isEmpty()) {
+			specification = specification.and(TodoSpecifications.priorityIn(priorities));
+		}
+		if (dueBefore != null) {
+			specification = specification.and(TodoSpecifications.dueBefore(dueBefore));
+		}
+		if (dueAfter != null) {
+			specification = specification.and(TodoSpecifications.dueAfter(dueAfter));
+		}
+		return specification;
+	}
+}
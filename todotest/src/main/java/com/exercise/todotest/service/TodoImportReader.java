@@ -0,0 +1,251 @@
+package com.exercise.todotest.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.enums.ExportFormat;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Reads an import body one record at a time, in the layout
+ * {@link TodoExportWriter} writes. Only the current record is held in memory,
+ * and a record longer than {@code maxRecordLength} characters is skipped and
+ * reported instead of buffered.
+ */
+public abstract class TodoImportReader implements AutoCloseable {
+
+	/**
+	 * One parsed record: {@code todo} is null when the record could not be
+	 * read, and {@code errors} then says why.
+	 */
+	public record ImportRecord(long line, TodoDto todo, Map<String, String> errors) {
+	}
+
+	protected final Reader reader;
+	protected final int maxRecordLength;
+	protected long line = 1;
+
+	protected TodoImportReader(Reader reader, int maxRecordLength) {
+		this.reader = reader;
+		this.maxRecordLength = maxRecordLength;
+	}
+
+	public static TodoImportReader of(ExportFormat format, ObjectMapper objectMapper, Reader reader, int maxRecordLength)
+			throws IOException {
+		return switch (format) {
+		case NDJSON -> new NdjsonReader(objectMapper, reader, maxRecordLength);
+		case CSV -> new CsvReader(reader, maxRecordLength);
+		};
+	}
+
+	/** @return the next record, or {@code null} at the end of the body */
+	public abstract ImportRecord next() throws IOException;
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	protected ImportRecord failed(long recordLine, String key, String message) {
+		return new ImportRecord(recordLine, null, Map.of(key, message));
+	}
+
+	protected ImportRecord tooLong(long recordLine) {
+		return failed(recordLine, "line", "Record is longer than " + maxRecordLength + " characters");
+	}
+
+	private static final class NdjsonReader extends TodoImportReader {
+		private final ObjectReader objectReader;
+		private final StringBuilder buffer = new StringBuilder();
+
+		NdjsonReader(ObjectMapper objectMapper, Reader reader, int maxRecordLength) {
+			super(reader, maxRecordLength);
+			this.objectReader = objectMapper.readerFor(TodoDto.class);
+		}
+
+		@Override
+		public ImportRecord next() throws IOException {
+			while (true) {
+				long recordLine = line;
+				buffer.setLength(0);
+				boolean overflow = false;
+
+				int c = reader.read();
+				if (c == -1) {
+					return null;
+				}
+				while (c != -1 && c != '\n') {
+					if (buffer.length() < maxRecordLength) {
+						buffer.append((char) c);
+					} else {
+						overflow = true;
+					}
+					c = reader.read();
+				}
+				line++;
+
+				if (overflow) {
+					return tooLong(recordLine);
+				}
+				if (buffer.toString().isBlank()) {
+					continue;
+				}
+				try {
+					return new ImportRecord(recordLine, objectReader.readValue(buffer.toString()), null);
+				} catch (JsonProcessingException e) {
+					return failed(recordLine, "line", e.getOriginalMessage());
+				}
+			}
+		}
+	}
+
+	/**
+	 * RFC 4180: a header row naming the columns, quoted fields may hold
+	 * separators, doubled quotes and line breaks. The {@code id} column is
+	 * optional and ignored.
+	 */
+	private static final class CsvReader extends TodoImportReader {
+		private static final List<String> REQUIRED_COLUMNS = List.of("title", "description", "targetDate", "priority");
+
+		private final Map<String, Integer> columns = new HashMap<>();
+		private ImportRecord headerError;
+		private boolean overflow;
+
+		CsvReader(Reader reader, int maxRecordLength) throws IOException {
+			super(reader, maxRecordLength);
+			long headerLine = line;
+			List<String> header = readRecord();
+			if (header == null || overflow) {
+				headerError = failed(headerLine, "header", "Missing header row");
+				return;
+			}
+			for (int i = 0; i < header.size(); i++) {
+				columns.put(header.get(i).trim(), i);
+			}
+			List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> !columns.containsKey(column)).toList();
+			if (!missing.isEmpty()) {
+				headerError = failed(headerLine, "header", "Missing columns " + missing);
+			}
+		}
+
+		@Override
+		public ImportRecord next() throws IOException {
+			// a bad header fails the whole body, reported once
+			if (headerError != null) {
+				ImportRecord error = headerError;
+				headerError = null;
+				columns.clear();
+				return error;
+			}
+			if (columns.isEmpty()) {
+				return null;
+			}
+
+			while (true) {
+				long recordLine = line;
+				List<String> fields = readRecord();
+				if (fields == null) {
+					return null;
+				}
+				if (overflow) {
+					return tooLong(recordLine);
+				}
+				if (fields.size() == 1 && fields.get(0).isBlank()) {
+					continue;
+				}
+				if (fields.size() != columns.size()) {
+					return failed(recordLine, "line", "Expected " + columns.size() + " fields but found " + fields.size());
+				}
+				return toRecord(recordLine, fields);
+			}
+		}
+
+		private ImportRecord toRecord(long recordLine, List<String> fields) {
+			Map<String, String> errors = new HashMap<>();
+			TodoDto todoDto = new TodoDto();
+			todoDto.setTitle(field(fields, "title"));
+			todoDto.setDescription(field(fields, "description"));
+
+			String targetDate = field(fields, "targetDate");
+			try {
+				todoDto.setTargetDate(targetDate == null ? null : LocalDate.parse(targetDate.trim()));
+			} catch (RuntimeException e) {
+				errors.put("targetDate", e.getMessage());
+			}
+			String priority = field(fields, "priority");
+			try {
+				todoDto.setPriority(priority == null ? 0 : Integer.parseInt(priority.trim()));
+			} catch (NumberFormatException e) {
+				errors.put("priority", e.getMessage());
+			}
+
+			return errors.isEmpty() ? new ImportRecord(recordLine, todoDto, null) : new ImportRecord(recordLine, null, errors);
+		}
+
+		// empty cells are missing values, so @NotNull/@NotEmpty report them
+		private String field(List<String> fields, String column) {
+			String value = fields.get(columns.get(column));
+			return value.isEmpty() ? null : value;
+		}
+
+		/** @return the fields of the next record, or {@code null} at the end of the body */
+		private List<String> readRecord() throws IOException {
+			int c = reader.read();
+			if (c == -1) {
+				return null;
+			}
+
+			List<String> fields = new ArrayList<>();
+			StringBuilder field = new StringBuilder();
+			boolean quoted = false;
+			int length = 0;
+			overflow = false;
+
+			// past maxRecordLength only the quoting and line breaks are tracked, to find the record's end
+			while (c != -1) {
+				boolean keep = ++length <= maxRecordLength;
+				overflow |= !keep;
+
+				if (quoted) {
+					if (c == '"') {
+						int next = reader.read();
+						if (next != '"') {
+							quoted = false;
+							c = next;
+							continue;
+						}
+					} else if (c == '\n') {
+						line++;
+					}
+					if (keep) {
+						field.append((char) c);
+					}
+				} else if (c == '"') {
+					quoted = true;
+				} else if (c == ',') {
+					if (keep) {
+						fields.add(field.toString());
+						field.setLength(0);
+					}
+				} else if (c == '\n') {
+					line++;
+					break;
+				} else if (c != '\r' && keep) {
+					field.append((char) c);
+				}
+				c = reader.read();
+			}
+
+			fields.add(field.toString());
+			return fields;
+		}
+	}
+}
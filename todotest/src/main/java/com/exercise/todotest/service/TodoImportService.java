@@ -0,0 +1,142 @@
+package com.exercise.todotest.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.exercise.todotest.dto.ImportResultDto;
+import com.exercise.todotest.dto.ImportSummaryDto;
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.enums.ExportFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Imports a body in an {@link ExportFormat} while it is still being read.
+ *
+ * Records are validated like {@code POST /todo} and committed every
+ * {@code chunkSize} records through {@link TodoService#createTodos}, one
+ * transaction per chunk, so a chunk that fails leaves the earlier ones in
+ * place. One NDJSON result per record is written back, in input order, as
+ * soon as its chunk is done, followed by an {@link ImportSummaryDto}.
+ */
+@Service
+public class TodoImportService {
+	@Autowired
+	TodoService todoService;
+
+	@Autowired
+	Validator validator;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Value("${todo.import.chunk-size:1000}")
+	int chunkSize;
+
+	@Value("${todo.import.max-record-length:65536}")
+	int maxRecordLength;
+
+	public ImportSummaryDto importTodos(ExportFormat format, Charset charset, InputStream inputStream,
+			OutputStream outputStream) throws IOException {
+		ObjectWriter resultWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+		generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		generator.setRootValueSeparator(null);
+
+		int recordsPerChunk = Math.max(1, chunkSize);
+		List<ImportResultDto> results = new ArrayList<>(recordsPerChunk);
+		List<TodoDto> todos = new ArrayList<>(recordsPerChunk);
+		List<ImportResultDto> todoResults = new ArrayList<>(recordsPerChunk);
+		ImportSummaryDto summary = new ImportSummaryDto();
+
+		try (TodoImportReader reader = TodoImportReader.of(format, objectMapper,
+				new BufferedReader(new InputStreamReader(inputStream, charset)), maxRecordLength)) {
+			TodoImportReader.ImportRecord importRecord;
+			while ((importRecord = reader.next()) != null) {
+				ImportResultDto result = new ImportResultDto(importRecord.line(), null, importRecord.errors());
+				if (importRecord.todo() != null) {
+					result.setErrors(validate(importRecord.todo()));
+				}
+				if (result.getErrors() == null) {
+					todos.add(importRecord.todo());
+					todoResults.add(result);
+				}
+				results.add(result);
+
+				// counted in records rather than valid todos, so a run of bad records is reported too
+				if (results.size() >= recordsPerChunk) {
+					commitChunk(todos, todoResults);
+					writeResults(generator, resultWriter, results, summary);
+				}
+			}
+		}
+
+		commitChunk(todos, todoResults);
+		writeResults(generator, resultWriter, results, summary);
+		resultWriter.writeValue(generator, summary);
+		generator.writeRaw('\n');
+		generator.flush();
+		return summary;
+	}
+
+	private Map<String, String> validate(TodoDto todoDto) {
+		Set<ConstraintViolation<TodoDto>> violations = validator.validate(todoDto);
+		if (violations.isEmpty()) {
+			return null;
+		}
+		Map<String, String> errorsMap = new HashMap<>();
+		violations.forEach(violation -> errorsMap.put(violation.getPropertyPath().toString(), violation.getMessage()));
+		return errorsMap;
+	}
+
+	private void commitChunk(List<TodoDto> todos, List<ImportResultDto> todoResults) {
+		if (todos.isEmpty()) {
+			return;
+		}
+
+		try {
+			List<Integer> ids = todoService.createTodos(todos);
+			for (int index = 0; index < ids.size(); index++) {
+				todoResults.get(index).setId(ids.get(index));
+			}
+		} catch (RuntimeException e) {
+			Map<String, String> errorsMap = Map.of("chunk", String.valueOf(e.getMessage()));
+			todoResults.forEach(result -> result.setErrors(errorsMap));
+		}
+		todos.clear();
+		todoResults.clear();
+	}
+
+	private void writeResults(JsonGenerator generator, ObjectWriter resultWriter, List<ImportResultDto> results,
+			ImportSummaryDto summary) throws IOException {
+		for (ImportResultDto result : results) {
+			if (result.getId() != null) {
+				summary.setCreated(summary.getCreated() + 1);
+			} else {
+				summary.setFailed(summary.getFailed() + 1);
+			}
+			resultWriter.writeValue(generator, result);
+			generator.writeRaw('\n');
+		}
+		results.clear();
+		generator.flush();
+	}
+}
@@ -0,0 +1,119 @@
+package com.exercise.todotest.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.exercise.todotest.enums.TodoField;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Cache of serialized {@code GET /todo} pages, capped by their size in bytes.
+ *
+ * Every entry records the write generation it was loaded under and is only
+ * served while that generation is current, so a write invalidates all pages
+ * by bumping one counter instead of walking the keys. Stale entries are left
+ * for the weight cap and TTL to evict.
+ */
+@Component
+public class TodoPageCache {
+	public record Key(int page, int size, TodoField sortfield, Sort.Direction sortorder, TodoFilter filter) {
+	}
+
+	public record CachedPage(byte[] body, String etag, long generation) {
+	}
+
+	private final boolean enabled;
+	private final Cache<Key, CachedPage> pages;
+	private final AtomicLong generation = new AtomicLong();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	public TodoPageCache(@Value("${todo.page-cache.enabled:true}") boolean enabled,
+			@Value("${todo.page-cache.maximum-weight-bytes:8388608}") long maximumWeightBytes,
+			@Value("${todo.page-cache.ttl:PT10M}") Duration ttl) {
+		this.enabled = enabled;
+		this.pages = Caffeine.newBuilder()
+				.maximumWeight(maximumWeightBytes)
+				.weigher((Key key, CachedPage page) -> page.body().length + page.etag().length())
+				.expireAfterWrite(ttl)
+				.recordStats()
+				.build();
+	}
+
+	public CachedPage get(Key key) {
+		if (!enabled) {
+			return null;
+		}
+
+		// Caffeine's own hit count would include entries from older generations
+		CachedPage cachedPage = pages.getIfPresent(key);
+		if (cachedPage == null || cachedPage.generation() != generation.get()) {
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		return cachedPage;
+	}
+
+	/** Generation to take before loading from the database, see {@link #putLoaded}. */
+	public long generation() {
+		return generation.get();
+	}
+
+	/**
+	 * Builds the entry for a page loaded under {@code loadedGeneration}. It is
+	 * only cached if no write happened since, but is returned either way.
+	 */
+	public CachedPage putLoaded(Key key, byte[] body, String etag, long loadedGeneration) {
+		CachedPage cachedPage = new CachedPage(body, etag, loadedGeneration);
+		if (enabled && loadedGeneration == generation.get()) {
+			pages.put(key, cachedPage);
+		}
+		return cachedPage;
+	}
+
+	/**
+	 * Called by every write. Bumps the generation now, so pages loaded during
+	 * the transaction aren't cached, and again once it completes, so pages
+	 * read before the commit became visible are dropped.
+	 */
+	public void invalidateAll() {
+		generation.incrementAndGet();
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				generation.incrementAndGet();
+			}
+		});
+	}
+
+	public Map<String, Object> stats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("enabled", enabled);
+		stats.put("generation", generation.get());
+		stats.put("size", pages.estimatedSize());
+		stats.put("weightBytes", pages.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L));
+		stats.put("hitCount", hits.sum());
+		stats.put("missCount", misses.sum());
+		stats.put("evictionCount", pages.stats().evictionCount());
+		return stats;
+	}
+
+	public Cache<Key, CachedPage> getPages() {
+		return pages;
+	}
+}
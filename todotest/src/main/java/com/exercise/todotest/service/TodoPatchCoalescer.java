@@ -0,0 +1,168 @@
+package com.exercise.todotest.service;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
+
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.enums.TodoField;
+
+/**
+ * Merges unconditional {@code PATCH /todo/{id}} requests to the same todo that
+ * arrive within {@code window} into one {@code UPDATE}, for clients such as
+ * the edit modal that send a burst of small patches. Off unless
+ * {@code todo.patch.coalesce-window} is set.
+ *
+ * The first patch to an id opens a batch and waits out the window; later
+ * patches join it, each field keeping the value of the last patch that set
+ * it. The batch is then applied through {@link TodoService#applyChanges} and
+ * every caller gets the merged result, or the same error. Batches for an id
+ * are applied one after another, in the order they were opened, so a later
+ * batch never lands before an earlier one.
+ *
+ * Each body is parsed before it joins, so an invalid patch fails alone. The
+ * bookkeeping is split over {@code stripes} locks by id, each guarding its
+ * own maps, so patches to ids on different stripes share nothing.
+ */
+@Component
+public class TodoPatchCoalescer {
+	@Autowired
+	TodoService todoService;
+
+	private final Duration window;
+	private final Stripe[] stripes;
+
+	public TodoPatchCoalescer(@Value("${todo.patch.coalesce-window:PT0S}") Duration window,
+			@Value("${todo.patch.coalesce-stripes:64}") int stripes) {
+		this.window = window;
+		this.stripes = new Stripe[Integer.highestOneBit(Math.max(1, stripes - 1)) << 1];
+		for (int i = 0; i < this.stripes.length; i++) {
+			this.stripes[i] = new Stripe();
+		}
+	}
+
+	public boolean isEnabled() {
+		return !window.isZero();
+	}
+
+	/**
+	 * @return the merged todo, or {@code null} when no caller of the batch
+	 *         asked for a body
+	 */
+	public TodoDto patch(int id, Map<String, ?> todo, boolean returnBody) throws NoResourceFoundException {
+		Map<TodoField, Object> changes = TodoPatches.parse(todo);
+		if (changes.isEmpty()) {
+			return todoService.applyChanges(id, changes, returnBody, null);
+		}
+
+		Stripe stripe = stripes[Integer.hashCode(id) & (stripes.length - 1)];
+		Batch batch;
+		boolean leader = false;
+		stripe.lock.lock();
+		try {
+			batch = stripe.open.get(id);
+			if (batch == null) {
+				batch = new Batch(stripe.last.get(id));
+				stripe.open.put(id, batch);
+				stripe.last.put(id, batch);
+				leader = true;
+			}
+			batch.changes.putAll(changes);
+			batch.returnBody |= returnBody;
+		} finally {
+			stripe.lock.unlock();
+		}
+
+		if (leader) {
+			apply(id, stripe, batch);
+		}
+		return await(batch);
+	}
+
+	private void apply(int id, Stripe stripe, Batch batch) {
+		// an interrupt only cuts the window short: the previous batch is still awaited, and the
+		// flag is restored once this one is applied so it can't fail the update halfway
+		boolean interrupted = false;
+		try {
+			Thread.sleep(window);
+		} catch (InterruptedException e) {
+			interrupted = true;
+		}
+		if (batch.previous != null) {
+			// its outcome is its callers' concern, only its order matters here
+			batch.previous.result.exceptionally(e -> null).join();
+			batch.previous = null;
+		}
+
+		stripe.lock.lock();
+		try {
+			stripe.open.remove(id, batch);
+		} finally {
+			stripe.lock.unlock();
+		}
+
+		try {
+			batch.result.complete(todoService.applyChanges(id, batch.changes, batch.returnBody, null));
+		} catch (Throwable e) {
+			// waiting callers must never be left hanging
+			batch.result.completeExceptionally(e);
+			if (e instanceof Error error) {
+				throw error;
+			}
+		} finally {
+			stripe.lock.lock();
+			try {
+				stripe.last.remove(id, batch);
+			} finally {
+				stripe.lock.unlock();
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private static TodoDto await(Batch batch) throws NoResourceFoundException {
+		try {
+			return batch.result.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof NoResourceFoundException notFound) {
+				throw notFound;
+			}
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (e.getCause() instanceof Error error) {
+				throw error;
+			}
+			throw e;
+		}
+	}
+
+	private static final class Stripe {
+		final ReentrantLock lock = new ReentrantLock();
+		// the batch still accepting patches, and the latest one not yet applied, per id
+		final Map<Integer, Batch> open = new HashMap<>();
+		final Map<Integer, Batch> last = new HashMap<>();
+	}
+
+	private static final class Batch {
+		Batch previous;
+		final Map<TodoField, Object> changes = new EnumMap<>(TodoField.class);
+		final CompletableFuture<TodoDto> result = new CompletableFuture<>();
+		boolean returnBody;
+
+		Batch(Batch previous) {
+			this.previous = previous;
+		}
+	}
+}
@@ -0,0 +1,484 @@
+package com.exercise.todotest.service;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.enums.TodoField;
+
+/**
+ * In-memory inverted index over the title and description of every todo.
+ *
+ * Each term maps to the ids containing it, kept sorted so a query intersects
+ * its terms' lists by galloping through them, and a todo's own terms are kept
+ * too so an update or delete only touches the lists it was in. Results are
+ * ranked with BM25's term saturation, title hits weighing more than
+ * description hits, and only the top {@code offset + limit} are ever sorted.
+ *
+ * Writes from {@link TodoService} are applied once their transaction
+ * commits, like {@link TodoCache}. Each one takes a stamp right after its
+ * statement, while it holds the row lock, so stamps follow the commit order
+ * of the writes to a todo; a write whose hook runs after a later one's was
+ * applied is dropped. Deleted ids keep their stamp until no earlier write is
+ * still pending, so a late update can't bring them back.
+ */
+@Component
+public class TodoSearchIndex {
+	public record Hits(List<Integer> ids, long total) {
+	}
+
+	private record Document(int[] titleTerms, int[] descriptionTerms, long stamp) {
+	}
+
+	private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+	private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+	private static final int TITLE_WEIGHT = 3;
+	private static final double K1 = 1.2;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<String, Integer> termIds = new HashMap<>();
+	private final List<Postings> postings = new ArrayList<>();
+	// ids of terms whose postings emptied, reused for new terms
+	private final Deque<Integer> freeTermIds = new ArrayDeque<>();
+	private final Map<Integer, Document> documents = new HashMap<>();
+	private final Map<Integer, Long> tombstones = new HashMap<>();
+	private final AtomicLong writeStamp = new AtomicLong();
+	private final NavigableSet<Long> pendingStamps = new ConcurrentSkipListSet<>();
+
+	/** Lower-cased words with accents stripped, so "Reunião" matches "reuniao". */
+	public static List<String> tokenize(String text) {
+		if (text == null || text.isBlank()) {
+			return List.of();
+		}
+
+		String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+				.toLowerCase(Locale.ROOT);
+		return Arrays.stream(SEPARATORS.split(folded)).filter(token -> !token.isEmpty()).toList();
+	}
+
+	/** The todo was written with its title and description known: index them once committed. */
+	public void refresh(TodoDto todoDto) {
+		int id = todoDto.getId();
+		String title = todoDto.getTitle();
+		String description = todoDto.getDescription();
+		afterCommit(stamp -> {
+			lock.writeLock().lock();
+			try {
+				if (!isStale(id, stamp)) {
+					put(id, stamp, termIdsOf(title), termIdsOf(description));
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+		});
+	}
+
+	/** Re-indexes whichever of the title and description a partial update changed, once committed. */
+	public void refresh(int id, Map<TodoField, ?> changes) {
+		if (!changes.containsKey(TodoField.TITLE) && !changes.containsKey(TodoField.DESCRIPTION)) {
+			return;
+		}
+
+		boolean titleChanged = changes.containsKey(TodoField.TITLE);
+		boolean descriptionChanged = changes.containsKey(TodoField.DESCRIPTION);
+		String title = (String) changes.get(TodoField.TITLE);
+		String description = (String) changes.get(TodoField.DESCRIPTION);
+		afterCommit(stamp -> {
+			lock.writeLock().lock();
+			try {
+				// the update matched a row, so it is indexed unless it was deleted since
+				Document current = documents.get(id);
+				if (current == null || isStale(id, stamp)) {
+					return;
+				}
+				put(id, stamp, titleChanged ? termIdsOf(title) : current.titleTerms(),
+						descriptionChanged ? termIdsOf(description) : current.descriptionTerms());
+			} finally {
+				lock.writeLock().unlock();
+			}
+		});
+	}
+
+	public void remove(int id) {
+		afterCommit(stamp -> {
+			lock.writeLock().lock();
+			try {
+				if (!isStale(id, stamp)) {
+					put(id, stamp, null, null);
+					tombstones.put(id, stamp);
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+		});
+	}
+
+	/**
+	 * Indexes a todo right away, replacing what was indexed for its id unless
+	 * a committed write to it was applied since the index was cleared.
+	 */
+	public void index(int id, String title, String description) {
+		lock.writeLock().lock();
+		try {
+			if (!isStale(id, 0)) {
+				put(id, 0, termIdsOf(title), termIdsOf(description));
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void clear() {
+		lock.writeLock().lock();
+		try {
+			termIds.clear();
+			postings.clear();
+			freeTermIds.clear();
+			documents.clear();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return documents.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/** Distinct terms in the indexed todos. */
+	public int termCount() {
+		lock.readLock().lock();
+		try {
+			return termIds.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Todos containing every term of {@code query}, best match first and by
+	 * id among equal scores.
+	 *
+	 * @return the ids from {@code offset} on, at most {@code limit} of them,
+	 *         and how many todos matched in total
+	 */
+	public Hits search(String query, long offset, int limit) {
+		Set<String> tokens = new LinkedHashSet<>(tokenize(query));
+		if (tokens.isEmpty()) {
+			return new Hits(List.of(), 0);
+		}
+
+		lock.readLock().lock();
+		try {
+			Postings[] lists = new Postings[tokens.size()];
+			int index = 0;
+			for (String token : tokens) {
+				Integer termId = termIds.get(token);
+				if (termId == null || postings.get(termId).size == 0) {
+					return new Hits(List.of(), 0);
+				}
+				lists[index++] = postings.get(termId);
+			}
+			// the rarest term drives the intersection and bounds the number of candidates
+			Arrays.sort(lists, (left, right) -> Integer.compare(left.size, right.size));
+
+			double[] idfs = new double[lists.length];
+			for (int i = 0; i < lists.length; i++) {
+				idfs[i] = Math.log(1 + (documents.size() - lists[i].size + 0.5) / (lists[i].size + 0.5));
+			}
+
+			TopHits topHits = new TopHits((int) Math.min(offset + limit, lists[0].size));
+			int[] cursors = new int[lists.length];
+			long total = 0;
+
+			candidates:
+			for (int candidate = 0; candidate < lists[0].size; candidate++) {
+				int id = lists[0].ids[candidate];
+				double score = idfs[0] * saturate(lists[0].weights[candidate]);
+				for (int i = 1; i < lists.length; i++) {
+					int position = lists[i].seek(cursors[i], id);
+					cursors[i] = position;
+					if (position == lists[i].size) {
+						break candidates;
+					}
+					if (lists[i].ids[position] != id) {
+						continue candidates;
+					}
+					score += idfs[i] * saturate(lists[i].weights[position]);
+				}
+				total++;
+				topHits.offer(id, score);
+			}
+
+			List<Integer> ranked = topHits.ranked();
+			List<Integer> ids = offset >= ranked.size() ? List.of() : ranked.subList((int) offset, ranked.size());
+			return new Hits(ids, total);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private static double saturate(int weight) {
+		return weight * (K1 + 1) / (weight + K1);
+	}
+
+	/** Stamps the write and applies it once committed. */
+	private void afterCommit(LongConsumer apply) {
+		long stamp = writeStamp.incrementAndGet();
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			apply.accept(stamp);
+			pruneTombstones();
+			return;
+		}
+
+		pendingStamps.add(stamp);
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				apply.accept(stamp);
+			}
+
+			@Override
+			public void afterCompletion(int status) {
+				pendingStamps.remove(stamp);
+				pruneTombstones();
+			}
+		});
+	}
+
+	// callers hold the write lock
+	private boolean isStale(int id, long stamp) {
+		Document current = documents.get(id);
+		return stamp < (current != null ? current.stamp() : tombstones.getOrDefault(id, 0L));
+	}
+
+	/** Forgets the deletes that no pending write is older than. */
+	private void pruneTombstones() {
+		lock.writeLock().lock();
+		try {
+			if (tombstones.isEmpty()) {
+				return;
+			}
+			Long oldestPending = pendingStamps.stream().findFirst().orElse(Long.MAX_VALUE);
+			tombstones.values().removeIf(stamp -> stamp < oldestPending);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// callers hold the write lock
+	private int[] termIdsOf(String text) {
+		List<String> tokens = tokenize(text);
+		int[] ids = new int[tokens.size()];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = termIds.computeIfAbsent(tokens.get(i), token -> {
+				Integer free = freeTermIds.poll();
+				if (free != null) {
+					postings.set(free, new Postings(token));
+					return free;
+				}
+				postings.add(new Postings(token));
+				return postings.size() - 1;
+			});
+		}
+		return ids;
+	}
+
+	/**
+	 * Replaces the todo's postings with the given terms; {@code null} terms
+	 * remove it. Terms left in no todo are dropped.
+	 */
+	private void put(int id, long stamp, int[] titleTerms, int[] descriptionTerms) {
+		Document previous = documents.remove(id);
+		Map<Integer, Integer> weights = Map.of();
+		if (titleTerms != null) {
+			Document document = new Document(titleTerms, descriptionTerms, stamp);
+			weights = weights(document);
+			weights.forEach((termId, weight) -> postings.get(termId).put(id, weight));
+			documents.put(id, document);
+		}
+		if (previous == null) {
+			return;
+		}
+
+		for (int termId : weights(previous).keySet()) {
+			if (weights.containsKey(termId)) {
+				continue;
+			}
+			Postings termPostings = postings.get(termId);
+			termPostings.remove(id);
+			if (termPostings.size == 0) {
+				termIds.remove(termPostings.term);
+				postings.set(termId, null);
+				freeTermIds.push(termId);
+			}
+		}
+	}
+
+	private static Map<Integer, Integer> weights(Document document) {
+		Map<Integer, Integer> weights = new HashMap<>();
+		for (int termId : document.titleTerms()) {
+			weights.merge(termId, TITLE_WEIGHT, Integer::sum);
+		}
+		for (int termId : document.descriptionTerms()) {
+			weights.merge(termId, 1, Integer::sum);
+		}
+		return weights;
+	}
+
+	/** Ids containing one term, ascending, with the term's weight in each. */
+	private static final class Postings {
+		private final String term;
+		private int[] ids = new int[4];
+		private short[] weights = new short[4];
+		private int size;
+
+		Postings(String term) {
+			this.term = term;
+		}
+
+		void put(int id, int weight) {
+			short clamped = (short) Math.min(weight, Short.MAX_VALUE);
+			// ids are mostly indexed in ascending order, so this is usually an append
+			int position = size > 0 && ids[size - 1] < id ? -size - 1 : Arrays.binarySearch(ids, 0, size, id);
+			if (position >= 0) {
+				weights[position] = clamped;
+				return;
+			}
+
+			position = -position - 1;
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+				weights = Arrays.copyOf(weights, size * 2);
+			}
+			System.arraycopy(ids, position, ids, position + 1, size - position);
+			System.arraycopy(weights, position, weights, position + 1, size - position);
+			ids[position] = id;
+			weights[position] = clamped;
+			size++;
+		}
+
+		void remove(int id) {
+			int position = Arrays.binarySearch(ids, 0, size, id);
+			if (position < 0) {
+				return;
+			}
+			System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+			System.arraycopy(weights, position + 1, weights, position, size - position - 1);
+			size--;
+		}
+
+		/** First position at or after {@code from} whose id is {@code >= id}, or {@code size}. */
+		int seek(int from, int id) {
+			int step = 1;
+			int low = from;
+			int high = from;
+			while (high < size && ids[high] < id) {
+				low = high + 1;
+				high += step;
+				step <<= 1;
+			}
+			int position = Arrays.binarySearch(ids, low, Math.min(high + 1, size), id);
+			return position >= 0 ? position : -position - 1;
+		}
+	}
+
+	/** Min-heap keeping the {@code capacity} best scored ids. */
+	private static final class TopHits {
+		private final int[] ids;
+		private final double[] scores;
+		private int size;
+
+		TopHits(int capacity) {
+			this.ids = new int[capacity];
+			this.scores = new double[capacity];
+		}
+
+		void offer(int id, double score) {
+			if (size < ids.length) {
+				ids[size] = id;
+				scores[size] = score;
+				siftUp(size++);
+			} else if (size > 0 && worse(ids[0], scores[0], id, score)) {
+				ids[0] = id;
+				scores[0] = score;
+				siftDown(0);
+			}
+		}
+
+		List<Integer> ranked() {
+			Integer[] order = new Integer[size];
+			for (int i = 0; i < size; i++) {
+				order[i] = i;
+			}
+			Arrays.sort(order, (left, right) -> worse(ids[left], scores[left], ids[right], scores[right]) ? 1
+					: worse(ids[right], scores[right], ids[left], scores[left]) ? -1 : 0);
+			return Arrays.stream(order).map(i -> ids[i]).toList();
+		}
+
+		// lower score first, and the higher id among equal scores
+		private static boolean worse(int id, double score, int otherId, double otherScore) {
+			return score < otherScore || (score == otherScore && id > otherId);
+		}
+
+		private void siftUp(int child) {
+			while (child > 0) {
+				int parent = (child - 1) / 2;
+				if (!worse(ids[child], scores[child], ids[parent], scores[parent])) {
+					return;
+				}
+				swap(child, parent);
+				child = parent;
+			}
+		}
+
+		private void siftDown(int parent) {
+			while (true) {
+				int worst = parent;
+				for (int child = 2 * parent + 1; child <= 2 * parent + 2 && child < size; child++) {
+					if (worse(ids[child], scores[child], ids[worst], scores[worst])) {
+						worst = child;
+					}
+				}
+				if (worst == parent) {
+					return;
+				}
+				swap(parent, worst);
+				parent = worst;
+			}
+		}
+
+		private void swap(int left, int right) {
+			int id = ids[left];
+			ids[left] = ids[right];
+			ids[right] = id;
+			double score = scores[left];
+			scores[left] = scores[right];
+			scores[right] = score;
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package com.exercise.todotest.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills {@link TodoSearchIndex} once every bean is ready but before the web
+ * server starts, so no write can race the initial scan.
+ */
+@Component
+public class TodoSearchIndexLoader implements SmartInitializingSingleton {
+	private static final Logger log = LoggerFactory.getLogger(TodoSearchIndexLoader.class);
+
+	@Autowired
+	TodoService todoService;
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		long start = System.nanoTime();
+		long indexed = todoService.rebuildSearchIndex();
+		log.info("Indexed {} todos for search in {} ms", indexed, (System.nanoTime() - start) / 1_000_000);
+	}
+}
@@ -1,146 +1,529 @@
 package com.exercise.todotest.service;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.servlet.resource.NoResourceFoundException;
 
+import com.exercise.todotest.config.ReplicaRoutingDataSource;
+import com.exercise.todotest.dto.CursorPageDto;
 import com.exercise.todotest.dto.TodoDto;
 import com.exercise.todotest.entity.Todo;
+import com.exercise.todotest.enums.ExportFormat;
+import com.exercise.todotest.enums.TodoEventType;
 import com.exercise.todotest.enums.TodoField;
+import com.exercise.todotest.exception.PreconditionFailedException;
+import com.exercise.todotest.mapper.TodoMapper;
 import com.exercise.todotest.repository.TodoRepository;
+import com.exercise.todotest.repository.TodoVersion;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
-import jakarta.validation.ValidationException;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
+// one timer per public method, tagged with its name; calls from within the class are not timed
 @Service
+@Timed("todo.service")
 public class TodoService {
 	@Autowired
 	TodoRepository todoRepository;
 
 	@Autowired
-	ModelMapper modelMapper;
+	TodoMapper todoMapper;
+
+	@Autowired
+	TodoCountCache todoCountCache;
+
+	@Autowired
+	TodoCache todoCache;
+
+	@Autowired
+	TodoPageCache todoPageCache;
+
+	@Autowired
+	TodoSearchIndex todoSearchIndex;
+
+	@Autowired
+	TodoEventBroadcaster todoEventBroadcaster;
+
+	@Autowired
+	TodoChangeLog todoChangeLog;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@PersistenceContext
+	EntityManager entityManager;
+
+	@Value("${todo.batch.jdbc-batch-size:50}")
+	int batchSize;
+
+	@Value("${todo.export.fetch-size:500}")
+	int exportFetchSize;
 
 	public boolean existsTodo(int id) {
 		return todoRepository.existsById(id);
 	}
 
+	@Transactional
 	public TodoDto createTodo(TodoDto todoDto) {
-		Todo convertedTodo = modelMapper.map(todoDto, Todo.class);
+		Todo convertedTodo = todoMapper.toEntity(todoDto);
 		Todo todo = todoRepository.save(convertedTodo);
-		TodoDto responseTodoDto = modelMapper.map(todo, TodoDto.class);
+		todoChangeLog.recordChanged(List.of(todo.getId()));
+		todoCountCache.adjust(1);
+		todoPageCache.invalidateAll();
+		TodoDto responseTodoDto = todoMapper.toDto(todo);
+		todoCache.refresh(responseTodoDto);
+		todoSearchIndex.refresh(responseTodoDto);
+		todoEventBroadcaster.publish(TodoEventType.CREATED, responseTodoDto.getId(), responseTodoDto);
 		return responseTodoDto;
 	}
 
+	/**
+	 * Inserts all todos in one transaction, flushing every {@code batchSize}
+	 * rows so Hibernate sends them as JDBC batches and the persistence context
+	 * stays small. Returns the generated ids in request order.
+	 */
+	@Transactional
+	public List<Integer> createTodos(List<TodoDto> todoDtos) {
+		List<Integer> ids = new ArrayList<>(todoDtos.size());
+		int chunkSize = Math.max(1, batchSize);
+
+		for (int from = 0; from < todoDtos.size(); from += chunkSize) {
+			List<Todo> chunk = new ArrayList<>(chunkSize);
+			for (TodoDto todoDto : todoDtos.subList(from, Math.min(from + chunkSize, todoDtos.size()))) {
+				Todo todo = todoMapper.toEntity(todoDto);
+				todo.setId(0);
+				chunk.add(todo);
+			}
+
+			todoRepository.saveAll(chunk);
+			entityManager.flush();
+			entityManager.clear();
+			todoChangeLog.recordChanged(chunk.stream().map(Todo::getId).toList());
+			chunk.forEach(todo -> {
+				TodoDto createdTodoDto = todoMapper.toDto(todo);
+				ids.add(todo.getId());
+				todoSearchIndex.refresh(createdTodoDto);
+				todoEventBroadcaster.publish(TodoEventType.CREATED, todo.getId(), createdTodoDto);
+			});
+		}
+
+		todoCountCache.adjust(ids.size());
+		todoCache.invalidateMissing();
+		todoPageCache.invalidateAll();
+		return ids;
+	}
+
 	public Page<TodoDto> getAllTodos(int page, int size, TodoField sortfield, Sort.Direction sortorder) {
-		Pageable pageableReq = PageRequest.of(page, size, Sort.by(sortorder, sortfield.getTodoField()));
-		Page<Todo> todosPagination = todoRepository.findAll(pageableReq);
+		return getAllTodos(page, size, sortfield, sortorder, TodoFilter.NONE);
+	}
+
+	/**
+	 * Rows are projected straight into {@link TodoDto} in a read-only
+	 * transaction: Hibernate skips the flush before the count and has no
+	 * entities to snapshot or map. The total may fill {@link TodoCountCache}
+	 * and the page {@link TodoPageCache}, so both are read from the primary.
+	 */
+	@Transactional(readOnly = true)
+	public Page<TodoDto> getAllTodos(int page, int size, TodoField sortfield, Sort.Direction sortorder,
+			TodoFilter filter) {
+		Pageable pageableReq = PageRequest.of(page, size, sortfield.sortBy(sortorder));
+		return ReplicaRoutingDataSource.readFromPrimary(() -> {
+			Slice<TodoDto> todoDtoSlice = findSlice(pageableReq, filter);
+			long total = countTodos(filter);
+
+			return new PageImpl<>(todoDtoSlice.getContent(), pageableReq, total);
+		});
+	}
+
+	/**
+	 * {@link #getAllTodos} already serialized, with its ETag. Repeated query
+	 * shapes are served from {@link TodoPageCache} until the next write,
+	 * skipping both the queries and Jackson.
+	 */
+	public TodoPageCache.CachedPage getAllTodosSerialized(int page, int size, TodoField sortfield,
+			Sort.Direction sortorder) {
+		return getAllTodosSerialized(page, size, sortfield, sortorder, TodoFilter.NONE);
+	}
+
+	// getAllTodos is called on this, past the proxy, so the transaction has to start here
+	@Transactional(readOnly = true)
+	public TodoPageCache.CachedPage getAllTodosSerialized(int page, int size, TodoField sortfield,
+			Sort.Direction sortorder, TodoFilter filter) {
+		TodoPageCache.Key key = new TodoPageCache.Key(page, size, sortfield, sortorder, filter);
+		TodoPageCache.CachedPage cachedPage = todoPageCache.get(key);
+		if (cachedPage != null) {
+			return cachedPage;
+		}
+
+		long generation = todoPageCache.generation();
+		Page<TodoDto> todoDtoPage = getAllTodos(page, size, sortfield, sortorder, filter);
+		String etag = TodoETags.forPage(todoDtoPage.getTotalElements(), todoDtoPage.getContent());
+		try {
+			return todoPageCache.putLoaded(key, objectMapper.writeValueAsBytes(todoDtoPage), etag, generation);
+		} catch (JsonProcessingException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	public Slice<TodoDto> getTodosSlice(int page, int size, TodoField sortfield, Sort.Direction sortorder) {
+		return getTodosSlice(page, size, sortfield, sortorder, TodoFilter.NONE);
+	}
 
-		Page<TodoDto> todoDtoPagination = todosPagination.map(todo -> modelMapper.map(todo, TodoDto.class));
-		return todoDtoPagination;
+	@Transactional(readOnly = true)
+	public Slice<TodoDto> getTodosSlice(int page, int size, TodoField sortfield, Sort.Direction sortorder,
+			TodoFilter filter) {
+		Pageable pageableReq = PageRequest.of(page, size, sortfield.sortBy(sortorder));
+		return findSlice(pageableReq, filter);
+	}
+
+	public CursorPageDto<TodoDto> getTodosByCursor(String cursor, int size, TodoField sortfield, Sort.Direction sortorder) {
+		return getTodosByCursor(cursor, size, sortfield, sortorder, TodoFilter.NONE);
+	}
+
+	/**
+	 * The cursor doesn't carry the filter: each request must repeat it. Keyset
+	 * scrolling needs entities to read the next position from, so they are
+	 * loaded read-only instead of projected. Sorts on a column that may be
+	 * null seek with {@link TodoCursor#toNullableSeek()}.
+	 */
+	@Transactional(readOnly = true)
+	public CursorPageDto<TodoDto> getTodosByCursor(String cursor, int size, TodoField sortfield, Sort.Direction sortorder,
+			TodoFilter filter) {
+		TodoCursor after = TodoCursor.forSort(cursor, sortfield, sortorder);
+		Specification<Todo> seek = after == null ? null : after.toNullableSeek();
+		Sort sort = sortfield.sortBy(sortorder);
+		Window<Todo> todosWindow;
+		if (seek != null) {
+			Specification<Todo> specification = filter.isEmpty() ? seek : seek.and(filter.toSpecification());
+			todosWindow = todoRepository.findBy(specification,
+					query -> query.sortBy(sort).limit(size).scroll(ScrollPosition.keyset()));
+		} else {
+			ScrollPosition position = after == null ? ScrollPosition.keyset() : after.toScrollPosition();
+			todosWindow = filter.isEmpty()
+					? todoRepository.findAllBy(position, sort, Limit.of(size))
+					: todoRepository.findBy(filter.toSpecification(), query -> query.sortBy(sort).limit(size).scroll(position));
+		}
+
+		List<TodoDto> todoDtos = todosWindow.getContent().stream().map(todoMapper::toDto).toList();
+		String nextCursor = null;
+		if (todosWindow.hasNext() && !todosWindow.isEmpty()) {
+			Todo lastTodo = todosWindow.getContent().get(todosWindow.size() - 1);
+			nextCursor = TodoCursor.after(lastTodo, sortfield, sortorder).encode();
+		}
+
+		return new CursorPageDto<>(todoDtos, nextCursor);
+	}
+
+	/**
+	 * Streams every todo in {@code sortfield} order into {@code outputStream}.
+	 * Rows come from a forward-only cursor in a read-only transaction and the
+	 * persistence context is cleared after each fetch, so memory use doesn't
+	 * grow with the table.
+	 *
+	 * @return the number of todos written
+	 */
+	@Transactional(readOnly = true)
+	public long exportTodos(ExportFormat format, TodoField sortfield, Sort.Direction sortorder,
+			OutputStream outputStream) throws IOException {
+		int fetchSize = Math.max(1, exportFetchSize);
+		long count = 0;
+
+		try (Stream<Todo> todos = todoRepository.streamAll(sortfield.sortBy(sortorder), fetchSize);
+				TodoExportWriter writer = TodoExportWriter.of(format, objectMapper, outputStream)) {
+			Iterator<Todo> iterator = todos.iterator();
+			while (iterator.hasNext()) {
+				writer.write(todoMapper.toDto(iterator.next()));
+				if (++count % fetchSize == 0) {
+					entityManager.clear();
+					writer.flush();
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Todos matching every word of {@code query} in their title or
+	 * description, best match first. Ranking comes from
+	 * {@link TodoSearchIndex}; only the rows of the requested page are read,
+	 * from {@link TodoCache} where possible and in one query otherwise.
+	 */
+	public Page<TodoDto> searchTodos(String query, int page, int size) {
+		Pageable pageableReq = PageRequest.of(page, size);
+		TodoSearchIndex.Hits hits = todoSearchIndex.search(query, pageableReq.getOffset(), size);
+
+		Map<Integer, TodoDto> todoDtos = new HashMap<>();
+		List<Integer> missingIds = new ArrayList<>();
+		for (int id : hits.ids()) {
+			TodoDto cachedTodoDto = todoCache.get(id);
+			if (cachedTodoDto != null) {
+				todoDtos.put(id, cachedTodoDto);
+			} else {
+				missingIds.add(id);
+			}
+		}
+		if (!missingIds.isEmpty()) {
+			long stamp = todoCache.stamp();
+			for (TodoDto todoDto : loadForCache(() -> todoRepository.findDtosByIdIn(missingIds))) {
+				todoCache.putLoaded(todoDto, stamp);
+				todoDtos.put(todoDto.getId(), todoDto);
+			}
+		}
+
+		// ids deleted since the index answered are left out
+		List<TodoDto> rankedTodoDtos = hits.ids().stream().map(todoDtos::get).filter(Objects::nonNull).toList();
+		return new PageImpl<>(rankedTodoDtos, pageableReq, hits.total());
+	}
+
+	/**
+	 * Re-indexes every todo for search with the same streaming scan as
+	 * {@link #exportTodos}.
+	 *
+	 * @return the number of todos indexed
+	 */
+	@Transactional(readOnly = true)
+	public long rebuildSearchIndex() {
+		int fetchSize = Math.max(1, exportFetchSize);
+		long count = 0;
+
+		todoSearchIndex.clear();
+		try (Stream<Todo> todos = todoRepository.streamAll(TodoField.ID.sortBy(Sort.Direction.ASC), fetchSize)) {
+			Iterator<Todo> iterator = todos.iterator();
+			while (iterator.hasNext()) {
+				Todo todo = iterator.next();
+				todoSearchIndex.index(todo.getId(), todo.getTitle(), todo.getDescription());
+				if (++count % fetchSize == 0) {
+					entityManager.clear();
+				}
+			}
+		}
+		return count;
 	}
 
 	public Todo getTodoById(int id) throws NoResourceFoundException {
 		Todo todo = todoRepository.findById(id)
-				.orElseThrow(() -> new NoResourceFoundException(null, "Todo with id '" + id + "'"));
+				.orElseThrow(() -> todoNotFound(id));
 		return todo;
 	}
 
 	public TodoDto getTodoDtoById(int id) throws NoResourceFoundException {
-		Todo todo = getTodoById(id);
-		TodoDto todoDto = modelMapper.map(todo, TodoDto.class);
+		TodoDto cachedTodoDto = todoCache.get(id);
+		if (cachedTodoDto != null) {
+			return cachedTodoDto;
+		}
+		if (todoCache.isMissing(id)) {
+			throw todoNotFound(id);
+		}
 
-		return todoDto;
+		long stamp = todoCache.stamp();
+		Optional<TodoDto> todoDto = loadForCache(() -> todoRepository.findDtoById(id));
+		if (todoDto.isEmpty()) {
+			todoCache.putLoadedMissing(id, stamp);
+			throw todoNotFound(id);
+		}
+
+		todoCache.putLoaded(todoDto.get(), stamp);
+
+		return todoDto.get();
 	}
 
+	@Transactional
 	public void removeTodoById(int id) throws NoResourceFoundException {
-		getTodoById(id);
-		todoRepository.deleteById(id);
+		removeTodoById(id, null);
+	}
+
+	/**
+	 * @param expectedVersion version from an {@code If-Match} header, or
+	 *                        {@code null} to delete whatever the current state is
+	 */
+	@Transactional
+	public void removeTodoById(int id, Long expectedVersion) throws NoResourceFoundException {
+		int deletedRows = expectedVersion == null ? todoRepository.deleteTodoById(id)
+				: todoRepository.deleteTodoById(id, expectedVersion);
+		if (deletedRows == 0) {
+			throwWriteMissed(id, expectedVersion);
+		}
+		todoChangeLog.recordDeleted(id);
+		todoCountCache.adjust(-1);
+		todoCache.remove(id);
+		todoSearchIndex.remove(id);
+		todoPageCache.invalidateAll();
+		todoEventBroadcaster.publish(TodoEventType.DELETED, id, null);
 		return;
 	}
 
+	@Transactional
 	public TodoDto fullUpdateTodo(int id, TodoDto todoDto) throws NoResourceFoundException {
-		Todo todoToUpdate = getTodoById(id);
+		return fullUpdateTodo(id, todoDto, null);
+	}
 
-		todoToUpdate.setTitle(todoDto.getTitle());
-		todoToUpdate.setDescription(todoDto.getDescription());
-		todoToUpdate.setTargetDate(todoDto.getTargetDate());
-		todoToUpdate.setPriority(todoDto.getPriority());
+	/**
+	 * Single {@code UPDATE ... WHERE id = ?}. Every column is overwritten, so
+	 * the response is built from the request instead of re-reading the row.
+	 * Without an expected version the new version isn't known, so the returned
+	 * todo carries none and the cached entry is dropped instead of refreshed.
+	 */
+	@Transactional
+	public TodoDto fullUpdateTodo(int id, TodoDto todoDto, Long expectedVersion) throws NoResourceFoundException {
+		int updatedRows = expectedVersion == null
+				? todoRepository.updateTodo(id, todoDto.getTitle(), todoDto.getDescription(), todoDto.getTargetDate(),
+						todoDto.getPriority())
+				: todoRepository.updateTodo(id, expectedVersion, todoDto.getTitle(), todoDto.getDescription(),
+						todoDto.getTargetDate(), todoDto.getPriority());
+		if (updatedRows == 0) {
+			throwWriteMissed(id, expectedVersion);
+		}
+		todoChangeLog.recordChanged(List.of(id));
 
-		Todo savedTodo = todoRepository.save(todoToUpdate);
-		TodoDto convertedTodo = modelMapper.map(savedTodo, TodoDto.class);
+		TodoDto convertedTodo = new TodoDto(id, todoDto.getTitle(), todoDto.getDescription(), todoDto.getTargetDate(),
+				todoDto.getPriority());
+		if (expectedVersion == null) {
+			todoCache.invalidate(id);
+		} else {
+			convertedTodo.setVersion(expectedVersion + 1);
+			todoCache.refresh(convertedTodo);
+		}
+		todoSearchIndex.refresh(convertedTodo);
+		todoCountCache.invalidateFiltered();
+		todoPageCache.invalidateAll();
+		todoEventBroadcaster.publish(TodoEventType.UPDATED, id, convertedTodo);
 
 		return convertedTodo;
 	}
 
+	@Transactional
 	public TodoDto partialUpdateTodo(int id, Map<String, ?> todo) throws NoResourceFoundException {
-		Todo todoToUpdate = getTodoById(id);
-
-		for (Entry<String, ?> entry : todo.entrySet()) {
-			todoToUpdate = partialUpdateSwitchCase(todoToUpdate, entry.getKey(), entry.getValue());
-		}
-		
-		Todo savedTodo = todoRepository.save(todoToUpdate);
-		TodoDto convertedTodo = modelMapper.map(savedTodo, TodoDto.class);
+		return partialUpdateTodo(id, todo, true, null);
+	}
 
-		return convertedTodo;
+	@Transactional
+	public TodoDto partialUpdateTodo(int id, Map<String, ?> todo, boolean returnBody) throws NoResourceFoundException {
+		return partialUpdateTodo(id, todo, returnBody, null);
 	}
 
-	private Todo partialUpdateSwitchCase(Todo todo, String key, Object value) {
-		DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+	/**
+	 * Updates only the columns present in {@code todo}. The row is re-read
+	 * afterwards only when {@code returnBody} is set, since the request alone
+	 * doesn't hold the untouched columns.
+	 *
+	 * @return the updated todo, or {@code null} when {@code returnBody} is false
+	 */
+	@Transactional
+	public TodoDto partialUpdateTodo(int id, Map<String, ?> todo, boolean returnBody, Long expectedVersion)
+			throws NoResourceFoundException {
+		return applyChanges(id, TodoPatches.parse(todo), returnBody, expectedVersion);
+	}
 
-		switch (key) {
-		case "title" -> {
-			if (value.toString().length() < 2 || value.toString().length() > 20) {
-				throw new ValidationException("'Title' must be between 2 and 20");
-			} else {
-				todo.setTitle(value.toString());
+	/** {@link #partialUpdateTodo} with the body already parsed by {@link TodoPatches}. */
+	@Transactional
+	public TodoDto applyChanges(int id, Map<TodoField, Object> changes, boolean returnBody, Long expectedVersion)
+			throws NoResourceFoundException {
+		if (changes.isEmpty()) {
+			TodoDto currentTodo = getTodoDtoById(id);
+			if (expectedVersion != null && currentTodo.getVersion() != expectedVersion) {
+				throwWriteMissed(id, expectedVersion);
 			}
-			break;
+			return returnBody ? currentTodo : null;
 		}
-		case "description" -> {
-			if (value.toString().length() < 10 || value.toString().length() > 200) {
-				throw new ValidationException("'Description' must be between 10 and 200");
-			} else {
-				todo.setDescription(value.toString());
-			}
-			break;
-		}
-		case "targetDate" -> {
-			try {
-				LocalDate date = LocalDate.parse(value.toString(), formatter);
 
-				if (date.isAfter(LocalDate.now())) {
-					todo.setTargetDate(date);
-				} else {
-					throw new ValidationException("'Target Date' must be in future");
-				}
-			} catch (Exception e) {
-				throw new ValidationException(e);
-			}
-			break;
+		if (todoRepository.updateFields(id, changes, expectedVersion) == 0) {
+			throwWriteMissed(id, expectedVersion);
 		}
-		case "priority" -> {
-			int priority = Integer.parseInt(value.toString());
+		todoChangeLog.recordChanged(List.of(id));
+		todoCache.invalidate(id);
+		todoSearchIndex.refresh(id, changes);
+		if (changes.containsKey(TodoField.PRIORITY) || changes.containsKey(TodoField.TARGETDATE)) {
+			todoCountCache.invalidateFiltered();
+		}
+		todoPageCache.invalidateAll();
 
-			if (priority < 1 || priority > 4) {
-				throw new ValidationException("'Priority' must be between 1 and 4");
-			} else {
-				todo.setPriority(priority);
-			}
-			break;
+		TodoDto updatedTodo = returnBody ? getTodoDtoById(id) : null;
+		todoEventBroadcaster.publish(TodoEventType.UPDATED, id, updatedTodo);
+		return updatedTodo;
+	}
+
+	/**
+	 * ETag of a page in {@link #getAllTodos} order, computed from the ids and
+	 * versions only, so conditional requests can be answered without mapping.
+	 */
+	public String getAllTodosETag(int page, int size, TodoField sortfield, Sort.Direction sortorder) {
+		return getAllTodosETag(page, size, sortfield, sortorder, TodoFilter.NONE);
+	}
+
+	@Transactional(readOnly = true)
+	public String getAllTodosETag(int page, int size, TodoField sortfield, Sort.Direction sortorder, TodoFilter filter) {
+		TodoPageCache.CachedPage cachedPage = todoPageCache.get(new TodoPageCache.Key(page, size, sortfield, sortorder, filter));
+		if (cachedPage != null) {
+			return cachedPage.etag();
 		}
-		default -> throw new IllegalArgumentException("Unexpected value: " + key);
+
+		// the total may fill TodoCountCache, as in getAllTodos
+		Pageable pageableReq = PageRequest.of(page, size, sortfield.sortBy(sortorder));
+		return ReplicaRoutingDataSource.readFromPrimary(() -> {
+			Slice<TodoVersion> versionsSlice = filter.isEmpty() ? todoRepository.findVersionsBy(pageableReq)
+					: todoRepository.findVersionSlice(filter.toSpecification(), pageableReq);
+			long total = countTodos(filter);
+
+			return TodoETags.forPageVersions(total, versionsSlice.getContent());
+		});
+	}
+
+	/** Reads from the primary what {@link TodoCache} will keep, see {@link ReplicaRoutingDataSource}. */
+	private <T> T loadForCache(Supplier<T> load) {
+		return todoCache.isEnabled() ? ReplicaRoutingDataSource.readFromPrimary(load) : load.get();
+	}
+
+	// unfiltered reads keep their declared query and the adjusted total
+	private Slice<TodoDto> findSlice(Pageable pageableReq, TodoFilter filter) {
+		return filter.isEmpty() ? todoRepository.findDtosBy(pageableReq)
+				: todoRepository.findDtoSlice(filter.toSpecification(), pageableReq);
+	}
+
+	private long countTodos(TodoFilter filter) {
+		return todoCountCache.getTotal(filter.key(),
+				filter.isEmpty() ? todoRepository::count : () -> todoRepository.count(filter.toSpecification()));
+	}
+
+	/**
+	 * A targeted write matched no row: either the id is gone, or it exists
+	 * with a different version than the caller expected.
+	 */
+	private void throwWriteMissed(int id, Long expectedVersion) throws NoResourceFoundException {
+		if (expectedVersion != null && todoRepository.existsById(id)) {
+			throw new PreconditionFailedException("Todo with id '" + id + "' is no longer at version " + expectedVersion);
 		}
+		throw todoNotFound(id);
+	}
 
-		return todo;
+	private NoResourceFoundException todoNotFound(int id) {
+		return new NoResourceFoundException(null, "Todo with id '" + id + "'");
 	}
 }
@@ -0,0 +1,15 @@
+package com.exercise.todotest.service;
+
+import java.util.Map;
+
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.enums.WriteOperationType;
+
+/**
+ * A mutation waiting in {@link TodoWriteQueue}, and its line in the journal.
+ * {@code todo} is set for updates and {@code patch}, the request body as
+ * sent, for patches.
+ */
+public record TodoWrite(String operationId, WriteOperationType type, int todoId, TodoDto todo, Map<String, Object> patch,
+		Long expectedVersion) {
+}
@@ -0,0 +1,121 @@
+package com.exercise.todotest.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Append-only local file of the writes {@link TodoWriteQueue} has accepted
+ * and not yet applied, so they survive a restart. Each accepted write is
+ * forced to disk before it is acknowledged; applied ones get a marker line,
+ * and once none are left the file is truncated, which keeps it short.
+ *
+ * Replay is at least once: a write applied just before a crash, without its
+ * marker, is applied again. A torn last line, from a crash mid-append, is
+ * skipped, as that write was never acknowledged.
+ */
+class TodoWriteJournal implements Closeable {
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	record Entry(TodoWrite write, List<String> applied) {
+	}
+
+	private final ObjectMapper objectMapper;
+	private final FileChannel channel;
+	private final List<TodoWrite> unapplied;
+	private long pending;
+
+	TodoWriteJournal(Path path, ObjectMapper objectMapper) throws IOException {
+		this.objectMapper = objectMapper;
+		this.unapplied = read(path, objectMapper);
+		this.pending = unapplied.size();
+		if (path.getParent() != null) {
+			Files.createDirectories(path.getParent());
+		}
+		this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.APPEND);
+	}
+
+	/** The writes accepted before the last shutdown and never marked applied, in acceptance order. */
+	List<TodoWrite> unapplied() {
+		return unapplied;
+	}
+
+	synchronized void append(TodoWrite write) throws IOException {
+		writeLine(new Entry(write, null));
+		channel.force(false);
+		pending++;
+	}
+
+	synchronized void markApplied(Collection<String> operationIds) throws IOException {
+		pending -= operationIds.size();
+		if (pending <= 0) {
+			pending = 0;
+			channel.truncate(0);
+		} else {
+			writeLine(new Entry(null, List.copyOf(operationIds)));
+		}
+		channel.force(false);
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		channel.close();
+	}
+
+	private void writeLine(Entry entry) throws IOException {
+		ByteBuffer line = ByteBuffer.wrap((objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8));
+		while (line.hasRemaining()) {
+			channel.write(line);
+		}
+	}
+
+	private static List<TodoWrite> read(Path path, ObjectMapper objectMapper) throws IOException {
+		if (!Files.exists(path)) {
+			return List.of();
+		}
+
+		Map<String, TodoWrite> writes = new LinkedHashMap<>();
+		Set<String> applied = new HashSet<>();
+		for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+			if (line.isBlank()) {
+				continue;
+			}
+			Entry entry;
+			try {
+				entry = objectMapper.readValue(line, Entry.class);
+			} catch (JsonProcessingException e) {
+				continue;
+			}
+			if (entry.write() != null) {
+				writes.put(entry.write().operationId(), entry.write());
+			}
+			if (entry.applied() != null) {
+				applied.addAll(entry.applied());
+			}
+		}
+
+		List<TodoWrite> unapplied = new ArrayList<>();
+		writes.forEach((operationId, write) -> {
+			if (!applied.contains(operationId)) {
+				unapplied.add(write);
+			}
+		});
+		return unapplied;
+	}
+}
@@ -0,0 +1,305 @@
+package com.exercise.todotest.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
+
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.dto.WriteOperationDto;
+import com.exercise.todotest.enums.WriteOperationStatus;
+import com.exercise.todotest.enums.WriteOperationType;
+import com.exercise.todotest.exception.PreconditionFailedException;
+import com.exercise.todotest.exception.WriteQueueFullException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Asynchronous mode for {@code DELETE}, {@code PUT} and {@code PATCH
+ * /todo/{id}}, off unless {@code todo.async-writes.enabled} is set.
+ *
+ * The request is validated and the todo's existence (and version, for
+ * {@code If-Match}) checked before the write is accepted, so those errors are
+ * still returned inline. Accepted writes go into a bounded queue, and through
+ * the journal first when {@code todo.async-writes.journal-path} is set; a
+ * full queue answers 503. A single writer thread drains the queue and applies
+ * up to {@code batch-size} writes per transaction, so a burst of writes costs
+ * a handful of commits. Writes to the same todo are applied in the order they
+ * were accepted.
+ *
+ * If any write of a batch fails, the batch is rolled back and its writes are
+ * applied one per transaction, so only the failing ones end up
+ * {@link WriteOperationStatus#FAILED}. Statuses are kept for
+ * {@code status-ttl} after the last change.
+ */
+@Component
+public class TodoWriteQueue implements SmartLifecycle, MeterBinder {
+	@Autowired
+	TodoService todoService;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	private final boolean enabled;
+	private final int batchSize;
+	private final String journalPath;
+	private final BlockingQueue<TodoWrite> queue;
+	private final Cache<String, WriteOperationDto> operations;
+
+	private TodoWriteJournal journal;
+	private TransactionTemplate transactionTemplate;
+	private Thread writer;
+	private volatile boolean running;
+	private volatile Counter commits;
+	private volatile DistributionSummary batchSizes;
+
+	public TodoWriteQueue(@Value("${todo.async-writes.enabled:false}") boolean enabled,
+			@Value("${todo.async-writes.queue-capacity:10000}") int queueCapacity,
+			@Value("${todo.async-writes.batch-size:100}") int batchSize,
+			@Value("${todo.async-writes.journal-path:}") String journalPath,
+			@Value("${todo.async-writes.status-ttl:PT10M}") Duration statusTtl) {
+		this.enabled = enabled;
+		this.batchSize = batchSize;
+		this.journalPath = journalPath;
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		this.operations = Caffeine.newBuilder().maximumSize(10L * queueCapacity).expireAfterWrite(statusTtl).build();
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public WriteOperationDto submitDelete(int id, Long expectedVersion) throws NoResourceFoundException {
+		checkCurrent(id, expectedVersion);
+		return submit(new TodoWrite(newOperationId(), WriteOperationType.DELETE, id, null, null, expectedVersion));
+	}
+
+	public WriteOperationDto submitUpdate(int id, TodoDto todoDto, Long expectedVersion) throws NoResourceFoundException {
+		checkCurrent(id, expectedVersion);
+		return submit(new TodoWrite(newOperationId(), WriteOperationType.UPDATE, id, todoDto, null, expectedVersion));
+	}
+
+	public WriteOperationDto submitPatch(int id, Map<String, ?> todo, Long expectedVersion) throws NoResourceFoundException {
+		TodoPatches.parse(todo);
+		checkCurrent(id, expectedVersion);
+		return submit(new TodoWrite(newOperationId(), WriteOperationType.PATCH, id, null, Map.copyOf(todo), expectedVersion));
+	}
+
+	public WriteOperationDto getOperation(String operationId) throws NoResourceFoundException {
+		WriteOperationDto operation = operations.getIfPresent(operationId);
+		if (operation == null) {
+			throw new NoResourceFoundException(null, "Operation with id '" + operationId + "'");
+		}
+		return operation;
+	}
+
+	@Override
+	public void start() {
+		if (!enabled) {
+			return;
+		}
+
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		List<TodoWrite> replayed = List.of();
+		if (!journalPath.isEmpty()) {
+			try {
+				journal = new TodoWriteJournal(Path.of(journalPath), objectMapper);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			replayed = journal.unapplied();
+			replayed.forEach(write -> setStatus(write, WriteOperationStatus.PENDING, null));
+		}
+
+		running = true;
+		List<TodoWrite> recovered = replayed;
+		writer = Thread.ofPlatform().name("todo-writer").daemon().start(() -> drain(recovered));
+	}
+
+	/** Waits for the writes already accepted to be applied. */
+	@Override
+	public void stop() {
+		if (writer == null) {
+			return;
+		}
+
+		running = false;
+		try {
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		writer = null;
+		if (journal != null) {
+			try {
+				journal.close();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	/** Stops after the web server, so nothing is accepted once the writer is gone. */
+	@Override
+	public int getPhase() {
+		return SmartLifecycle.DEFAULT_PHASE - 4096;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		registry.gauge("todo.writes.queued", queue, BlockingQueue::size);
+		commits = Counter.builder("todo.writes.commits").description("Transactions committed by the async writer")
+				.register(registry);
+		batchSizes = DistributionSummary.builder("todo.writes.batch.size").description("Writes per committed transaction")
+				.register(registry);
+	}
+
+	private void checkCurrent(int id, Long expectedVersion) throws NoResourceFoundException {
+		TodoDto current = todoService.getTodoDtoById(id);
+		if (expectedVersion != null && current.getVersion() != expectedVersion) {
+			throw new PreconditionFailedException("Todo with id '" + id + "' is no longer at version " + expectedVersion);
+		}
+	}
+
+	private WriteOperationDto submit(TodoWrite write) {
+		if (!running) {
+			throw new WriteQueueFullException("Writes are not being accepted");
+		}
+
+		WriteOperationDto operation = setStatus(write, WriteOperationStatus.PENDING, null);
+		try {
+			if (journal != null) {
+				journal.append(write);
+			}
+			if (!queue.offer(write)) {
+				if (journal != null) {
+					journal.markApplied(List.of(write.operationId()));
+				}
+				operations.invalidate(write.operationId());
+				throw new WriteQueueFullException("Write queue is full, retry later");
+			}
+		} catch (IOException e) {
+			operations.invalidate(write.operationId());
+			throw new UncheckedIOException(e);
+		}
+		return operation;
+	}
+
+	private void drain(List<TodoWrite> replayed) {
+		for (int from = 0; from < replayed.size(); from += batchSize) {
+			apply(replayed.subList(from, Math.min(from + batchSize, replayed.size())));
+		}
+
+		List<TodoWrite> batch = new ArrayList<>(batchSize);
+		while (running || !queue.isEmpty()) {
+			try {
+				TodoWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			queue.drainTo(batch, batchSize - 1);
+			apply(batch);
+			batch.clear();
+		}
+	}
+
+	// package-private for tests, which apply batches without going through the writer thread
+	void apply(List<TodoWrite> batch) {
+		try {
+			transactionTemplate.executeWithoutResult(status -> batch.forEach(this::applyOne));
+			committed(batch.size());
+			batch.forEach(write -> setStatus(write, WriteOperationStatus.APPLIED, null));
+		} catch (RuntimeException batchFailure) {
+			for (TodoWrite write : batch) {
+				try {
+					transactionTemplate.executeWithoutResult(status -> applyOne(write));
+					committed(1);
+					setStatus(write, WriteOperationStatus.APPLIED, null);
+				} catch (RuntimeException e) {
+					Throwable cause = e instanceof WriteFailedException ? e.getCause() : e;
+					setStatus(write, WriteOperationStatus.FAILED, cause.getMessage());
+				}
+			}
+		}
+
+		if (journal != null) {
+			try {
+				journal.markApplied(batch.stream().map(TodoWrite::operationId).toList());
+			} catch (IOException e) {
+				// replay is at least once, the worst outcome is applying these again
+			}
+		}
+	}
+
+	private void applyOne(TodoWrite write) {
+		try {
+			switch (write.type()) {
+			case DELETE -> todoService.removeTodoById(write.todoId(), write.expectedVersion());
+			case UPDATE -> todoService.fullUpdateTodo(write.todoId(), write.todo(), write.expectedVersion());
+			case PATCH -> todoService.partialUpdateTodo(write.todoId(), write.patch(), false, write.expectedVersion());
+			}
+		} catch (NoResourceFoundException e) {
+			throw new WriteFailedException(e);
+		}
+	}
+
+	private void committed(int writes) {
+		if (commits != null) {
+			commits.increment();
+			batchSizes.record(writes);
+		}
+	}
+
+	private WriteOperationDto setStatus(TodoWrite write, WriteOperationStatus status, String error) {
+		WriteOperationDto operation = new WriteOperationDto(write.operationId(), write.type(), write.todoId(), status, error);
+		operations.put(write.operationId(), operation);
+		return operation;
+	}
+
+	private static String newOperationId() {
+		return UUID.randomUUID().toString();
+	}
+
+	/** Carries a checked exception out of the transaction callback. */
+	private static final class WriteFailedException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		WriteFailedException(Throwable cause) {
+			super(cause);
+		}
+	}
+}
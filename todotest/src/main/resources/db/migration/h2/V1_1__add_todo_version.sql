@@ -0,0 +1,2 @@
+-- Optimistic locking; existing rows start at version 0
+ALTER TABLE todo ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,8 @@
+-- Ids come from todo_seq instead of the identity column. JpaConfig picks the
+-- pooled-lo optimizer, which hands out the 50 ids from each value it reads,
+-- so starting at MAX(id) + 1 makes that the first new id.
+ALTER TABLE todo ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE todo_seq START WITH 1 INCREMENT BY 50;
+
+ALTER SEQUENCE todo_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM todo);
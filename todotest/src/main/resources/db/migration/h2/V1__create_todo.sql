@@ -0,0 +1,10 @@
+-- Same schema Hibernate DDL used to generate for the Todo entity, so databases
+-- it created are baselined at this version
+CREATE TABLE todo (
+	id INTEGER GENERATED BY DEFAULT AS IDENTITY,
+	description VARCHAR(255),
+	priority INTEGER NOT NULL,
+	target_date DATE,
+	title VARCHAR(255),
+	PRIMARY KEY (id)
+);
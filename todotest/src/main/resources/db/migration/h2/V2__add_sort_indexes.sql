@@ -0,0 +1,15 @@
+-- One index per TodoField sort, ending in its id tiebreaker (see TodoField.sortBy).
+-- H2 can't read an index backwards, so descending sorts get their own.
+CREATE INDEX idx_todo_id_desc ON todo (id DESC);
+
+CREATE INDEX idx_todo_title_id ON todo (title, id);
+CREATE INDEX idx_todo_title_id_desc ON todo (title DESC, id DESC);
+
+CREATE INDEX idx_todo_description_id ON todo (description, id);
+CREATE INDEX idx_todo_description_id_desc ON todo (description DESC, id DESC);
+
+CREATE INDEX idx_todo_target_date_id ON todo (target_date, id);
+CREATE INDEX idx_todo_target_date_id_desc ON todo (target_date DESC, id DESC);
+
+CREATE INDEX idx_todo_priority_id ON todo (priority, id);
+CREATE INDEX idx_todo_priority_id_desc ON todo (priority DESC, id DESC);
@@ -0,0 +1,3 @@
+-- GET /todo filters: a priority list and a target date range together, or
+-- a single priority sorted by target date, read one index range
+CREATE INDEX idx_todo_priority_target_date_id ON todo (priority, target_date, id);
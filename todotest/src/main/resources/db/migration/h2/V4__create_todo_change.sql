@@ -0,0 +1,11 @@
+-- Change log read by GET /todo/changes: one row per write, in commit-ish order.
+-- The id is the change sequence, so pages are primary key ranges; changed_at drives compaction.
+CREATE TABLE todo_change (
+	id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+	todo_id INTEGER NOT NULL,
+	deleted BOOLEAN NOT NULL,
+	changed_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+	PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_todo_change_changed_at ON todo_change (changed_at);
@@ -0,0 +1,12 @@
+-- Change sequences come from this one-row counter, bumped by each write just
+-- before it commits. Its row lock hands them out in commit order, and a
+-- rollback takes its bump back, so the log has no gaps for a reader to skip.
+CREATE TABLE todo_change_counter (
+	id INTEGER NOT NULL,
+	last_id BIGINT NOT NULL,
+	PRIMARY KEY (id)
+);
+
+INSERT INTO todo_change_counter SELECT 1, COALESCE(MAX(id), 0) FROM todo_change;
+
+ALTER TABLE todo_change ALTER COLUMN id DROP IDENTITY;
@@ -0,0 +1,11 @@
+-- Ids come from todo_seq instead of AUTO_INCREMENT. MySQL has no sequences, so
+-- Hibernate emulates todo_seq with a one-row table. JpaConfig picks the
+-- pooled-lo optimizer, which hands out the 50 ids from each value it reads,
+-- so starting at MAX(id) + 1 makes that the first new id.
+ALTER TABLE todo MODIFY id INTEGER NOT NULL;
+
+CREATE TABLE todo_seq (
+	next_val BIGINT
+) ENGINE=InnoDB;
+
+INSERT INTO todo_seq SELECT COALESCE(MAX(id), 0) + 1 FROM todo;
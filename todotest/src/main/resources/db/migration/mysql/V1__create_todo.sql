@@ -0,0 +1,10 @@
+-- Same schema Hibernate DDL used to generate for the Todo entity, so databases
+-- it created are baselined at this version
+CREATE TABLE todo (
+	id INTEGER NOT NULL AUTO_INCREMENT,
+	description VARCHAR(255),
+	priority INTEGER NOT NULL,
+	target_date DATE,
+	title VARCHAR(255),
+	PRIMARY KEY (id)
+) ENGINE=InnoDB;
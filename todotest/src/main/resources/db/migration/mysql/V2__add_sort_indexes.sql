@@ -0,0 +1,6 @@
+-- One index per TodoField sort, ending in its id tiebreaker (see TodoField.sortBy).
+-- InnoDB reads them backwards for descending sorts, and ID sorts use the primary key.
+CREATE INDEX idx_todo_title_id ON todo (title, id);
+CREATE INDEX idx_todo_description_id ON todo (description, id);
+CREATE INDEX idx_todo_target_date_id ON todo (target_date, id);
+CREATE INDEX idx_todo_priority_id ON todo (priority, id);
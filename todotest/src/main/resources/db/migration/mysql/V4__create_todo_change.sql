@@ -0,0 +1,11 @@
+-- Change log read by GET /todo/changes: one row per write, in commit-ish order.
+-- The id is the change sequence, so pages are primary key ranges; changed_at drives compaction.
+CREATE TABLE todo_change (
+	id BIGINT NOT NULL AUTO_INCREMENT,
+	todo_id INTEGER NOT NULL,
+	deleted BIT NOT NULL,
+	changed_at DATETIME(6) NOT NULL,
+	PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_todo_change_changed_at ON todo_change (changed_at);
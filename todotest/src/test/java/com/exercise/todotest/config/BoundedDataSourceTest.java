@@ -0,0 +1,57 @@
+package com.exercise.todotest.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+class BoundedDataSourceTest {
+	DataSource targetDataSource = mock(DataSource.class);
+	BoundedDataSource boundedDataSource = new BoundedDataSource(targetDataSource, 1, Duration.ofMillis(50));
+
+	@Test
+	void getConnection_PermitsExhausted_Failure() throws SQLException {
+		when(targetDataSource.getConnection()).thenReturn(mock(Connection.class));
+
+		Connection connection = boundedDataSource.getConnection();
+
+		assertThat(boundedDataSource.getAvailablePermits()).isZero();
+		assertThrows(SQLTransientConnectionException.class, () -> boundedDataSource.getConnection());
+
+		connection.close();
+		assertThat(boundedDataSource.getAvailablePermits()).isEqualTo(1);
+	}
+
+	@Test
+	void close_Twice_ReleasesOnce() throws SQLException {
+		Connection targetConnection = mock(Connection.class);
+		when(targetDataSource.getConnection()).thenReturn(targetConnection);
+
+		Connection connection = boundedDataSource.getConnection();
+		connection.close();
+		connection.close();
+
+		verify(targetConnection, times(2)).close();
+		assertThat(boundedDataSource.getAvailablePermits()).isEqualTo(1);
+	}
+
+	@Test
+	void getConnection_TargetFails_ReleasesPermit() throws SQLException {
+		when(targetDataSource.getConnection()).thenThrow(new SQLException("down"));
+
+		assertThrows(SQLException.class, () -> boundedDataSource.getConnection());
+
+		assertThat(boundedDataSource.getAvailablePermits()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,40 @@
+package com.exercise.todotest.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsConfigTest {
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void prometheus_EveryLayerRecorded_Success() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo").param("sortfield", "PRIORITY"))
+				.andExpect(MockMvcResultMatchers.status().isOk());
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo/999999"))
+				.andExpect(MockMvcResultMatchers.status().isNotFound());
+
+		String scrape = mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		assertThat(scrape)
+				.containsPattern("http_server_requests_seconds_bucket\\{.*status=\"404\".*uri=\"/todo/\\{id\\}\"")
+				.containsPattern("todo_service_seconds_bucket\\{.*method=\"getAllTodosSerialized\"")
+				.containsPattern("todo_service_seconds_count\\{.*method=\"getTodoDtoById\"")
+				.containsPattern("todo_errors_total\\{exception=\"NoResourceFoundException\",status=\"404\"")
+				.contains("hibernate_query_executions_total", "hibernate_entities_loads_total", "hibernate_flushes_total")
+				.contains("hikaricp_connections_acquire_seconds_bucket", "hikaricp_connections_active");
+	}
+}
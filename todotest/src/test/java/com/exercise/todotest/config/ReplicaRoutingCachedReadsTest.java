@@ -0,0 +1,100 @@
+package com.exercise.todotest.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.exercise.todotest.dto.TodoDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.Cookie;
+
+/**
+ * {@link ReplicaRoutingConfigTest} with the caches on: whatever a read
+ * caches is then served to every client, so it must not come from a replica
+ * that hasn't seen the latest writes.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:cachedprimary;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"todo.datasource.replica-urls=" + ReplicaRoutingCachedReadsTest.REPLICA_URL })
+class ReplicaRoutingCachedReadsTest {
+	static final String REPLICA_URL = "jdbc:h2:mem:cachedreplica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@BeforeAll
+	static void migrateReplica() {
+		Flyway.configure().dataSource(REPLICA_URL, "sa", "").locations("classpath:db/migration/h2").load().migrate();
+	}
+
+	@Test
+	void getTodo_PatchedWhileReplicaLags_NewStateCachedForEveryone() throws Exception {
+		MvcResult created = mockMvc.perform(MockMvcRequestBuilders.post("/todo")
+				.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(newTodo("Old title"))))
+				.andExpect(MockMvcResultMatchers.status().isCreated())
+				.andReturn();
+		String location = created.getResponse().getRedirectedUrl();
+		TodoDto todo = objectMapper.readValue(created.getResponse().getContentAsString(), TodoDto.class);
+		// the replica got the insert but not the update that follows
+		new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", "")).update(
+				"INSERT INTO todo (id, title, description, target_date, priority, version) VALUES (?, ?, ?, ?, ?, 0)",
+				todo.getId(), "Old title", todo.getDescription(), todo.getTargetDate(), todo.getPriority());
+
+		MvcResult patched = mockMvc.perform(MockMvcRequestBuilders.patch(location).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"title\": \"New title\"}"))
+				.andExpect(MockMvcResultMatchers.status().isAccepted())
+				.andReturn();
+		Cookie readPrimaryUntil = patched.getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+
+		assertThat(title(mockMvc.perform(MockMvcRequestBuilders.get(location)))).isEqualTo("New title");
+		assertThat(title(mockMvc.perform(MockMvcRequestBuilders.get(location).cookie(readPrimaryUntil))))
+				.isEqualTo("New title");
+	}
+
+	@Test
+	void getTodo_BatchCreatedWhileReplicaLags_NotCachedAsMissing() throws Exception {
+		MvcResult created = mockMvc.perform(MockMvcRequestBuilders.post("/todo/batch")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(List.of(newTodo("Batched")))))
+				.andExpect(MockMvcResultMatchers.status().isCreated())
+				.andReturn();
+		int id = objectMapper.readValue(created.getResponse().getContentAsString(), int[].class)[0];
+		Cookie readPrimaryUntil = created.getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo/" + id))
+				.andExpect(MockMvcResultMatchers.status().isOk());
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo/" + id).cookie(readPrimaryUntil))
+				.andExpect(MockMvcResultMatchers.status().isOk());
+	}
+
+	private String title(ResultActions result) throws Exception {
+		String body = result.andExpect(MockMvcResultMatchers.status().isOk()).andReturn().getResponse().getContentAsString();
+		return objectMapper.readValue(body, TodoDto.class).getTitle();
+	}
+
+	private static TodoDto newTodo(String title) {
+		return new TodoDto(0, title, "Description test", LocalDate.now().plusDays(1), 1);
+	}
+}
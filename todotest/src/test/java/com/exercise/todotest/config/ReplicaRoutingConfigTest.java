@@ -0,0 +1,69 @@
+package com.exercise.todotest.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.exercise.todotest.dto.TodoDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.Cookie;
+
+/**
+ * Two independent H2 databases stand in for the primary and a replica that
+ * never catches up, so where a read went shows in whether it finds a todo
+ * just created.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:primary;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"todo.datasource.replica-urls=" + ReplicaRoutingConfigTest.REPLICA_URL,
+		"todo.datasource.replica-selection=least-connections",
+		"todo.cache.enabled=false" })
+class ReplicaRoutingConfigTest {
+	static final String REPLICA_URL = "jdbc:h2:mem:replica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@BeforeAll
+	static void migrateReplica() {
+		Flyway.configure().dataSource(REPLICA_URL, "sa", "").locations("classpath:db/migration/h2").load().migrate();
+	}
+
+	@Test
+	void getTodo_ReadsReplicaUnlessRecentlyWritten_Success() throws Exception {
+		TodoDto todoDto = new TodoDto(0, "Title test", "Description test", LocalDate.now().plusDays(1), 1);
+		MvcResult created = mockMvc.perform(MockMvcRequestBuilders.post("/todo")
+				.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(todoDto)))
+				.andExpect(MockMvcResultMatchers.status().isCreated())
+				.andReturn();
+		String location = created.getResponse().getRedirectedUrl();
+		Cookie readPrimaryUntil = created.getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+
+		assertThat(readPrimaryUntil).isNotNull();
+		mockMvc.perform(MockMvcRequestBuilders.get(location).cookie(readPrimaryUntil))
+				.andExpect(MockMvcResultMatchers.status().isOk());
+		mockMvc.perform(MockMvcRequestBuilders.get(location))
+				.andExpect(MockMvcResultMatchers.status().isNotFound());
+		mockMvc.perform(MockMvcRequestBuilders.get(location)
+				.cookie(new Cookie(ReadYourWritesFilter.COOKIE, Long.toString(Long.MAX_VALUE))))
+				.andExpect(MockMvcResultMatchers.status().isNotFound());
+	}
+}
@@ -0,0 +1,90 @@
+package com.exercise.todotest.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ReplicaRoutingDataSourceTest {
+	DataSource primary = mock(DataSource.class);
+	DataSource firstReplica = mock(DataSource.class);
+	DataSource secondReplica = mock(DataSource.class);
+
+	@AfterEach
+	void destroy() {
+		ReplicaRoutingDataSource.clearReadFromPrimary();
+	}
+
+	private ReplicaRoutingDataSource routingDataSource(ReplicaRoutingDataSource.Selection selection) throws SQLException {
+		when(primary.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+		when(firstReplica.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+		when(secondReplica.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+		ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primary,
+				List.of(firstReplica, secondReplica), selection);
+		// known defaults spare the probe connection to the primary
+		routingDataSource.setDefaultAutoCommit(true);
+		routingDataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+		return routingDataSource;
+	}
+
+	// the target is only fetched once a statement needs it, like inside a transaction
+	private Connection use(ReplicaRoutingDataSource routingDataSource, boolean readOnly) throws SQLException {
+		Connection connection = routingDataSource.getConnection();
+		connection.setReadOnly(readOnly);
+		connection.createStatement();
+		return connection;
+	}
+
+	@Test
+	void getConnection_ReadOnlyRoundRobin_Success() throws SQLException {
+		ReplicaRoutingDataSource routingDataSource = routingDataSource(ReplicaRoutingDataSource.Selection.ROUND_ROBIN);
+
+		use(routingDataSource, true).close();
+		use(routingDataSource, true).close();
+		use(routingDataSource, true).close();
+		use(routingDataSource, false).close();
+
+		verify(firstReplica, times(2)).getConnection();
+		verify(secondReplica, times(1)).getConnection();
+		verify(primary, times(1)).getConnection();
+	}
+
+	@Test
+	void getConnection_LeastConnections_Success() throws SQLException {
+		ReplicaRoutingDataSource routingDataSource = routingDataSource(ReplicaRoutingDataSource.Selection.LEAST_CONNECTIONS);
+
+		Connection held = use(routingDataSource, true);
+		use(routingDataSource, true).close();
+		use(routingDataSource, true);
+
+		verify(firstReplica, times(1)).getConnection();
+		verify(secondReplica, times(2)).getConnection();
+		assertThat(routingDataSource.getConnectionsInUse(0)).isEqualTo(1);
+		assertThat(routingDataSource.getConnectionsInUse(1)).isEqualTo(1);
+
+		held.close();
+		held.close();
+		assertThat(routingDataSource.getConnectionsInUse(0)).isZero();
+	}
+
+	@Test
+	void getConnection_ReadFromPrimary_Success() throws SQLException {
+		ReplicaRoutingDataSource routingDataSource = routingDataSource(ReplicaRoutingDataSource.Selection.ROUND_ROBIN);
+
+		ReplicaRoutingDataSource.readFromPrimary();
+		use(routingDataSource, true).close();
+
+		verify(primary, times(1)).getConnection();
+		verify(firstReplica, times(0)).getConnection();
+	}
+}
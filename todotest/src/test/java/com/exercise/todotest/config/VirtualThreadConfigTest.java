@@ -0,0 +1,54 @@
+package com.exercise.todotest.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.mock.env.MockEnvironment;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+class VirtualThreadConfigTest {
+	BeanPostProcessor boundedDataSourcePostProcessor = VirtualThreadConfig.boundedDataSourcePostProcessor(0,
+			Duration.ofSeconds(1));
+
+	@Test
+	void postProcess_ReplicaRouting_EachPoolBounded() throws Exception {
+		DataSourceProperties properties = new DataSourceProperties();
+		properties.setUrl("jdbc:h2:mem:virtualprimary");
+		properties.afterPropertiesSet();
+		MockEnvironment environment = new MockEnvironment()
+				.withProperty("spring.threads.virtual.enabled", "true")
+				.withProperty("spring.datasource.hikari.maximum-pool-size", "4");
+
+		try (ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingConfig().dataSource(properties, environment,
+				List.of("jdbc:h2:mem:virtualreplica0", "jdbc:h2:mem:virtualreplica1"), "", "",
+				ReplicaRoutingDataSource.Selection.ROUND_ROBIN, 0, Duration.ofSeconds(1),
+				new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class))) {
+
+			// one semaphore in front of the router would cap all three pools at one pool's size
+			assertThat(boundedDataSourcePostProcessor.postProcessAfterInitialization(routingDataSource, "dataSource"))
+					.isSameAs(routingDataSource);
+			assertThat(routingDataSource.getDataSources()).hasSize(3).allSatisfy(dataSource -> assertThat(dataSource)
+					.isInstanceOfSatisfying(BoundedDataSource.class,
+							bounded -> assertThat(bounded.getAvailablePermits()).isEqualTo(4)));
+		}
+	}
+
+	@Test
+	void postProcess_SingleDataSource_Bounded() throws Exception {
+		DataSource dataSource = new SimpleDriverDataSource();
+
+		assertThat(boundedDataSourcePostProcessor.postProcessAfterInitialization(dataSource, "dataSource"))
+				.isInstanceOfSatisfying(BoundedDataSource.class,
+						bounded -> assertThat(bounded.getAvailablePermits()).isEqualTo(10));
+	}
+}
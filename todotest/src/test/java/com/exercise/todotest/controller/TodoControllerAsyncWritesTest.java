@@ -0,0 +1,110 @@
+package com.exercise.todotest.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.dto.WriteOperationDto;
+import com.exercise.todotest.enums.WriteOperationStatus;
+import com.exercise.todotest.service.TodoETags;
+import com.exercise.todotest.service.TodoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest(properties = { "todo.async-writes.enabled=true",
+		"todo.async-writes.journal-path=target/async-writes-test.journal" })
+@AutoConfigureMockMvc
+class TodoControllerAsyncWritesTest {
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private TodoService todoService;
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private TodoDto todo;
+
+	@BeforeEach
+	void setup() {
+		todo = todoService.createTodo(new TodoDto(0, "Async", "Written asynchronously", LocalDate.now().plusDays(1), 2));
+	}
+
+	@Test
+	void deleteTodo_Async_AcceptedThenApplied() throws Exception {
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.delete("/todo/" + todo.getId()))
+				.andExpect(MockMvcResultMatchers.status().isAccepted())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.type").value("DELETE"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.todoId").value(todo.getId()))
+				.andReturn();
+
+		WriteOperationDto operation = awaitDone(result.getResponse().getHeader(HttpHeaders.LOCATION));
+		assertThat(operation.getStatus()).isEqualTo(WriteOperationStatus.APPLIED);
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo/" + todo.getId()))
+				.andExpect(MockMvcResultMatchers.status().isNotFound());
+	}
+
+	@Test
+	void partialUpdateTodo_Async_AcceptedThenApplied() throws Exception {
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.patch("/todo/" + todo.getId())
+				.contentType(MediaType.APPLICATION_JSON).content("{\"priority\": 4}"))
+				.andExpect(MockMvcResultMatchers.status().isAccepted())
+				.andReturn();
+
+		WriteOperationDto operation = awaitDone(result.getResponse().getHeader(HttpHeaders.LOCATION));
+		assertThat(operation.getStatus()).isEqualTo(WriteOperationStatus.APPLIED);
+		assertThat(todoService.getTodoDtoById(todo.getId()).getPriority()).isEqualTo(4);
+	}
+
+	@Test
+	void deleteTodo_AsyncMissing_NotFoundInline() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.delete("/todo/-1"))
+				.andExpect(MockMvcResultMatchers.status().isNotFound());
+	}
+
+	@Test
+	void updateTodo_AsyncStaleVersion_PreconditionFailedInline() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.put("/todo/" + todo.getId()).contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(todo))
+				.header(HttpHeaders.IF_MATCH, TodoETags.forTodo(new TodoDto(todo.getId(), null, null, null, 0, 7))))
+				.andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+	}
+
+	@Test
+	void updateTodo_AsyncInvalidBody_BadRequestInline() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.put("/todo/" + todo.getId()).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"title\": \"A\"}"))
+				.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+
+	@Test
+	void retrieveWriteOperation_Unknown_NotFound() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo/operations/unknown"))
+				.andExpect(MockMvcResultMatchers.status().isNotFound());
+	}
+
+	private WriteOperationDto awaitDone(String location) throws Exception {
+		long deadline = System.nanoTime() + 5_000_000_000L;
+		while (true) {
+			String body = mockMvc.perform(MockMvcRequestBuilders.get(location))
+					.andExpect(MockMvcResultMatchers.status().isOk())
+					.andReturn().getResponse().getContentAsString();
+			WriteOperationDto operation = objectMapper.readValue(body, WriteOperationDto.class);
+			if (operation.getStatus() != WriteOperationStatus.PENDING || System.nanoTime() > deadline) {
+				return operation;
+			}
+			Thread.sleep(20);
+		}
+	}
+}
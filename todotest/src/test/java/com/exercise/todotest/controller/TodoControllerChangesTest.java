@@ -0,0 +1,154 @@
+package com.exercise.todotest.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.exercise.todotest.dto.TodoChangePageDto;
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.service.TodoChangeLog;
+import com.exercise.todotest.service.TodoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// nothing is retained once compacted, and compaction only runs when a test asks for it
+@SpringBootTest(properties = { "todo.changes.retention=PT0S", "todo.changes.compact-interval=PT1H" })
+@AutoConfigureMockMvc
+class TodoControllerChangesTest {
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private TodoService todoService;
+	@Autowired
+	private TodoChangeLog todoChangeLog;
+	@Autowired
+	private ObjectMapper objectMapper;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private TodoDto todo;
+
+	@BeforeEach
+	void setup() {
+		todo = todoService.createTodo(newTodo("Existing"));
+	}
+
+	@Test
+	void retrieveTodoChanges_SinceToken_LatestStatePerTodoAndTombstones() throws Exception {
+		String token = changes(null, 100).getNextToken();
+		TodoDto created = todoService.createTodo(newTodo("Created"));
+		todoService.partialUpdateTodo(todo.getId(), Map.of("priority", 4), false);
+		todoService.partialUpdateTodo(todo.getId(), Map.of("title", "Updated"), false);
+		todoService.removeTodoById(created.getId());
+
+		TodoChangePageDto page = changes(token, 100);
+
+		assertThat(page.isLast()).isTrue();
+		assertThat(page.getContent()).hasSize(2);
+		assertThat(page.getContent().get(0).getTodoId()).isEqualTo(todo.getId());
+		assertThat(page.getContent().get(0).isDeleted()).isFalse();
+		assertThat(page.getContent().get(0).getTodo().getTitle()).isEqualTo("Updated");
+		assertThat(page.getContent().get(0).getTodo().getPriority()).isEqualTo(4);
+		assertThat(page.getContent().get(1).getTodoId()).isEqualTo(created.getId());
+		assertThat(page.getContent().get(1).isDeleted()).isTrue();
+		assertThat(page.getContent().get(1).getTodo()).isNull();
+
+		TodoChangePageDto caughtUp = changes(page.getNextToken(), 100);
+		assertThat(caughtUp.getContent()).isEmpty();
+		assertThat(caughtUp.getNextToken()).isEqualTo(page.getNextToken());
+	}
+
+	@Test
+	void retrieveTodoChanges_MoreThanLimit_PagedBySequence() throws Exception {
+		String token = changes(null, 100).getNextToken();
+		TodoDto first = todoService.createTodo(newTodo("First"));
+		TodoDto second = todoService.createTodo(newTodo("Second"));
+
+		TodoChangePageDto firstPage = changes(token, 1);
+		TodoChangePageDto secondPage = changes(firstPage.getNextToken(), 1);
+
+		assertThat(firstPage.isLast()).isFalse();
+		assertThat(firstPage.getContent()).singleElement().extracting("todoId").isEqualTo(first.getId());
+		assertThat(secondPage.isLast()).isTrue();
+		assertThat(secondPage.getContent()).singleElement().extracting("todoId").isEqualTo(second.getId());
+	}
+
+	@Test
+	void retrieveTodoChanges_WriteCommittingLate_NotSkipped() throws Exception {
+		String token = changes(null, 100).getNextToken();
+		CountDownLatch written = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		// written before the next one but committed after it
+		Thread late = Thread.ofPlatform().start(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			todoService.createTodo(newTodo("Late"));
+			written.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}));
+		try {
+			assertThat(written.await(5, TimeUnit.SECONDS)).isTrue();
+			todoService.createTodo(newTodo("Early"));
+
+			TodoChangePageDto early = changes(token, 100);
+			assertThat(early.getContent()).singleElement().extracting("todo.title").isEqualTo("Early");
+
+			release.countDown();
+			late.join(5_000);
+			TodoChangePageDto caughtUp = changes(early.getNextToken(), 100);
+			assertThat(caughtUp.getContent()).singleElement().extracting("todo.title").isEqualTo("Late");
+		} finally {
+			release.countDown();
+			late.join(5_000);
+		}
+	}
+
+	@Test
+	void retrieveTodoChanges_TokenBehindCompactedLog_Gone() throws Exception {
+		String token = changes(null, 100).getNextToken();
+		todoService.createTodo(newTodo("Compacted"));
+		todoService.createTodo(newTodo("Newest"));
+
+		assertThat(todoChangeLog.compact()).isPositive();
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo/changes").param("since", token))
+				.andExpect(MockMvcResultMatchers.status().isGone());
+		String head = changes(null, 100).getNextToken();
+		assertThat(changes(head, 100).getContent()).isEmpty();
+	}
+
+	@Test
+	void retrieveTodoChanges_InvalidToken_BadRequest() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo/changes").param("since", "not-a-token"))
+				.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+
+	private TodoChangePageDto changes(String since, int limit) throws Exception {
+		var request = MockMvcRequestBuilders.get("/todo/changes").param("limit", String.valueOf(limit));
+		if (since != null) {
+			request.param("since", since);
+		}
+		String body = mockMvc.perform(request).andExpect(MockMvcResultMatchers.status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readValue(body, TodoChangePageDto.class);
+	}
+
+	private static TodoDto newTodo(String title) {
+		return new TodoDto(0, title, "Tracked in the change log", LocalDate.now().plusDays(1), 2);
+	}
+}
@@ -0,0 +1,248 @@
+package com.exercise.todotest.controller;
+
+import static com.exercise.todotest.sql.StatementCounter.delete;
+import static com.exercise.todotest.sql.StatementCounter.insert;
+import static com.exercise.todotest.sql.StatementCounter.select;
+import static com.exercise.todotest.sql.StatementCounter.update;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.service.TodoCache;
+import com.exercise.todotest.service.TodoCountCache;
+import com.exercise.todotest.service.TodoETags;
+import com.exercise.todotest.service.TodoPageCache;
+import com.exercise.todotest.service.TodoService;
+import com.exercise.todotest.sql.StatementCountConfig;
+import com.exercise.todotest.sql.StatementCounter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Pins the statements each endpoint sends to the database, by type, so a
+ * change that adds a round trip fails here. Caches start empty in every test;
+ * where a cache should answer a repeated request, the repeat is pinned at
+ * zero statements.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(StatementCountConfig.class)
+class TodoControllerStatementsTest {
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private StatementCounter statementCounter;
+	@Autowired
+	private TodoService todoService;
+	@Autowired
+	private TodoCache todoCache;
+	@Autowired
+	private TodoCountCache todoCountCache;
+	@Autowired
+	private TodoPageCache todoPageCache;
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private TodoDto todo;
+
+	@BeforeEach
+	void setup() {
+		todo = todoService.createTodo(newTodo());
+		todoCache.getTodos().invalidateAll();
+		todoCache.getMissingIds().invalidateAll();
+		todoPageCache.getPages().invalidateAll();
+		todoCountCache.invalidate();
+		statementCounter.reset();
+	}
+
+	@Test
+	void getAllTodos_Page_SelectAndCountOnce() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo")).andExpect(MockMvcResultMatchers.status().isOk());
+		statementCounter.assertStatements(select(2));
+		statementCounter.assertTransactions("TodoService.getAllTodosSerialized");
+
+		statementCounter.reset();
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo")).andExpect(MockMvcResultMatchers.status().isOk());
+		statementCounter.assertNoStatements();
+	}
+
+	@Test
+	void getAllTodos_PageConditional_VersionsCountAndPage() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo").header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+				.andExpect(MockMvcResultMatchers.status().isOk());
+
+		// the ids and versions, the count, then the page itself
+		statementCounter.assertStatements(select(3));
+		statementCounter.assertTransactions("TodoService.getAllTodosETag", "TodoService.getAllTodosSerialized");
+	}
+
+	@Test
+	void getAllTodos_Filtered_SelectAndCount() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo").param("priority", "1", "2").param("overdue", "false"))
+				.andExpect(MockMvcResultMatchers.status().isOk());
+
+		statementCounter.assertStatements(select(2));
+	}
+
+	@Test
+	void getAllTodos_Slice_NoCount() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo").param("pagination", "SLICE"))
+				.andExpect(MockMvcResultMatchers.status().isOk());
+
+		statementCounter.assertStatements(select(1));
+	}
+
+	@Test
+	void getAllTodos_Cursor_NoCount() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo").param("cursor", ""))
+				.andExpect(MockMvcResultMatchers.status().isOk());
+
+		statementCounter.assertStatements(select(1));
+	}
+
+	@Test
+	void getTodo_SelectOnceThenCached() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo/" + todo.getId())).andExpect(MockMvcResultMatchers.status().isOk());
+		statementCounter.assertStatements(select(1));
+
+		statementCounter.reset();
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo/" + todo.getId())).andExpect(MockMvcResultMatchers.status().isOk());
+		statementCounter.assertNoStatements();
+	}
+
+	@Test
+	void getTodo_MissingSelectOnceThenCached() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo/-1")).andExpect(MockMvcResultMatchers.status().isNotFound());
+		statementCounter.assertStatements(select(1));
+
+		statementCounter.reset();
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo/-1")).andExpect(MockMvcResultMatchers.status().isNotFound());
+		statementCounter.assertNoStatements();
+	}
+
+	@Test
+	void searchTodos_OneSelectForThePage() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo/search").param("q", "statements"))
+				.andExpect(MockMvcResultMatchers.status().isOk());
+
+		statementCounter.assertStatements(select(1));
+	}
+
+	@Test
+	void exportTodos_OneStreamingSelect() throws Exception {
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/todo/export")).andReturn();
+		mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result)).andExpect(MockMvcResultMatchers.status().isOk());
+
+		statementCounter.assertStatements(select(1));
+	}
+
+	@Test
+	void retrieveTodoChanges_RangePageAndTodos() throws Exception {
+		String token = objectMapper.readTree(mockMvc.perform(MockMvcRequestBuilders.get("/todo/changes"))
+				.andReturn().getResponse().getContentAsString()).get("nextToken").asText();
+		todoService.partialUpdateTodo(todo.getId(), Map.of("priority", 3), false);
+
+		statementCounter.reset();
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo/changes").param("since", token))
+				.andExpect(MockMvcResultMatchers.status().isOk());
+		statementCounter.assertStatements(select(3));
+	}
+
+	// each write also bumps and reads the change counter as it commits
+	@Test
+	void createTodo_TodoAndChangeInserts() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.post("/todo").contentType(MediaType.APPLICATION_JSON).content(body(newTodo())))
+				.andExpect(MockMvcResultMatchers.status().isCreated());
+
+		statementCounter.assertStatements(insert(2), update(1), select(1));
+	}
+
+	@Test
+	void createTodos_OneBatchedInsertAndOneChangeInsert() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.post("/todo/batch").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(List.of(newTodo(), newTodo(), newTodo()))))
+				.andExpect(MockMvcResultMatchers.status().isCreated());
+
+		statementCounter.assertStatements(insert(2), update(1), select(1));
+	}
+
+	@Test
+	void importTodos_TodoAndChangeInsertPerChunk() throws Exception {
+		String line = objectMapper.writeValueAsString(newTodo());
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/todo/import")
+				.contentType(MediaType.APPLICATION_NDJSON).content(line + "\n" + line + "\n")).andReturn();
+		mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result)).andExpect(MockMvcResultMatchers.status().isOk());
+
+		statementCounter.assertStatements(insert(2), update(1), select(1));
+	}
+
+	@Test
+	void updateTodo_UpdateAndChangeInsert() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.put("/todo/" + todo.getId()).contentType(MediaType.APPLICATION_JSON).content(body(todo)))
+				.andExpect(MockMvcResultMatchers.status().isAccepted());
+		statementCounter.assertStatements(update(1), insert(1), update(1), select(1));
+
+		statementCounter.reset();
+		mockMvc.perform(MockMvcRequestBuilders.put("/todo/" + todo.getId()).contentType(MediaType.APPLICATION_JSON).content(body(todo))
+				.header(HttpHeaders.IF_MATCH, TodoETags.forTodo(new TodoDto(todo.getId(), null, null, null, 0, 1))))
+				.andExpect(MockMvcResultMatchers.status().isAccepted());
+		statementCounter.assertStatements(update(1), insert(1), update(1), select(1));
+	}
+
+	@Test
+	void partialUpdateTodo_UpdateAndReRead() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.patch("/todo/" + todo.getId()).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"priority\": 3}"))
+				.andExpect(MockMvcResultMatchers.status().isAccepted());
+		statementCounter.assertStatements(update(1), insert(1), update(1), select(1), select(1));
+
+		statementCounter.reset();
+		mockMvc.perform(MockMvcRequestBuilders.patch("/todo/" + todo.getId()).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"priority\": 4}").header("Prefer", "return=minimal"))
+				.andExpect(MockMvcResultMatchers.status().isAccepted());
+		statementCounter.assertStatements(update(1), insert(1), update(1), select(1));
+	}
+
+	@Test
+	void deleteTodo_DeleteAndTombstoneInsert() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.delete("/todo/" + todo.getId()))
+				.andExpect(MockMvcResultMatchers.status().isAccepted());
+		statementCounter.assertStatements(delete(1), insert(1), update(1), select(1));
+
+		statementCounter.reset();
+		mockMvc.perform(MockMvcRequestBuilders.delete("/todo/" + todo.getId()))
+				.andExpect(MockMvcResultMatchers.status().isNotFound());
+		statementCounter.assertStatements(delete(1));
+	}
+
+	@Test
+	void deleteTodo_StaleVersion_DeleteAndExistenceCheck() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.delete("/todo/" + todo.getId())
+				.header(HttpHeaders.IF_MATCH, TodoETags.forTodo(new TodoDto(todo.getId(), null, null, null, 0, 7))))
+				.andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+
+		statementCounter.assertStatements(delete(1), select(1));
+	}
+
+	private TodoDto newTodo() {
+		return new TodoDto(0, "Statements", "Counting statements", LocalDate.now().plusDays(1), 2);
+	}
+
+	private String body(TodoDto todoDto) throws Exception {
+		return objectMapper.writeValueAsString(todoDto);
+	}
+}
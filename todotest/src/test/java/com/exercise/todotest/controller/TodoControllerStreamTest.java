@@ -0,0 +1,64 @@
+package com.exercise.todotest.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.service.TodoService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TodoControllerStreamTest {
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private TodoService todoService;
+
+	@Test
+	void streamTodoEvents_TodoCreated_EventSent() throws Exception {
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/todo/stream").accept(MediaType.TEXT_EVENT_STREAM))
+				.andExpect(MockMvcResultMatchers.request().asyncStarted())
+				.andReturn();
+
+		TodoDto todo = todoService.createTodo(new TodoDto(0, "Streamed", "Sent to subscribers", LocalDate.now().plusDays(1), 2));
+		todoService.removeTodoById(todo.getId());
+
+		String body = awaitContent(result.getResponse(), "\"type\":\"DELETED\"");
+		assertThat(body).contains("\"type\":\"CREATED\",\"todoId\":" + todo.getId())
+				.contains("\"title\":\"Streamed\"")
+				.contains("\"type\":\"DELETED\",\"todoId\":" + todo.getId());
+		assertThat(body.indexOf("CREATED")).isLessThan(body.indexOf("DELETED"));
+	}
+
+	@Test
+	void streamTodoEvents_UnknownLastEventId_Resync() throws Exception {
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/todo/stream").accept(MediaType.TEXT_EVENT_STREAM)
+				.header("Last-Event-ID", "unknown-1"))
+				.andExpect(MockMvcResultMatchers.request().asyncStarted())
+				.andReturn();
+
+		assertThat(awaitContent(result.getResponse(), "event:resync")).contains("event:resync");
+	}
+
+	private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+		long deadline = System.nanoTime() + 5_000_000_000L;
+		String content = response.getContentAsString();
+		while (!content.contains(expected) && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+			content = response.getContentAsString();
+		}
+		return content;
+	}
+}
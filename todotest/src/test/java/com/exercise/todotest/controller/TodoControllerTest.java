@@ -1,9 +1,13 @@
 package com.exercise.todotest.controller;
 
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -18,16 +22,25 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.web.servlet.resource.NoResourceFoundException;
 
+import com.exercise.todotest.dto.CursorPageDto;
 import com.exercise.todotest.dto.TodoDto;
 import com.exercise.todotest.entity.Todo;
+import com.exercise.todotest.enums.ExportFormat;
 import com.exercise.todotest.enums.TodoField;
+import com.exercise.todotest.exception.InvalidCursorException;
+import com.exercise.todotest.exception.PreconditionFailedException;
+import com.exercise.todotest.service.TodoFilter;
+import com.exercise.todotest.service.TodoPageCache;
 import com.exercise.todotest.service.TodoService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -48,10 +61,15 @@ class TodoControllerTest {
 				add(new TodoDto());
 		}};
 
-		Page<TodoDto> pagedTodos = new PageImpl<>(todosList);
+		Page<TodoDto> pagedTodos = new PageImpl<>(todosList, PageRequest.of(0, 20), 1);
+
+		ObjectMapper mapper = new ObjectMapper();
+		mapper.findAndRegisterModules();
+		TodoPageCache.CachedPage serializedTodos = new TodoPageCache.CachedPage(mapper.writeValueAsBytes(pagedTodos), "\"etag\"", 0);
 
-		when(todoService.getAllTodos(Mockito.anyInt(), Mockito.anyInt(), Mockito.any(TodoField.class), Mockito.any(Sort.Direction.class))).thenReturn(pagedTodos);
+		when(todoService.getAllTodosSerialized(Mockito.anyInt(), Mockito.anyInt(), Mockito.any(TodoField.class), Mockito.any(Sort.Direction.class), Mockito.eq(TodoFilter.NONE))).thenReturn(serializedTodos);
 		mockMvc.perform(MockMvcRequestBuilders.get("/todo")).andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.header().string("ETag", "\"etag\""))
 				.andExpect(MockMvcResultMatchers.jsonPath("$.content").isArray())
 				.andExpect(MockMvcResultMatchers.jsonPath("$.content.length()", is(1)))
 				.andExpect(MockMvcResultMatchers.jsonPath("$.content[0].id", is(0)))
@@ -59,6 +77,102 @@ class TodoControllerTest {
 				.andExpect(MockMvcResultMatchers.jsonPath("$.totalElements", is(1)));
 	}
 
+	@Test
+	void searchTodos_Success() throws Exception {
+		Page<TodoDto> todoDtoPage = new PageImpl<>(List.of(new TodoDto(3, "Market", null, null, 1)), PageRequest.of(1, 10), 11);
+		when(todoService.searchTodos("market", 1, 10)).thenReturn(todoDtoPage);
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo/search?q=market&page=1&limit=10"))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.content[0].id", is(3)))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.totalElements", is(11)));
+	}
+
+	@Test
+	void searchTodos_MissingQuery_Failure() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo/search"))
+				.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+
+	@Test
+	void searchTodos_InvalidPageOrLimit_Failure() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo/search?q=market&limit=0"))
+				.andExpect(MockMvcResultMatchers.status().isBadRequest())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.details", is("Limit must be between 1 and 20")));
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo/search?q=market&page=-1"))
+				.andExpect(MockMvcResultMatchers.status().isBadRequest())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.details", is("Page must not be negative")));
+	}
+
+	@Test
+	void retrieveTodoChanges_LimitOutOfRange_Failure() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo/changes?limit=5000"))
+				.andExpect(MockMvcResultMatchers.status().isBadRequest())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.details", is("Limit must be between 1 and 1000")));
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo/changes?limit=0"))
+				.andExpect(MockMvcResultMatchers.status().isBadRequest())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.details", is("Limit must be between 1 and 1000")));
+	}
+
+	@Test
+	void getAllTodos_Filtered_Success() throws Exception {
+		LocalDate today = LocalDate.now();
+		TodoFilter filter = new TodoFilter(List.of(1, 2), today, LocalDate.of(2024, 1, 1));
+		when(todoService.getTodosSlice(0, 20, TodoField.TARGETDATE, Sort.Direction.ASC, filter))
+				.thenReturn(new SliceImpl<>(List.of(new TodoDto()), PageRequest.of(0, 20), false));
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo?pagination=SLICE&sortfield=TARGETDATE&sortorder=ASC&priority=2,1,2&dueAfter=2024-01-01&dueBefore=" + today.plusDays(10) + "&overdue=true"))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.content.length()", is(1)));
+	}
+
+	@Test
+	void getAllTodos_InvalidPriority_Failure() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo?priority=1,5"))
+				.andExpect(MockMvcResultMatchers.status().isBadRequest())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.message", is("Invalid Parameter Input")))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.details", is("Priority must be between 1 and 4")));
+	}
+
+	@Test
+	void getAllTodosSlice_Success() throws Exception {
+		@SuppressWarnings("serial")
+		List<TodoDto> todosList = new ArrayList<>() {{
+				add(new TodoDto());
+		}};
+
+		when(todoService.getTodosSlice(Mockito.anyInt(), Mockito.anyInt(), Mockito.any(TodoField.class), Mockito.any(Sort.Direction.class), Mockito.eq(TodoFilter.NONE)))
+				.thenReturn(new SliceImpl<>(todosList, PageRequest.of(0, 1), true));
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo?pagination=SLICE")).andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.content.length()", is(1)))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.last", is(false)))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").doesNotExist());
+	}
+
+	@Test
+	void getAllTodosByCursor_Success() throws Exception {
+		@SuppressWarnings("serial")
+		List<TodoDto> todosList = new ArrayList<>() {{
+				add(new TodoDto());
+		}};
+
+		when(todoService.getTodosByCursor(Mockito.anyString(), Mockito.anyInt(), Mockito.any(TodoField.class), Mockito.any(Sort.Direction.class), Mockito.eq(TodoFilter.NONE)))
+				.thenReturn(new CursorPageDto<>(todosList, "next"));
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo?cursor=")).andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.content.length()", is(1)))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor", is("next")))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.last", is(false)));
+	}
+
+	@Test
+	void getAllTodosByCursor_InvalidCursor_Failure() throws Exception {
+		when(todoService.getTodosByCursor(Mockito.anyString(), Mockito.anyInt(), Mockito.any(TodoField.class), Mockito.any(Sort.Direction.class), Mockito.eq(TodoFilter.NONE)))
+				.thenThrow(new InvalidCursorException("Malformed cursor 'x'"));
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo?cursor=x"))
+				.andExpect(MockMvcResultMatchers.status().isBadRequest())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.message", is("Invalid Parameter Input")));
+	}
+
 	@Test
 	void getAllTodos_InvalidSortingDirectionValue_Failure() throws Exception {
 		TodoDto todo1 = new TodoDto(3, null, null, null, 0);
@@ -72,7 +186,7 @@ class TodoControllerTest {
 
 		Page<TodoDto> pagedTodos = new PageImpl<>(todosList);
 
-		when(todoService.getAllTodos(Mockito.anyInt(), Mockito.anyInt(), Mockito.any(TodoField.class), Mockito.any(Sort.Direction.class))).thenReturn(pagedTodos);
+		when(todoService.getAllTodos(Mockito.anyInt(), Mockito.anyInt(), Mockito.any(TodoField.class), Mockito.any(Sort.Direction.class), Mockito.eq(TodoFilter.NONE))).thenReturn(pagedTodos);
 		mockMvc.perform(MockMvcRequestBuilders.get("/todo?sortorder={sortorder}", "desc"))
 				.andExpect(MockMvcResultMatchers.status().isBadRequest())
 				.andExpect(MockMvcResultMatchers.jsonPath("$.message", is("Invalid Argument Type")));
@@ -83,7 +197,7 @@ class TodoControllerTest {
 
 		Page<TodoDto> pagedTodos = new PageImpl<>(new ArrayList<>());
 
-		when(todoService.getAllTodos(Mockito.anyInt(), Mockito.anyInt(), Mockito.any(TodoField.class), Mockito.any(Sort.Direction.class))).thenReturn(pagedTodos);
+		when(todoService.getAllTodos(Mockito.anyInt(), Mockito.anyInt(), Mockito.any(TodoField.class), Mockito.any(Sort.Direction.class), Mockito.eq(TodoFilter.NONE))).thenReturn(pagedTodos);
 		mockMvc.perform(MockMvcRequestBuilders.get("/todo?limit={limit}", 21))
 				.andExpect(MockMvcResultMatchers.status().isBadRequest())
 				.andExpect(MockMvcResultMatchers.jsonPath("$.message", is("Invalid Parameter Input")))
@@ -100,6 +214,80 @@ class TodoControllerTest {
 		.andExpect(MockMvcResultMatchers.jsonPath("$.id", is(0)));
 	}
 	
+	@Test
+	void exportTodos_Csv_Success() throws Exception {
+		Mockito.doAnswer(invocation -> {
+			invocation.getArgument(3, OutputStream.class).write("id,title\r\n".getBytes(StandardCharsets.UTF_8));
+			return 1L;
+		}).when(todoService).exportTodos(Mockito.eq(ExportFormat.CSV), Mockito.eq(TodoField.PRIORITY), Mockito.eq(Sort.Direction.ASC), Mockito.any());
+		
+		MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/todo/export?format=csv&sortfield=PRIORITY"))
+				.andExpect(MockMvcResultMatchers.request().asyncStarted())
+				.andReturn();
+		mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith("text/csv"))
+				.andExpect(MockMvcResultMatchers.header().string("Content-Disposition", "attachment; filename=\"todos.csv\""))
+				.andExpect(MockMvcResultMatchers.content().string("id,title\r\n"));
+	}
+	
+	@Test
+	void exportTodos_InvalidFormat_Failure() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo/export?format=xml"))
+				.andExpect(MockMvcResultMatchers.status().isBadRequest())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.message", is("Invalid Argument Type")));
+	}
+	
+	@Test
+	void importTodos_Ndjson_Success() throws Exception {
+		when(todoService.createTodos(Mockito.anyList())).thenReturn(List.of(3));
+		String body = "{\"title\":\"Title\",\"description\":\"Description\",\"targetDate\":\"" + LocalDate.now().plusDays(1) + "\",\"priority\":1}\n"
+				+ "{\"title\":\"T\"}\n";
+		
+		MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.post("/todo/import")
+				.contentType(MediaType.APPLICATION_NDJSON).content(body))
+				.andExpect(MockMvcResultMatchers.request().asyncStarted())
+				.andReturn();
+		String[] lines = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+				.andReturn().getResponse().getContentAsString().split("\n");
+		
+		assertEquals("{\"line\":1,\"id\":3}", lines[0]);
+		assertTrue(lines[1].startsWith("{\"line\":2,\"errors\":{"));
+		assertEquals("{\"created\":1,\"failed\":1}", lines[2]);
+	}
+	
+	@Test
+	void importTodos_UnsupportedMediaType_Failure() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.post("/todo/import").contentType(MediaType.APPLICATION_XML).content("<todo/>"))
+				.andExpect(MockMvcResultMatchers.status().isUnsupportedMediaType());
+	}
+	
+	@Test
+	void getTodoById_MatchingETag_NotModified() throws Exception {
+		when(todoService.getTodoDtoById(Mockito.anyInt())).thenReturn(new TodoDto(0, "title", null, null, 1, 3));
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/todo/{id}", 0).header("If-None-Match", "\"3\""))
+		.andExpect(MockMvcResultMatchers.status().isNotModified())
+		.andExpect(MockMvcResultMatchers.header().string("ETag", "\"3\""))
+		.andExpect(MockMvcResultMatchers.content().string(""));
+	}
+	
+	@Test
+	void updateTodo_StaleIfMatch_Failure() throws Exception {
+		TodoDto todoDto = new TodoDto(0, "Title test", "Description test", LocalDate.now().plusDays(1), 1);
+		ObjectMapper mapper = new ObjectMapper();
+		mapper.findAndRegisterModules();
+		when(todoService.fullUpdateTodo(Mockito.anyInt(), Mockito.any(), Mockito.eq(2L)))
+				.thenThrow(new PreconditionFailedException("Todo with id '0' is no longer at version 2"));
+		
+		mockMvc.perform(MockMvcRequestBuilders.put("/todo/{id}", 0).header("If-Match", "\"2\"")
+				.contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(todoDto)))
+		.andExpect(MockMvcResultMatchers.status().isPreconditionFailed())
+		.andExpect(MockMvcResultMatchers.jsonPath("$.message", is("Precondition failed")));
+	}
+	
 	@Test
 	void getTodoById_IdNotFound_Failure() throws Exception {
 		when(todoService.getTodoDtoById(Mockito.anyInt())).thenThrow(new NoResourceFoundException(null, "Todo with id 'x'"));
@@ -143,6 +331,37 @@ class TodoControllerTest {
 				.andExpect(MockMvcResultMatchers.redirectedUrl("http://localhost/todo/0"));
 	}
 
+	@Test
+	void createTodos_Success() throws Exception {
+		List<TodoDto> todos = List.of(new TodoDto(0, "Title test", "Description test", LocalDate.now().plusDays(1), 1),
+				new TodoDto(0, "Title test 2", "Description test 2", LocalDate.now().plusDays(2), 2));
+		ObjectMapper mapper = new ObjectMapper();
+		mapper.findAndRegisterModules();
+
+		when(todoService.createTodos(Mockito.anyList())).thenReturn(List.of(7, 8));
+
+		mockMvc.perform(MockMvcRequestBuilders.post("/todo/batch").contentType(MediaType.APPLICATION_JSON)
+				.content(mapper.writeValueAsString(todos)))
+				.andExpect(MockMvcResultMatchers.status().isCreated())
+				.andExpect(MockMvcResultMatchers.jsonPath("$[0]", is(7)))
+				.andExpect(MockMvcResultMatchers.jsonPath("$[1]", is(8)));
+	}
+
+	@Test
+	void createTodos_InvalidItem_Failure() throws Exception {
+		List<TodoDto> todos = List.of(new TodoDto(0, "Title test", "Description test", LocalDate.now().plusDays(1), 1),
+				new TodoDto(0, "T", "Description test 2", LocalDate.now().plusDays(2), 2));
+		ObjectMapper mapper = new ObjectMapper();
+		mapper.findAndRegisterModules();
+
+		mockMvc.perform(MockMvcRequestBuilders.post("/todo/batch").contentType(MediaType.APPLICATION_JSON)
+				.content(mapper.writeValueAsString(todos)))
+				.andExpect(MockMvcResultMatchers.status().isBadRequest())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.message", is("Invalid field inputs")))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.details.1.title").exists())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.details.0").doesNotExist());
+	}
+
 	@Test
 	void deleteTodo_InvalidIdAttribute_Failure() throws Exception {
 		when(todoService.existsTodo(Mockito.anyInt())).thenReturn(false);
@@ -268,6 +487,17 @@ class TodoControllerTest {
 		.andExpect(MockMvcResultMatchers.status().is5xxServerError());
 	}
 
+	@Test
+	void partialUpdateTodo_ReturnMinimal_Success() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.patch("/todo/{id}", 0).contentType(MediaType.APPLICATION_JSON)
+				.header("Prefer", "return=minimal").content("{\"priority\":2}"))
+				.andExpect(MockMvcResultMatchers.status().isAccepted())
+				.andExpect(MockMvcResultMatchers.header().string("Preference-Applied", "return=minimal"))
+				.andExpect(MockMvcResultMatchers.content().string(""));
+
+		Mockito.verify(todoService).partialUpdateTodo(Mockito.eq(0), Mockito.anyMap(), Mockito.eq(false));
+	}
+
 	@Test
 	void partialUpdateTodo_IdNotFound_Failure() throws Exception {
 		@SuppressWarnings("serial")
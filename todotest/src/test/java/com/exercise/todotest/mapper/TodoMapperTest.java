@@ -0,0 +1,30 @@
+package com.exercise.todotest.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.entity.Todo;
+
+class TodoMapperTest {
+	TodoMapper directMapper = new DirectTodoMapper();
+	TodoMapper modelMapperMapper = new ModelMapperTodoMapper(new ModelMapper());
+
+	@Test
+	void toDto_SameResultAsModelMapper() {
+		Todo todo = new Todo(7, "Title", "Description test", LocalDate.now().plusDays(1), 3);
+
+		assertThat(directMapper.toDto(todo)).usingRecursiveComparison().isEqualTo(modelMapperMapper.toDto(todo));
+	}
+
+	@Test
+	void toEntity_SameResultAsModelMapper() {
+		TodoDto todoDto = new TodoDto(7, "Title", "Description test", LocalDate.now().plusDays(1), 3);
+
+		assertThat(directMapper.toEntity(todoDto)).usingRecursiveComparison().isEqualTo(modelMapperMapper.toEntity(todoDto));
+	}
+}
@@ -0,0 +1,44 @@
+package com.exercise.todotest.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Migrates a database created by Hibernate DDL before the migrations existed,
+ * with the baseline settings of {@code application.properties}.
+ */
+class TodoMigrationTest {
+	private static final String URL = "jdbc:h2:mem:premigration;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+	@Test
+	void migrate_HibernateCreatedDatabase_UpgradedFromBaseline() throws SQLException {
+		try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+				Statement statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE todo (id INTEGER GENERATED BY DEFAULT AS IDENTITY, description VARCHAR(255), "
+					+ "priority INTEGER NOT NULL, target_date DATE, title VARCHAR(255), PRIMARY KEY (id))");
+			statement.execute("INSERT INTO todo (title, priority) VALUES ('First', 1), ('Second', 2), ('Third', 3)");
+			statement.execute("DELETE FROM todo WHERE title = 'First'");
+
+			Flyway.configure().dataSource(URL, "sa", "").locations("classpath:db/migration/h2")
+					.baselineOnMigrate(true).baselineVersion("1").load().migrate();
+
+			try (ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM todo WHERE version = 0")) {
+				resultSet.next();
+				assertThat(resultSet.getInt(1)).isEqualTo(2);
+			}
+			// the pooled-lo optimizer's first block of 50 starts at this value, right after MAX(id)
+			try (ResultSet resultSet = statement.executeQuery("SELECT NEXT VALUE FOR todo_seq")) {
+				resultSet.next();
+				assertThat(resultSet.getLong(1)).isEqualTo(3 + 1);
+			}
+		}
+	}
+}
@@ -4,9 +4,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.Session;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,9 +20,21 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import com.exercise.todotest.dto.TodoDto;
 import com.exercise.todotest.entity.Todo;
+import com.exercise.todotest.enums.TodoField;
+import com.exercise.todotest.service.TodoCursor;
+import com.exercise.todotest.service.TodoFilter;
+
+import jakarta.persistence.EntityManager;
 
 @DataJpaTest
 @ExtendWith(SpringExtension.class)
@@ -26,6 +43,9 @@ class TodoRepositoryTest {
 	@Autowired
 	TodoRepository todoRepository;
 	
+	@Autowired
+	EntityManager entityManager;
+	
 	@BeforeEach
 	void setup() {
 		LocalDate date = LocalDate.now();
@@ -67,5 +87,131 @@ class TodoRepositoryTest {
 		assertThat(returned.getDescription()).isEqualTo(saved.getDescription());
 	}
 	
+	@Test
+	void testScrollTodosByCursor() {
+		todoRepository.save(new Todo(0, "Title Test 2", "Description Test 2 ", LocalDate.now().plusDays(3), 2));
+		Sort sort = TodoField.PRIORITY.sortBy(Sort.Direction.DESC);
+		
+		Window<Todo> firstWindow = todoRepository.findAllBy(ScrollPosition.keyset(), sort, Limit.of(2));
+		Todo lastTodo = firstWindow.getContent().get(1);
+		ScrollPosition next = TodoCursor.decode(TodoCursor.after(lastTodo, TodoField.PRIORITY, Sort.Direction.DESC).encode()).toScrollPosition();
+		Window<Todo> secondWindow = todoRepository.findAllBy(next, sort, Limit.of(2));
+		
+		assertThat(firstWindow.hasNext()).isTrue();
+		assertThat(firstWindow.getContent()).extracting(Todo::getTitle).containsExactly("Title Test 2", "Title Test 1");
+		assertThat(secondWindow.getContent()).extracting(Todo::getTitle).containsExactly("Title Test 0");
+		assertThat(secondWindow.hasNext()).isFalse();
+	}
+	
+	@Test
+	void testScrollTodosByCursor_NullTargetDates() {
+		// the entity requires a date, so rows without one can only come from SQL
+		for (String title : List.of("Undated 0", "Undated 1")) {
+			entityManager.createNativeQuery("INSERT INTO todo (id, title, priority, version) VALUES (NEXT VALUE FOR todo_seq, ?, 2, 0)")
+					.setParameter(1, title)
+					.executeUpdate();
+		}
+
+		// null sorts lowest: first ascending, last descending
+		assertThat(scrollOneByOne(TodoField.TARGETDATE, Sort.Direction.ASC))
+				.containsExactly("Undated 0", "Undated 1", "Title Test 0", "Title Test 1");
+		assertThat(scrollOneByOne(TodoField.TARGETDATE, Sort.Direction.DESC))
+				.containsExactly("Title Test 1", "Title Test 0", "Undated 1", "Undated 0");
+	}
+
+	@Test
+	void testCreateTodosAssignsSequenceIds() {
+		List<Todo> saved = todoRepository.saveAll(List.of(
+				new Todo(0, "Title Test 3", "Description Test 3 ", LocalDate.now().plusDays(1), 1),
+				new Todo(0, "Title Test 4", "Description Test 4 ", LocalDate.now().plusDays(1), 1)));
+		
+		assertThat(saved.get(1).getId()).isEqualTo(saved.get(0).getId() + 1);
+	}
+	
+	@Test
+	void testUpdateTodoFields() {
+		Todo todo = todoRepository.save(new Todo(0, "Title Test 5", "Description Test 5 ", LocalDate.now().plusDays(1), 1));
+		
+		int updatedRows = todoRepository.updateFields(todo.getId(), Map.of(TodoField.PRIORITY, 4), null);
+		
+		assertThat(updatedRows).isEqualTo(1);
+		assertThat(todoRepository.findById(todo.getId()).get().getPriority()).isEqualTo(4);
+		assertThat(todoRepository.findById(todo.getId()).get().getTitle()).isEqualTo("Title Test 5");
+		assertThat(todoRepository.findById(todo.getId()).get().getVersion()).isEqualTo(1);
+		assertThat(todoRepository.updateFields(-1, Map.of(TodoField.PRIORITY, 4), null)).isZero();
+		assertThat(todoRepository.updateFields(todo.getId(), Map.of(TodoField.PRIORITY, 3), 0L)).isZero();
+	}
+	
+	@Test
+	void testDeleteTodoById() {
+		Todo todo = todoRepository.save(new Todo(0, "Title Test 6", "Description Test 6 ", LocalDate.now().plusDays(1), 1));
+		
+		assertThat(todoRepository.deleteTodoById(todo.getId())).isEqualTo(1);
+		assertThat(todoRepository.deleteTodoById(todo.getId())).isZero();
+	}
+	
+	@Test
+	void testFindDtosWithoutManagedEntities() {
+		entityManager.flush();
+		entityManager.clear();
+		Sort sort = TodoField.PRIORITY.sortBy(Sort.Direction.DESC);
+		
+		Slice<TodoDto> firstSlice = todoRepository.findDtosBy(PageRequest.of(0, 1, sort));
+		int id = firstSlice.getContent().get(0).getId();
+		Optional<TodoDto> todoDto = todoRepository.findDtoById(id);
+		List<TodoDto> todoDtos = todoRepository.findDtosByIdIn(List.of(id, -1));
+		
+		assertThat(firstSlice.getContent()).extracting(TodoDto::getTitle).containsExactly("Title Test 1");
+		assertThat(firstSlice.hasNext()).isTrue();
+		assertThat(todoDto.get().getPriority()).isEqualTo(2);
+		assertThat(todoDtos).extracting(TodoDto::getId).containsExactly(id);
+		assertThat(todoRepository.findDtoById(-1)).isEmpty();
+		assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+	}
+	
+	@Test
+	void testFindDtoSliceFiltered() {
+		LocalDate date = LocalDate.now();
+		todoRepository.save(new Todo(0, "Title Test 2", "Description Test 2 ", date.plusDays(3), 2));
+		todoRepository.save(new Todo(0, "Title Test 3", "Description Test 3 ", date.plusDays(9), 2));
+		TodoFilter filter = TodoFilter.of(List.of(2), date.plusDays(5), null, null, date);
+		
+		Slice<TodoDto> firstSlice = todoRepository.findDtoSlice(filter.toSpecification(), PageRequest.of(0, 1, TodoField.TARGETDATE.sortBy(Sort.Direction.DESC)));
+		Slice<TodoVersion> versions = todoRepository.findVersionSlice(filter.toSpecification(), PageRequest.of(1, 1, TodoField.TARGETDATE.sortBy(Sort.Direction.DESC)));
+		
+		assertThat(firstSlice.getContent()).extracting(TodoDto::getTitle).containsExactly("Title Test 2");
+		assertThat(firstSlice.hasNext()).isTrue();
+		assertThat(versions.getContent()).extracting(TodoVersion::getVersion).containsExactly(0L);
+		assertThat(versions.hasNext()).isFalse();
+		assertThat(todoRepository.count(filter.toSpecification())).isEqualTo(2);
+		assertThat(todoRepository.count(TodoFilter.of(null, null, null, true, date).toSpecification())).isZero();
+	}
+	
+	@Test
+	void testStreamAllTodosSorted() {
+		todoRepository.save(new Todo(0, "Title Test 2", "Description Test 2 ", LocalDate.now().plusDays(3), 2));
+		
+		try (Stream<Todo> todos = todoRepository.streamAll(TodoField.PRIORITY.sortBy(Sort.Direction.DESC), 1)) {
+			List<String> titles = todos.map(Todo::getTitle).toList();
+			
+			assertThat(titles).containsExactly("Title Test 2", "Title Test 1", "Title Test 0");
+		}
+	}
 
+	/** Titles of every todo, one page of one at a time, each page from the previous one's cursor. */
+	private List<String> scrollOneByOne(TodoField field, Sort.Direction direction) {
+		Sort sort = field.sortBy(direction);
+		List<String> titles = new ArrayList<>();
+		Window<Todo> window = todoRepository.findAllBy(ScrollPosition.keyset(), sort, Limit.of(1));
+		while (true) {
+			Todo last = window.getContent().get(0);
+			titles.add(last.getTitle());
+			if (!window.hasNext()) {
+				return titles;
+			}
+			TodoCursor cursor = TodoCursor.decode(TodoCursor.after(last, field, direction).encode());
+			window = todoRepository.findBy(cursor.toNullableSeek(),
+					query -> query.sortBy(sort).limit(1).scroll(ScrollPosition.keyset()));
+		}
+	}
 }
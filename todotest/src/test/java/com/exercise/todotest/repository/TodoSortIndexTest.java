@@ -0,0 +1,159 @@
+package com.exercise.todotest.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+
+import com.exercise.todotest.entity.Todo;
+import com.exercise.todotest.enums.TodoField;
+import com.exercise.todotest.service.TodoCursor;
+import com.exercise.todotest.service.TodoFilter;
+
+/**
+ * Runs {@code EXPLAIN} on the SQL behind every sorted and filtered read, for
+ * each {@link TodoField} and direction, against the Flyway schema on H2 in
+ * MySQL mode. A plan that scans the table, sorts an unfiltered read itself,
+ * or checks a filter row by row means a migration is missing an index.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:sortindex;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector=com.exercise.todotest.repository.TodoSortIndexTest$RecordingInspector" })
+class TodoSortIndexTest {
+	private static final List<String> statements = new ArrayList<>();
+	// H2 prints the condition an index is read with after its name
+	private static final Pattern INDEX_CONDITION = Pattern.compile("/\\* PUBLIC\\.\\w+: ");
+
+	public static class RecordingInspector implements StatementInspector {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public String inspect(String sql) {
+			statements.add(sql);
+			return sql;
+		}
+	}
+
+	@Autowired
+	TodoRepository todoRepository;
+
+	@Autowired
+	DataSource dataSource;
+
+	private Todo todo;
+
+	@BeforeEach
+	void setup() {
+		LocalDate date = LocalDate.now();
+		todo = todoRepository.save(new Todo(0, "Title Test 0", "Description Test 0 ", date.plusDays(1), 1));
+		todoRepository.save(new Todo(0, "Title Test 1", "Description Test 1 ", date.plusDays(2), 2));
+		todoRepository.flush();
+	}
+
+	@Test
+	void testEveryFilterIsAnIndexCondition() throws SQLException {
+		LocalDate today = LocalDate.now();
+		List<TodoFilter> filters = List.of(
+				TodoFilter.of(List.of(1, 2), null, null, null, today),
+				TodoFilter.of(null, null, null, true, today),
+				TodoFilter.of(null, today.plusDays(30), null, false, today),
+				TodoFilter.of(List.of(3), today.plusDays(30), today, null, today));
+		List<String> failures = new ArrayList<>();
+
+		for (TodoFilter filter : filters) {
+			for (TodoField field : TodoField.values()) {
+				for (Sort.Direction direction : Sort.Direction.values()) {
+					Sort sort = field.sortBy(direction);
+					statements.clear();
+
+					todoRepository.findDtoSlice(filter.toSpecification(), PageRequest.of(1, 20, sort));
+					todoRepository.findVersionSlice(filter.toSpecification(), PageRequest.of(1, 20, sort));
+					todoRepository.findBy(filter.toSpecification(),
+							query -> query.sortBy(sort).limit(20).scroll(TodoCursor.after(todo, field, direction).toScrollPosition()));
+					todoRepository.count(filter.toSpecification());
+
+					for (String sql : statements) {
+						String plan = explain(sql);
+						if (plan.contains(".tableScan") || !INDEX_CONDITION.matcher(plan).find()) {
+							failures.add(filter + " " + field + " " + direction + ": " + plan);
+						}
+					}
+				}
+			}
+		}
+
+		// priority and date range together read the composite index rather than one column's
+		statements.clear();
+		todoRepository.findDtoSlice(filters.get(3).toSpecification(), PageRequest.of(0, 20, TodoField.ID.sortBy(Sort.Direction.DESC)));
+		assertThat(explain(statements.get(0))).contains("IDX_TODO_PRIORITY_TARGET_DATE_ID");
+		assertThat(failures).isEmpty();
+	}
+
+	@Test
+	void testEverySortIsServedByAnIndex() throws SQLException {
+		List<String> failures = new ArrayList<>();
+
+		for (TodoField field : TodoField.values()) {
+			for (Sort.Direction direction : Sort.Direction.values()) {
+				Sort sort = field.sortBy(direction);
+				statements.clear();
+
+				todoRepository.findDtosBy(PageRequest.of(1, 20, sort));
+				todoRepository.findVersionsBy(PageRequest.of(1, 20, sort));
+				todoRepository.findAllBy(TodoCursor.after(todo, field, direction).toScrollPosition(), sort, Limit.of(20));
+				try (Stream<Todo> todos = todoRepository.streamAll(sort, 500)) {
+					todos.count();
+				}
+
+				for (String sql : statements) {
+					if (!sql.contains(" order by ")) {
+						continue;
+					}
+					String plan = explain(sql);
+					if (plan.contains(".tableScan") || !plan.contains("/* index sorted */")) {
+						failures.add(field + " " + direction + ": " + plan);
+					}
+				}
+			}
+		}
+
+		assertThat(failures).isEmpty();
+	}
+
+	// parameters only matter to the plan through their types, so null is enough
+	private String explain(String sql) throws SQLException {
+		try (Connection connection = dataSource.getConnection();
+				PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+			for (int index = 1; index <= statement.getParameterMetaData().getParameterCount(); index++) {
+				statement.setNull(index, Types.NULL);
+			}
+			try (ResultSet resultSet = statement.executeQuery()) {
+				resultSet.next();
+				return resultSet.getString(1).replace('\n', ' ');
+			}
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package com.exercise.todotest.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class TodoCountCacheTest {
+	private final TodoCountCache todoCountCache = new TodoCountCache(100, Duration.ofMinutes(5));
+
+	@Test
+	void invalidateFiltered_KeepsTotalAndReloadsFiltered() {
+		AtomicLong counts = new AtomicLong();
+		todoCountCache.getTotal(TodoCountCache.ALL, () -> 10);
+		todoCountCache.getTotal("priority=1", counts::incrementAndGet);
+
+		todoCountCache.invalidateFiltered();
+
+		assertThat(todoCountCache.getTotal(TodoCountCache.ALL, () -> -1)).isEqualTo(10);
+		assertThat(todoCountCache.getTotal("priority=1", counts::incrementAndGet)).isEqualTo(2);
+		assertThat(todoCountCache.getTotal("priority=1", counts::incrementAndGet)).isEqualTo(2);
+	}
+
+	@Test
+	void getTotal_UpdatedWhileCounting_NotServedAfterwards() {
+		AtomicLong counts = new AtomicLong();
+
+		todoCountCache.getTotal("priority=1", () -> {
+			todoCountCache.invalidateFiltered();
+			return counts.incrementAndGet();
+		});
+
+		assertThat(todoCountCache.getTotal("priority=1", counts::incrementAndGet)).isEqualTo(2);
+	}
+
+	@Test
+	void adjust_ShiftsTotalAndDropsFiltered() {
+		todoCountCache.getTotal(TodoCountCache.ALL, () -> 10);
+		todoCountCache.getTotal("priority=1", () -> 3);
+
+		todoCountCache.adjust(-1);
+
+		assertThat(todoCountCache.getTotal(TodoCountCache.ALL, () -> -1)).isEqualTo(9);
+		assertThat(todoCountCache.getTotal("priority=1", () -> 2)).isEqualTo(2);
+	}
+
+	@Test
+	void adjust_InTransaction_AppliedOnCommitOnly() {
+		todoCountCache.getTotal(TodoCountCache.ALL, () -> 10);
+
+		List<TransactionSynchronization> rolledBack = inTransaction(() -> todoCountCache.adjust(1));
+		assertThat(todoCountCache.getTotal(TodoCountCache.ALL, () -> -1)).isEqualTo(10);
+		complete(rolledBack, TransactionSynchronization.STATUS_ROLLED_BACK);
+		assertThat(todoCountCache.getTotal(TodoCountCache.ALL, () -> -1)).isEqualTo(10);
+
+		complete(inTransaction(() -> todoCountCache.adjust(-1)), TransactionSynchronization.STATUS_COMMITTED);
+		assertThat(todoCountCache.getTotal(TodoCountCache.ALL, () -> -1)).isEqualTo(9);
+	}
+
+	@Test
+	void getTotal_CountedBeforeAdjustCommitted_NotCached() {
+		List<TransactionSynchronization> create = inTransaction(() -> todoCountCache.adjust(1));
+
+		// counted before the insert became visible
+		assertThat(todoCountCache.getTotal(TodoCountCache.ALL, () -> 10)).isEqualTo(10);
+		complete(create, TransactionSynchronization.STATUS_COMMITTED);
+
+		assertThat(todoCountCache.getTotal(TodoCountCache.ALL, () -> 11)).isEqualTo(11);
+	}
+
+	private static List<TransactionSynchronization> inTransaction(Runnable writes) {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			writes.run();
+			return TransactionSynchronizationManager.getSynchronizations();
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	private static void complete(List<TransactionSynchronization> synchronizations, int status) {
+		if (status == TransactionSynchronization.STATUS_COMMITTED) {
+			synchronizations.forEach(TransactionSynchronization::afterCommit);
+		}
+		synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+	}
+}
@@ -0,0 +1,308 @@
+package com.exercise.todotest.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.dto.TodoEventDto;
+import com.exercise.todotest.enums.TodoEventType;
+
+class TodoEventBroadcasterTest {
+	private static final Pattern EVENT_ID = Pattern.compile("id:(\\S+)");
+
+	private TodoEventBroadcaster todoEventBroadcaster;
+
+	@AfterEach
+	void teardown() {
+		todoEventBroadcaster.shutdown();
+	}
+
+	@Test
+	void publish_Subscribed_ReceivesEventsInOrder() throws Exception {
+		todoEventBroadcaster = broadcaster(16, 8, "drop-oldest");
+		RecordingEmitter emitter = new RecordingEmitter(null);
+		todoEventBroadcaster.subscribe(emitter, null);
+
+		todoEventBroadcaster.publish(TodoEventType.CREATED, 1, todo(1));
+		todoEventBroadcaster.publish(TodoEventType.UPDATED, 1, null);
+		todoEventBroadcaster.publish(TodoEventType.DELETED, 1, null);
+
+		await(() -> emitter.payloads().size() == 3);
+		assertThat(emitter.payloads()).extracting(TodoEventDto::getType)
+				.containsExactly(TodoEventType.CREATED, TodoEventType.UPDATED, TodoEventType.DELETED);
+		assertThat(emitter.payloads().get(0).getTodo().getTitle()).isEqualTo("Todo 1");
+	}
+
+	@Test
+	void subscribe_LastEventId_ReplaysOnlyMissedEvents() throws Exception {
+		todoEventBroadcaster = broadcaster(16, 8, "drop-oldest");
+		RecordingEmitter first = new RecordingEmitter(null);
+		todoEventBroadcaster.subscribe(first, null);
+		todoEventBroadcaster.publish(TodoEventType.CREATED, 1, null);
+		await(() -> first.payloads().size() == 1);
+		String lastEventId = first.lastEventId();
+
+		todoEventBroadcaster.publish(TodoEventType.CREATED, 2, null);
+		todoEventBroadcaster.publish(TodoEventType.CREATED, 3, null);
+		RecordingEmitter resumed = new RecordingEmitter(null);
+		todoEventBroadcaster.subscribe(resumed, lastEventId);
+
+		await(() -> resumed.payloads().size() == 2);
+		assertThat(resumed.payloads()).extracting(TodoEventDto::getTodoId).containsExactly(2, 3);
+		assertThat(resumed.resyncs()).isZero();
+	}
+
+	@Test
+	void subscribe_LastEventIdOutsideWindow_Resync() throws Exception {
+		todoEventBroadcaster = broadcaster(2, 8, "drop-oldest");
+		RecordingEmitter first = new RecordingEmitter(null);
+		todoEventBroadcaster.subscribe(first, null);
+		todoEventBroadcaster.publish(TodoEventType.CREATED, 1, null);
+		await(() -> first.payloads().size() == 1);
+		String lastEventId = first.lastEventId();
+		for (int id = 2; id <= 5; id++) {
+			todoEventBroadcaster.publish(TodoEventType.CREATED, id, null);
+		}
+
+		RecordingEmitter resumed = new RecordingEmitter(null);
+		todoEventBroadcaster.subscribe(resumed, lastEventId);
+
+		await(() -> resumed.resyncs() == 1);
+		assertThat(resumed.payloads()).isEmpty();
+	}
+
+	@Test
+	void subscribe_LastEventIdFromAnotherInstance_Resync() throws Exception {
+		todoEventBroadcaster = broadcaster(16, 8, "drop-oldest");
+		RecordingEmitter emitter = new RecordingEmitter(null);
+
+		todoEventBroadcaster.subscribe(emitter, "unknown-1");
+
+		await(() -> emitter.resyncs() == 1);
+	}
+
+	@Test
+	void subscribe_BacklogLargerThanBufferDropOldest_Resync() throws Exception {
+		assertBacklogLargerThanBufferResyncs("drop-oldest");
+	}
+
+	@Test
+	void subscribe_BacklogLargerThanBufferDisconnect_Resync() throws Exception {
+		assertBacklogLargerThanBufferResyncs("disconnect");
+	}
+
+	@Test
+	void subscribe_BacklogFillingBufferDisconnect_ReplaysAll() throws Exception {
+		todoEventBroadcaster = broadcaster(16, 4, "disconnect");
+		String lastEventId = publishMissed(4);
+
+		RecordingEmitter resumed = new RecordingEmitter(null);
+		todoEventBroadcaster.subscribe(resumed, lastEventId);
+
+		await(() -> resumed.payloads().size() == 4);
+		assertThat(resumed.payloads()).extracting(TodoEventDto::getTodoId).containsExactly(2, 3, 4, 5);
+		assertThat(resumed.resyncs()).isZero();
+		assertThat(resumed.isCompleted()).isFalse();
+	}
+
+	@Test
+	void subscribe_ClosedWhileReplaying_NotRegistered() throws Exception {
+		todoEventBroadcaster = broadcaster(16, 4, "disconnect");
+		String lastEventId = publishMissed(1);
+		RecordingEmitter closed = new RecordingEmitter(null) {
+			@Override
+			public void send(SseEventBuilder builder) throws IOException {
+				throw new IOException("Broken pipe");
+			}
+		};
+
+		todoEventBroadcaster.subscribe(closed, lastEventId);
+
+		// only the subscriber that published the backlog is left
+		await(() -> todoEventBroadcaster.getSubscriberCount() == 1);
+		Thread.sleep(50);
+		assertThat(todoEventBroadcaster.getSubscriberCount()).isEqualTo(1);
+	}
+
+	@Test
+	void publish_SlowSubscriberDropOldest_KeepsNewestAndResyncs() throws Exception {
+		todoEventBroadcaster = broadcaster(16, 4, "drop-oldest");
+		CountDownLatch release = new CountDownLatch(1);
+		RecordingEmitter slow = new RecordingEmitter(release);
+		todoEventBroadcaster.subscribe(slow, null);
+
+		// the first one is being sent and blocks, the next 10 overflow a buffer of 4
+		todoEventBroadcaster.publish(TodoEventType.CREATED, 1, null);
+		assertThat(slow.sending.await(5, TimeUnit.SECONDS)).isTrue();
+		for (int id = 2; id <= 11; id++) {
+			todoEventBroadcaster.publish(TodoEventType.CREATED, id, null);
+		}
+		release.countDown();
+
+		await(() -> slow.payloads().size() == 5);
+		assertThat(slow.payloads()).extracting(TodoEventDto::getTodoId).containsExactly(1, 8, 9, 10, 11);
+		assertThat(slow.resyncs()).isEqualTo(1);
+		assertThat(todoEventBroadcaster.getSubscriberCount()).isEqualTo(1);
+	}
+
+	@Test
+	void publish_SlowSubscriberDisconnect_Removed() throws Exception {
+		todoEventBroadcaster = broadcaster(16, 4, "disconnect");
+		CountDownLatch release = new CountDownLatch(1);
+		RecordingEmitter slow = new RecordingEmitter(release);
+		RecordingEmitter fast = new RecordingEmitter(null);
+		todoEventBroadcaster.subscribe(slow, null);
+		todoEventBroadcaster.subscribe(fast, null);
+
+		todoEventBroadcaster.publish(TodoEventType.CREATED, 1, null);
+		assertThat(slow.sending.await(5, TimeUnit.SECONDS)).isTrue();
+		await(() -> fast.payloads().size() == 1);
+		// the fast one keeps up, while the slow one's buffer of 4 overflows
+		for (int id = 2; id <= 11; id++) {
+			int sent = id;
+			todoEventBroadcaster.publish(TodoEventType.CREATED, id, null);
+			await(() -> fast.payloads().size() == sent);
+		}
+
+		assertThat(todoEventBroadcaster.getSubscriberCount()).isEqualTo(1);
+		await(slow::isCompleted);
+		release.countDown();
+		await(() -> slow.payloads().size() == 1);
+		Thread.sleep(50);
+		assertThat(slow.payloads()).extracting(TodoEventDto::getTodoId).containsExactly(1);
+	}
+
+	private void assertBacklogLargerThanBufferResyncs(String slowConsumer) throws Exception {
+		todoEventBroadcaster = broadcaster(16, 4, slowConsumer);
+		String lastEventId = publishMissed(6);
+
+		RecordingEmitter resumed = new RecordingEmitter(null);
+		todoEventBroadcaster.subscribe(resumed, lastEventId);
+
+		await(() -> resumed.resyncs() == 1);
+		assertThat(resumed.payloads()).isEmpty();
+		assertThat(resumed.isCompleted()).isFalse();
+		assertThat(todoEventBroadcaster.getSubscriberCount()).isEqualTo(2);
+
+		// still subscribed, it gets what comes next
+		todoEventBroadcaster.publish(TodoEventType.CREATED, 100, null);
+		await(() -> resumed.payloads().size() == 1);
+		assertThat(resumed.payloads().get(0).getTodoId()).isEqualTo(100);
+	}
+
+	/**
+	 * Publishes todo 1 to a subscriber, which stays subscribed, then {@code missed}
+	 * more; returns the id of todo 1's event.
+	 */
+	private String publishMissed(int missed) throws Exception {
+		RecordingEmitter first = new RecordingEmitter(null);
+		todoEventBroadcaster.subscribe(first, null);
+		todoEventBroadcaster.publish(TodoEventType.CREATED, 1, null);
+		await(() -> first.payloads().size() == 1);
+		String lastEventId = first.lastEventId();
+		for (int id = 2; id <= missed + 1; id++) {
+			int sent = id;
+			todoEventBroadcaster.publish(TodoEventType.CREATED, id, null);
+			await(() -> first.payloads().size() == sent);
+		}
+		return lastEventId;
+	}
+
+	private static TodoEventBroadcaster broadcaster(int retained, int bufferSize, String slowConsumer) {
+		return new TodoEventBroadcaster(retained, bufferSize, slowConsumer, Duration.ofMinutes(1), Duration.ofHours(1));
+	}
+
+	private static TodoDto todo(int id) {
+		return new TodoDto(id, "Todo " + id, "Description", LocalDate.now().plusDays(1), 2);
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + 5_000_000_000L;
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("condition not met within 5s").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	/** Records what would be written to the client; the first send blocks until {@code release} opens, if given. */
+	private static class RecordingEmitter extends SseEmitter {
+		private final CountDownLatch release;
+		private final CountDownLatch sending = new CountDownLatch(1);
+		private final List<String> texts = new ArrayList<>();
+		private final List<TodoEventDto> payloads = new ArrayList<>();
+		private volatile boolean completed;
+
+		RecordingEmitter(CountDownLatch release) {
+			this.release = release;
+		}
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			sending.countDown();
+			if (release != null) {
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			StringBuilder text = new StringBuilder();
+			TodoEventDto payload = null;
+			for (DataWithMediaType data : builder.build()) {
+				if (data.getData() instanceof TodoEventDto todoEventDto) {
+					payload = todoEventDto;
+				} else {
+					text.append(data.getData());
+				}
+			}
+			synchronized (this) {
+				texts.add(text.toString());
+				if (payload != null) {
+					payloads.add(payload);
+				}
+			}
+		}
+
+		@Override
+		public void complete() {
+			completed = true;
+		}
+
+		boolean isCompleted() {
+			return completed;
+		}
+
+		synchronized List<TodoEventDto> payloads() {
+			return List.copyOf(payloads);
+		}
+
+		synchronized long resyncs() {
+			return texts.stream().filter(text -> text.contains("event:resync")).count();
+		}
+
+		synchronized String lastEventId() {
+			String lastEventId = null;
+			for (String text : texts) {
+				Matcher matcher = EVENT_ID.matcher(text);
+				if (matcher.find()) {
+					lastEventId = matcher.group(1);
+				}
+			}
+			return lastEventId;
+		}
+	}
+}
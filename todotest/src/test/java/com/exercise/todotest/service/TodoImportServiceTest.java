@@ -0,0 +1,138 @@
+package com.exercise.todotest.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.exercise.todotest.dto.ImportSummaryDto;
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.enums.ExportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TodoImportServiceTest {
+	private static final String TARGET_DATE = LocalDate.now().plusDays(7).toString();
+
+	@Mock
+	TodoService todoService;
+	@Spy
+	Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+	@Spy
+	ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+	@InjectMocks
+	TodoImportService todoImportService;
+
+	private List<String> importTodos(ExportFormat format, String body) throws Exception {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		todoImportService.importTodos(format, StandardCharsets.UTF_8,
+				new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), outputStream);
+		return outputStream.toString(StandardCharsets.UTF_8).lines().toList();
+	}
+
+	@Test
+	void importTodos_CsvQuotedLineBreak_Success() throws Exception {
+		todoImportService.chunkSize = 10;
+		todoImportService.maxRecordLength = 1000;
+		List<TodoDto> created = new ArrayList<>();
+		when(todoService.createTodos(Mockito.anyList())).thenAnswer(invocation -> {
+			created.addAll(invocation.getArgument(0));
+			return List.of(7);
+		});
+
+		String body = "title,description,targetDate,priority\r\n"
+				+ "Title,\"Line one,\r\nline \"\"two\"\"\"," + TARGET_DATE + ",2\r\n";
+		List<String> lines = importTodos(ExportFormat.CSV, body);
+
+		assertAll(
+				() -> assertEquals("Line one,\r\nline \"two\"", created.get(0).getDescription()),
+				() -> assertEquals(List.of("{\"line\":2,\"id\":7}", "{\"created\":1,\"failed\":0}"), lines));
+	}
+
+	@Test
+	void importTodos_InvalidRecords_ReportedInOrder() throws Exception {
+		todoImportService.chunkSize = 10;
+		todoImportService.maxRecordLength = 100;
+		when(todoService.createTodos(Mockito.anyList())).thenReturn(List.of(1));
+
+		String valid = "{\"title\":\"Title\",\"description\":\"Description\",\"targetDate\":\"" + TARGET_DATE + "\",\"priority\":1}";
+		String body = "{\"title\":\"T\",\"description\":\"Description\",\"targetDate\":\"" + TARGET_DATE + "\",\"priority\":1}\n"
+				+ "\n"
+				+ "{not json\n"
+				+ valid + "\n"
+				+ "{\"title\":\"" + "x".repeat(200) + "\"}\n";
+		List<String> lines = importTodos(ExportFormat.NDJSON, body);
+
+		assertAll(
+				() -> assertEquals(5, lines.size()),
+				() -> assertThat(lines.get(0)).startsWith("{\"line\":1,\"errors\":{\"title\":"),
+				() -> assertThat(lines.get(1)).startsWith("{\"line\":3,\"errors\":{\"line\":"),
+				() -> assertEquals("{\"line\":4,\"id\":1}", lines.get(2)),
+				() -> assertEquals("{\"line\":5,\"errors\":{\"line\":\"Record is longer than 100 characters\"}}", lines.get(3)),
+				() -> assertEquals("{\"created\":1,\"failed\":3}", lines.get(4)));
+	}
+
+	@Test
+	void importTodos_FailedChunk_KeepsEarlierChunks() throws Exception {
+		todoImportService.chunkSize = 2;
+		todoImportService.maxRecordLength = 1000;
+		when(todoService.createTodos(Mockito.anyList()))
+				.thenReturn(List.of(1, 2))
+				.thenThrow(new DataIntegrityViolationException("duplicate"))
+				.thenReturn(List.of(5));
+
+		StringBuilder body = new StringBuilder("title,description,targetDate,priority\n");
+		for (int i = 0; i < 5; i++) {
+			body.append("Title,Description,").append(TARGET_DATE).append(",1\n");
+		}
+		List<String> lines = importTodos(ExportFormat.CSV, body.toString());
+
+		verify(todoService, times(3)).createTodos(Mockito.anyList());
+		assertEquals(List.of(
+				"{\"line\":2,\"id\":1}",
+				"{\"line\":3,\"id\":2}",
+				"{\"line\":4,\"errors\":{\"chunk\":\"duplicate\"}}",
+				"{\"line\":5,\"errors\":{\"chunk\":\"duplicate\"}}",
+				"{\"line\":6,\"id\":5}",
+				"{\"created\":3,\"failed\":2}"), lines);
+	}
+
+	@Test
+	void importTodos_CsvMissingColumns_Failure() throws Exception {
+		todoImportService.chunkSize = 10;
+		todoImportService.maxRecordLength = 1000;
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		ImportSummaryDto summary = todoImportService.importTodos(ExportFormat.CSV, StandardCharsets.UTF_8,
+				new ByteArrayInputStream("title,priority\nTitle,1\n".getBytes(StandardCharsets.UTF_8)), outputStream);
+
+		verify(todoService, times(0)).createTodos(Mockito.anyList());
+		assertAll(
+				() -> assertEquals(0, summary.getCreated()),
+				() -> assertEquals(1, summary.getFailed()),
+				() -> assertThat(outputStream.toString(StandardCharsets.UTF_8))
+						.startsWith("{\"line\":1,\"errors\":{\"header\":\"Missing columns [description, targetDate]\"}}"));
+	}
+}
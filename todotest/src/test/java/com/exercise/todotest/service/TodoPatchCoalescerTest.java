@@ -0,0 +1,198 @@
+package com.exercise.todotest.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
+
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.enums.TodoField;
+
+import jakarta.validation.ValidationException;
+
+class TodoPatchCoalescerTest {
+	private static final Duration WINDOW = Duration.ofMillis(200);
+
+	private TodoPatchCoalescer todoPatchCoalescer;
+	private TodoService todoService;
+
+	@BeforeEach
+	void setup() {
+		todoService = Mockito.mock(TodoService.class);
+		todoPatchCoalescer = new TodoPatchCoalescer(WINDOW, 16);
+		todoPatchCoalescer.todoService = todoService;
+	}
+
+	@Test
+	void patch_BurstToSameId_OneUpdateWithLastWriterWins() throws Exception {
+		TodoDto merged = new TodoDto(1, "Second", "Description", LocalDate.now().plusDays(1), 3);
+		when(todoService.applyChanges(Mockito.eq(1), Mockito.anyMap(), Mockito.anyBoolean(), Mockito.isNull()))
+				.thenReturn(merged);
+
+		List<TodoDto> results = patchInOrder(1, List.of(
+				Map.of("title", "First", "priority", 2),
+				Map.of("priority", 3),
+				Map.of("title", "Second")));
+
+		assertThat(results).containsOnly(merged);
+		verify(todoService, times(1)).applyChanges(1,
+				Map.of(TodoField.TITLE, "Second", TodoField.PRIORITY, 3), true, null);
+	}
+
+	@Test
+	void patch_DifferentIds_NotMerged() throws Exception {
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			Future<TodoDto> first = executor.submit(() -> todoPatchCoalescer.patch(1, Map.of("priority", 2), false));
+			Future<TodoDto> second = executor.submit(() -> todoPatchCoalescer.patch(2, Map.of("priority", 3), false));
+			first.get();
+			second.get();
+		}
+
+		verify(todoService).applyChanges(1, Map.of(TodoField.PRIORITY, 2), false, null);
+		verify(todoService).applyChanges(2, Map.of(TodoField.PRIORITY, 3), false, null);
+	}
+
+	@Test
+	void patch_InvalidPatch_FailsAlone() throws Exception {
+		assertThrows(ValidationException.class, () -> todoPatchCoalescer.patch(1, Map.of("priority", 9), true));
+
+		todoPatchCoalescer.patch(1, Map.of("priority", 4), true);
+
+		verify(todoService, times(1)).applyChanges(1, Map.of(TodoField.PRIORITY, 4), true, null);
+	}
+
+	@Test
+	void patch_TodoMissing_EveryCallerFails() throws Exception {
+		when(todoService.applyChanges(Mockito.eq(1), Mockito.anyMap(), Mockito.anyBoolean(), Mockito.isNull()))
+				.thenThrow(new NoResourceFoundException(null, "Todo with id '1'"));
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			Future<TodoDto> first = executor.submit(() -> todoPatchCoalescer.patch(1, Map.of("priority", 2), true));
+			Future<TodoDto> second = executor.submit(() -> todoPatchCoalescer.patch(1, Map.of("priority", 3), true));
+
+			ExecutionException firstFailure = assertThrows(ExecutionException.class, first::get);
+			ExecutionException secondFailure = assertThrows(ExecutionException.class, second::get);
+			assertThat(firstFailure.getCause()).isInstanceOf(NoResourceFoundException.class);
+			assertThat(secondFailure.getCause()).isInstanceOf(NoResourceFoundException.class);
+		}
+		verify(todoService, times(1)).applyChanges(Mockito.eq(1), Mockito.anyMap(), Mockito.anyBoolean(), Mockito.isNull());
+	}
+
+	@Test
+	void patch_LaterBatch_WaitsForEarlierOne() throws Exception {
+		CountDownLatch firstApplying = new CountDownLatch(1);
+		CountDownLatch releaseFirst = new CountDownLatch(1);
+		List<Object> applied = new ArrayList<>();
+		when(todoService.applyChanges(Mockito.eq(1), Mockito.anyMap(), Mockito.anyBoolean(), Mockito.isNull()))
+				.thenAnswer(invocation -> {
+					Map<?, ?> changes = invocation.getArgument(1);
+					if (changes.get(TodoField.PRIORITY).equals(2)) {
+						firstApplying.countDown();
+						releaseFirst.await();
+					}
+					synchronized (applied) {
+						applied.add(changes.get(TodoField.PRIORITY));
+					}
+					return null;
+				});
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			Future<TodoDto> first = executor.submit(() -> todoPatchCoalescer.patch(1, Map.of("priority", 2), false));
+			assertThat(firstApplying.await(5, TimeUnit.SECONDS)).isTrue();
+			Future<TodoDto> second = executor.submit(() -> todoPatchCoalescer.patch(1, Map.of("priority", 3), false));
+
+			// well past the second batch's window, it must still be waiting
+			Thread.sleep(WINDOW.multipliedBy(2));
+			assertThat(second.isDone()).isFalse();
+
+			releaseFirst.countDown();
+			first.get();
+			second.get();
+		}
+		assertThat(applied).containsExactly(2, 3);
+	}
+
+	@Test
+	void patch_InterruptedInWindow_StillWaitsForEarlierBatch() throws Exception {
+		CountDownLatch firstApplying = new CountDownLatch(1);
+		CountDownLatch releaseFirst = new CountDownLatch(1);
+		List<Object> applied = new ArrayList<>();
+		when(todoService.applyChanges(Mockito.eq(1), Mockito.anyMap(), Mockito.anyBoolean(), Mockito.isNull()))
+				.thenAnswer(invocation -> {
+					Map<?, ?> changes = invocation.getArgument(1);
+					if (changes.get(TodoField.PRIORITY).equals(2)) {
+						firstApplying.countDown();
+						releaseFirst.await();
+					}
+					synchronized (applied) {
+						applied.add(changes.get(TodoField.PRIORITY));
+					}
+					return null;
+				});
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			Future<TodoDto> first = executor.submit(() -> todoPatchCoalescer.patch(1, Map.of("priority", 2), false));
+			assertThat(firstApplying.await(5, TimeUnit.SECONDS)).isTrue();
+			AtomicBoolean interruptedAfter = new AtomicBoolean();
+			Thread second = Thread.ofVirtual().start(() -> {
+				try {
+					todoPatchCoalescer.patch(1, Map.of("priority", 3), false);
+				} catch (NoResourceFoundException e) {
+					throw new IllegalStateException(e);
+				}
+				interruptedAfter.set(Thread.currentThread().isInterrupted());
+			});
+
+			// cuts the second batch's window short, which must not let it overtake the first
+			second.interrupt();
+			Thread.sleep(WINDOW);
+			try {
+				synchronized (applied) {
+					assertThat(applied).isEmpty();
+				}
+			} finally {
+				releaseFirst.countDown();
+			}
+			first.get();
+			second.join(5000);
+			assertThat(interruptedAfter).isTrue();
+		}
+		assertThat(applied).containsExactly(2, 3);
+	}
+
+	/** Starts the patches a little apart, all within one window, and returns what each caller got. */
+	private List<TodoDto> patchInOrder(int id, List<Map<String, ?>> patches) throws Exception {
+		List<Future<TodoDto>> futures = new ArrayList<>();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (Map<String, ?> patch : patches) {
+				futures.add(executor.submit(() -> todoPatchCoalescer.patch(id, patch, true)));
+				Thread.sleep(WINDOW.dividedBy(10));
+			}
+		}
+
+		List<TodoDto> results = new ArrayList<>();
+		for (Future<TodoDto> future : futures) {
+			results.add(future.get());
+		}
+		return results;
+	}
+}
@@ -0,0 +1,135 @@
+package com.exercise.todotest.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.enums.TodoField;
+
+class TodoSearchIndexTest {
+	TodoSearchIndex todoSearchIndex;
+
+	@BeforeEach
+	void setup() {
+		todoSearchIndex = new TodoSearchIndex();
+		todoSearchIndex.index(1, "Buy milk", "Get whole milk at the market");
+		todoSearchIndex.index(2, "Call mom", "Ask about the market trip");
+		todoSearchIndex.index(3, "Market", "Buy fruit");
+		todoSearchIndex.index(4, "Reunião", "Preparar a apresentação");
+	}
+
+	@Test
+	void search_TitleMatchRanksFirst_Success() {
+		TodoSearchIndex.Hits hits = todoSearchIndex.search("market", 0, 10);
+
+		assertThat(hits.total()).isEqualTo(3);
+		assertThat(hits.ids()).containsExactly(3, 1, 2);
+	}
+
+	@Test
+	void search_AllTermsRequired_Success() {
+		assertThat(todoSearchIndex.search("BUY market", 0, 10).ids()).containsExactly(1, 3);
+		assertThat(todoSearchIndex.search("buy unknown", 0, 10).total()).isZero();
+		assertThat(todoSearchIndex.search(" ,. ", 0, 10).total()).isZero();
+	}
+
+	@Test
+	void search_AccentsFolded_Success() {
+		assertThat(todoSearchIndex.search("reuniao apresentacao", 0, 10).ids()).containsExactly(4);
+	}
+
+	@Test
+	void search_Paginated_Success() {
+		TodoSearchIndex.Hits hits = todoSearchIndex.search("market", 1, 1);
+
+		assertThat(hits.total()).isEqualTo(3);
+		assertThat(hits.ids()).containsExactly(1);
+		assertThat(todoSearchIndex.search("market", 3, 1).ids()).isEmpty();
+	}
+
+	@Test
+	void refresh_UpdatesAndRemoves_Success() {
+		todoSearchIndex.refresh(new TodoDto(2, "Call dad", "Ask about the trip", null, 1));
+		todoSearchIndex.refresh(3, Map.of(TodoField.DESCRIPTION, "Buy vegetables"));
+		todoSearchIndex.refresh(1, Map.of(TodoField.PRIORITY, 4));
+		todoSearchIndex.remove(4);
+
+		assertThat(todoSearchIndex.search("market", 0, 10).ids()).containsExactly(3, 1);
+		assertThat(todoSearchIndex.search("mom", 0, 10).ids()).isEmpty();
+		assertThat(todoSearchIndex.search("vegetables market", 0, 10).ids()).containsExactly(3);
+		assertThat(todoSearchIndex.search("fruit", 0, 10).ids()).isEmpty();
+		assertThat(todoSearchIndex.search("reuniao", 0, 10).ids()).isEmpty();
+		assertThat(todoSearchIndex.size()).isEqualTo(3);
+	}
+
+	@Test
+	void refresh_TermsLeftInNoTodo_Pruned() {
+		int terms = todoSearchIndex.termCount();
+
+		todoSearchIndex.remove(4);
+		todoSearchIndex.refresh(new TodoDto(2, "Call mom", "Ask about the market", null, 1));
+
+		// reuniao, preparar, a, apresentacao and trip
+		assertThat(todoSearchIndex.termCount()).isEqualTo(terms - 5);
+		todoSearchIndex.index(5, "Plan trip", "Reunião");
+		assertThat(todoSearchIndex.termCount()).isEqualTo(terms - 2);
+		assertThat(todoSearchIndex.search("trip reuniao", 0, 10).ids()).containsExactly(5);
+	}
+
+	@Test
+	void refresh_CommittedOutOfOrder_LatestWriteKept() {
+		// an update commits before a delete, but the delete's hook runs first
+		List<TransactionSynchronization> update = inTransaction(
+				() -> todoSearchIndex.refresh(new TodoDto(2, "Call dad", "Ask about the trip", null, 1)));
+		List<TransactionSynchronization> delete = inTransaction(() -> todoSearchIndex.remove(2));
+		List<TransactionSynchronization> partialUpdate = inTransaction(
+				() -> todoSearchIndex.refresh(3, Map.of(TodoField.TITLE, "Farmers market")));
+		List<TransactionSynchronization> fullUpdate = inTransaction(
+				() -> todoSearchIndex.refresh(new TodoDto(3, "Market", "Buy bread", null, 1)));
+
+		commit(delete);
+		commit(update);
+		commit(fullUpdate);
+		commit(partialUpdate);
+
+		assertThat(todoSearchIndex.search("dad", 0, 10).ids()).isEmpty();
+		assertThat(todoSearchIndex.search("farmers", 0, 10).ids()).isEmpty();
+		assertThat(todoSearchIndex.search("market bread", 0, 10).ids()).containsExactly(3);
+		assertThat(todoSearchIndex.size()).isEqualTo(3);
+	}
+
+	@Test
+	void search_IntersectsLongLists_Success() {
+		for (int id = 10; id < 5000; id++) {
+			todoSearchIndex.index(id, "Task " + id, id % 7 == 0 ? "weekly report" : "daily note");
+		}
+
+		TodoSearchIndex.Hits hits = todoSearchIndex.search("task weekly", 0, 5);
+
+		assertThat(hits.total()).isEqualTo((4999 / 7) - (9 / 7));
+		assertThat(hits.ids()).containsExactly(14, 21, 28, 35, 42);
+	}
+
+	/** Runs the writes as a transaction would, returning the hooks they registered. */
+	private static List<TransactionSynchronization> inTransaction(Runnable writes) {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			writes.run();
+			return TransactionSynchronizationManager.getSynchronizations();
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	private static void commit(List<TransactionSynchronization> synchronizations) {
+		synchronizations.forEach(TransactionSynchronization::afterCommit);
+		synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+	}
+}
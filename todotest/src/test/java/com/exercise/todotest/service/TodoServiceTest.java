@@ -5,35 +5,53 @@ import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.Spy;
-import org.modelmapper.ModelMapper;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.web.servlet.resource.NoResourceFoundException;
 
+import com.exercise.todotest.dto.CursorPageDto;
 import com.exercise.todotest.dto.TodoDto;
 import com.exercise.todotest.entity.Todo;
+import com.exercise.todotest.enums.ExportFormat;
 import com.exercise.todotest.enums.TodoField;
+import com.exercise.todotest.exception.InvalidCursorException;
+import com.exercise.todotest.exception.PreconditionFailedException;
+import com.exercise.todotest.mapper.DirectTodoMapper;
 import com.exercise.todotest.repository.TodoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -41,7 +59,23 @@ class TodoServiceTest {
 	@Mock
 	TodoRepository todoRepository;	
 	@Spy
-	ModelMapper modelMapper;
+	DirectTodoMapper todoMapper;
+	@Spy
+	TodoCountCache todoCountCache = new TodoCountCache(10_000, Duration.ofMinutes(5));
+	@Spy
+	TodoCache todoCache = new TodoCache(true, 100, Duration.ofMinutes(5), Duration.ofSeconds(5));
+	@Spy
+	TodoPageCache todoPageCache = new TodoPageCache(true, 1024 * 1024, Duration.ofMinutes(5));
+	@Spy
+	TodoSearchIndex todoSearchIndex = new TodoSearchIndex();
+	@Spy
+	ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+	@Mock
+	EntityManager entityManager;
+	@Mock
+	TodoEventBroadcaster todoEventBroadcaster;
+	@Mock
+	TodoChangeLog todoChangeLog;
 	@InjectMocks
 	TodoService todoService;
 
@@ -69,25 +103,215 @@ class TodoServiceTest {
 		assertThat(repositoryResponse.getTitle()).isSameAs(todo.getTitle());
 	}
 
+	@Test
+	void createTodos_ChunkedByBatchSize_Success() {
+		todoService.batchSize = 2;
+		List<TodoDto> todoDtos = List.of(new TodoDto(9, "a", null, null, 1), new TodoDto(), new TodoDto());
+		int[] nextId = { 1 };
+		when(todoRepository.saveAll(Mockito.<Todo>anyList())).thenAnswer(invocation -> {
+			List<Todo> todos = invocation.getArgument(0);
+			todos.forEach(todo -> todo.setId(nextId[0]++));
+			return todos;
+		});
+
+		List<Integer> ids = todoService.createTodos(todoDtos);
+
+		verify(todoRepository, times(2)).saveAll(Mockito.<Todo>anyList());
+		verify(entityManager, times(2)).flush();
+		assertThat(ids).containsExactly(1, 2, 3);
+	}
+
 	@Test
 	void getAllTodos_Success() {
 		@SuppressWarnings("serial")
-		List<Todo> todoList = new ArrayList<>() {{
-			add(new Todo(0, null, null, null, 1));
-			add(new Todo(1, null, null, null, 1));
+		List<TodoDto> todoList = new ArrayList<>() {{
+			add(new TodoDto(0, null, null, null, 1));
+			add(new TodoDto(1, null, null, null, 1));
 		}};
-		Page<Todo> pagedRepositoryResponse = new PageImpl<>(todoList);
+		Pageable pageableReq = PageRequest.of(0, 2, Sort.by(Sort.Direction.ASC, "id"));
+		Slice<TodoDto> slicedRepositoryResponse = new SliceImpl<>(todoList, pageableReq, true);
 		
-		Pageable pageableReq = PageRequest.of(0, 1, Sort.by(Sort.Direction.ASC, "id"));
-		when(todoRepository.findAll(pageableReq)).thenReturn(pagedRepositoryResponse);
+		when(todoRepository.findDtosBy(pageableReq)).thenReturn(slicedRepositoryResponse);
+		when(todoRepository.count()).thenReturn(5L);
 
-		Page<TodoDto> repositoryResponse = todoService.getAllTodos(0, 1, TodoField.ID, Sort.Direction.ASC);
+		Page<TodoDto> repositoryResponse = todoService.getAllTodos(0, 2, TodoField.ID, Sort.Direction.ASC);
 
 		assertAll(() -> assertTrue(repositoryResponse.getContent().get(0).getId() == 0),
-				() -> assertTrue(repositoryResponse.getContent().get(1).getId() == 1)
+				() -> assertTrue(repositoryResponse.getContent().get(1).getId() == 1),
+				() -> assertTrue(repositoryResponse.getTotalElements() == 5)
 				);
 	}
 
+	@Test
+	void getAllTodos_CachedTotal_CountsOnce() {
+		Pageable pageableReq = PageRequest.of(0, 2, Sort.by(Sort.Direction.ASC, "id"));
+		when(todoRepository.findDtosBy(pageableReq)).thenReturn(new SliceImpl<>(new ArrayList<>(), pageableReq, false));
+		when(todoRepository.count()).thenReturn(5L);
+		when(todoRepository.save(Mockito.any(Todo.class))).thenReturn(new Todo());
+
+		todoService.getAllTodos(0, 2, TodoField.ID, Sort.Direction.ASC);
+		todoService.createTodo(new TodoDto());
+		Page<TodoDto> repositoryResponse = todoService.getAllTodos(0, 2, TodoField.ID, Sort.Direction.ASC);
+
+		verify(todoRepository, times(1)).count();
+		assertTrue(repositoryResponse.getTotalElements() == 6);
+	}
+
+	@Test
+	void getAllTodos_Filtered_CountedPerFilter() throws NoResourceFoundException {
+		TodoFilter filter = TodoFilter.of(List.of(2, 1), null, null, true, LocalDate.of(2030, 1, 1));
+		Pageable pageableReq = PageRequest.of(0, 2, TodoField.TARGETDATE.sortBy(Sort.Direction.ASC));
+		when(todoRepository.findDtoSlice(Mockito.<Specification<Todo>>any(), Mockito.eq(pageableReq)))
+				.thenReturn(new SliceImpl<>(List.of(new TodoDto(3, "title", null, LocalDate.of(2029, 1, 1), 2)), pageableReq, false));
+		when(todoRepository.count(Mockito.<Specification<Todo>>any())).thenReturn(7L);
+		when(todoRepository.updateFields(Mockito.eq(3), Mockito.anyMap(), Mockito.isNull())).thenReturn(1);
+
+		todoService.getAllTodos(0, 2, TodoField.TARGETDATE, Sort.Direction.ASC, filter);
+		Page<TodoDto> repositoryResponse = todoService.getAllTodos(0, 2, TodoField.TARGETDATE, Sort.Direction.ASC, filter);
+		todoService.partialUpdateTodo(3, Map.of("title", "new title"), false);
+		todoService.getAllTodos(0, 2, TodoField.TARGETDATE, Sort.Direction.ASC, filter);
+		verify(todoRepository, times(1)).count(Mockito.<Specification<Todo>>any());
+
+		todoService.partialUpdateTodo(3, Map.of("priority", 4), false);
+		todoService.getAllTodos(0, 2, TodoField.TARGETDATE, Sort.Direction.ASC, filter);
+
+		verify(todoRepository, times(0)).findDtosBy(Mockito.any(Pageable.class));
+		verify(todoRepository, times(0)).count();
+		verify(todoRepository, times(2)).count(Mockito.<Specification<Todo>>any());
+		assertAll(() -> assertThat(filter).isEqualTo(new TodoFilter(List.of(1, 2), LocalDate.of(2030, 1, 1), null)),
+				() -> assertThat(repositoryResponse.getTotalElements()).isEqualTo(7),
+				() -> assertThat(repositoryResponse.getContent()).extracting(TodoDto::getId).containsExactly(3));
+	}
+
+	@Test
+	void getAllTodosSerialized_CachedUntilWrite_Success() throws Exception {
+		Pageable pageableReq = PageRequest.of(0, 2, TodoField.PRIORITY.sortBy(Sort.Direction.DESC));
+		when(todoRepository.findDtosBy(pageableReq)).thenReturn(new SliceImpl<>(List.of(new TodoDto(0, "title", null, null, 4)), pageableReq, false));
+		when(todoRepository.save(Mockito.any(Todo.class))).thenReturn(new Todo());
+
+		TodoPageCache.CachedPage firstResponse = todoService.getAllTodosSerialized(0, 2, TodoField.PRIORITY, Sort.Direction.DESC);
+		TodoPageCache.CachedPage secondResponse = todoService.getAllTodosSerialized(0, 2, TodoField.PRIORITY, Sort.Direction.DESC);
+
+		verify(todoRepository, times(1)).findDtosBy(pageableReq);
+		assertThat(secondResponse).isSameAs(firstResponse);
+		assertThat(objectMapper.readTree(firstResponse.body()).at("/content/0/title").asText()).isEqualTo("title");
+
+		todoService.createTodo(new TodoDto());
+		todoService.getAllTodosSerialized(0, 2, TodoField.PRIORITY, Sort.Direction.DESC);
+
+		verify(todoRepository, times(2)).findDtosBy(pageableReq);
+	}
+
+	@Test
+	void exportTodos_Ndjson_Success() throws Exception {
+		when(todoRepository.streamAll(Mockito.eq(TodoField.ID.sortBy(Sort.Direction.ASC)), Mockito.anyInt()))
+				.thenReturn(Stream.of(new Todo(1, "title 1", "description 1", null, 1), new Todo(2, "title 2", null, null, 2)));
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+		long exported = todoService.exportTodos(ExportFormat.NDJSON, TodoField.ID, Sort.Direction.ASC, outputStream);
+
+		String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+		assertThat(exported).isEqualTo(2);
+		assertThat(lines).hasSize(2);
+		assertThat(objectMapper.readTree(lines[1]).get("title").asText()).isEqualTo("title 2");
+	}
+
+	@Test
+	void exportTodos_CsvQuotesFields_Success() throws Exception {
+		when(todoRepository.streamAll(Mockito.any(Sort.class), Mockito.anyInt()))
+				.thenReturn(Stream.of(new Todo(1, "a, \"quoted\"", "plain description", LocalDate.of(2030, 1, 2), 3)));
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+		todoService.exportTodos(ExportFormat.CSV, TodoField.TITLE, Sort.Direction.DESC, outputStream);
+
+		assertThat(outputStream.toString(StandardCharsets.UTF_8)).isEqualTo(
+				"id,title,description,targetDate,priority\r\n1,\"a, \"\"quoted\"\"\",plain description,2030-01-02,3\r\n");
+	}
+
+	@Test
+	void searchTodos_RankedPage_Success() {
+		todoSearchIndex.index(1, "Market", "Buy fruit");
+		todoSearchIndex.index(2, "Buy milk", "At the market");
+		todoSearchIndex.index(3, "Call mom", "Ask about the trip");
+		todoCache.putLoaded(new TodoDto(2, "Buy milk", "At the market", null, 1), todoCache.stamp());
+		when(todoRepository.findDtosByIdIn(List.of(1))).thenReturn(List.of(new TodoDto(1, "Market", "Buy fruit", null, 2)));
+
+		Page<TodoDto> searchResponse = todoService.searchTodos("market", 0, 20);
+
+		verify(todoRepository, times(1)).findDtosByIdIn(List.of(1));
+		assertAll(() -> assertThat(searchResponse.getContent()).extracting(TodoDto::getId).containsExactly(1, 2),
+				() -> assertThat(searchResponse.getTotalElements()).isEqualTo(2));
+	}
+
+	@Test
+	void createTodo_IndexedForSearch_Success() {
+		when(todoRepository.save(Mockito.any(Todo.class))).thenReturn(new Todo(5, "Dentist", "Book an appointment", null, 1));
+
+		todoService.createTodo(new TodoDto());
+
+		assertThat(todoSearchIndex.search("appointment", 0, 20).ids()).containsExactly(5);
+	}
+
+	@Test
+	void getTodosSlice_Success() {
+		@SuppressWarnings("serial")
+		List<TodoDto> todoList = new ArrayList<>() {{
+			add(new TodoDto(0, null, null, null, 1));
+		}};
+		Pageable pageableReq = PageRequest.of(0, 1, Sort.by(Sort.Direction.ASC, "id"));
+		when(todoRepository.findDtosBy(pageableReq)).thenReturn(new SliceImpl<>(todoList, pageableReq, true));
+
+		Slice<TodoDto> repositoryResponse = todoService.getTodosSlice(0, 1, TodoField.ID, Sort.Direction.ASC);
+
+		verify(todoRepository, times(0)).count();
+		assertAll(() -> assertTrue(repositoryResponse.getContent().size() == 1),
+				() -> assertTrue(repositoryResponse.hasNext()));
+	}
+
+	@Test
+	void getTodosByCursor_FirstPage_Success() {
+		@SuppressWarnings("serial")
+		List<Todo> todoList = new ArrayList<>() {{
+			add(new Todo(5, null, null, null, 4));
+			add(new Todo(2, null, null, null, 3));
+		}};
+		Window<Todo> repositoryWindow = Window.from(todoList, ScrollPosition::offset, true);
+
+		when(todoRepository.findAllBy(ScrollPosition.keyset(), TodoField.PRIORITY.sortBy(Sort.Direction.DESC), Limit.of(2)))
+				.thenReturn(repositoryWindow);
+
+		CursorPageDto<TodoDto> repositoryResponse = todoService.getTodosByCursor("", 2, TodoField.PRIORITY, Sort.Direction.DESC);
+		ScrollPosition nextPosition = TodoCursor.decode(repositoryResponse.getNextCursor()).toScrollPosition();
+
+		assertAll(() -> assertTrue(repositoryResponse.getContent().size() == 2),
+				() -> assertFalse(repositoryResponse.isLast()),
+				() -> assertThat(nextPosition).isEqualTo(ScrollPosition.forward(Map.of("priority", 3, "id", 2))));
+	}
+
+	@Test
+	void getTodosByCursor_LastTargetDateNull_CursorSeeksPastIt() {
+		List<Todo> todoList = List.of(new Todo(5, "title", null, LocalDate.now(), 4), new Todo(2, "title", null, null, 3));
+		Window<Todo> repositoryWindow = Window.from(todoList, ScrollPosition::offset, true);
+
+		when(todoRepository.findAllBy(ScrollPosition.keyset(), TodoField.TARGETDATE.sortBy(Sort.Direction.DESC), Limit.of(2)))
+				.thenReturn(repositoryWindow);
+
+		CursorPageDto<TodoDto> repositoryResponse = todoService.getTodosByCursor("", 2, TodoField.TARGETDATE, Sort.Direction.DESC);
+
+		assertThat(repositoryResponse.getNextCursor()).isNotNull();
+		assertThat(TodoCursor.forSort(repositoryResponse.getNextCursor(), TodoField.TARGETDATE, Sort.Direction.DESC)
+				.toNullableSeek()).isNotNull();
+	}
+
+	@Test
+	void getTodosByCursor_CursorFromOtherSort_Failure() {
+		String cursor = TodoCursor.after(new Todo(2, "title", null, null, 3), TodoField.TITLE, Sort.Direction.ASC).encode();
+
+		assertThrows(InvalidCursorException.class, () -> {
+			todoService.getTodosByCursor(cursor, 2, TodoField.PRIORITY, Sort.Direction.DESC);
+		});
+	}
+
 	@Test
 	void getTodoById_ValidId_Success() {
 		Todo todo = new Todo();
@@ -98,6 +322,39 @@ class TodoServiceTest {
 		assertThat(repositoryResponse.get().getId()).isSameAs(0);
 	}
 
+	@Test
+	void getTodoDtoById_CachedAfterFirstRead_Success() throws NoResourceFoundException {
+		when(todoRepository.findDtoById(1)).thenReturn(Optional.of(new TodoDto(1, "title", null, null, 2)));
+
+		todoService.getTodoDtoById(1);
+		TodoDto repositoryResponse = todoService.getTodoDtoById(1);
+
+		verify(todoRepository, times(1)).findDtoById(1);
+		assertThat(repositoryResponse.getTitle()).isEqualTo("title");
+	}
+
+	@Test
+	void getTodoDtoById_NegativeCached_Failure() {
+		when(todoRepository.findDtoById(Mockito.anyInt())).thenReturn(Optional.empty());
+
+		assertThrows(NoResourceFoundException.class, () -> todoService.getTodoDtoById(3));
+		assertThrows(NoResourceFoundException.class, () -> todoService.getTodoDtoById(3));
+
+		verify(todoRepository, times(1)).findDtoById(3);
+	}
+
+	@Test
+	void getTodoDtoById_InvalidatedByUpdate_Success() throws NoResourceFoundException {
+		when(todoRepository.findDtoById(1)).thenReturn(Optional.of(new TodoDto(1, "title", null, null, 2)));
+		when(todoRepository.updateFields(Mockito.eq(1), Mockito.anyMap(), Mockito.isNull())).thenReturn(1);
+
+		todoService.getTodoDtoById(1);
+		todoService.partialUpdateTodo(1, Map.of("priority", 3), false);
+		todoService.getTodoDtoById(1);
+
+		verify(todoRepository, times(2)).findDtoById(1);
+	}
+
 	@Test
 	void getTodoById_IdNotFound_Failure() {
 		when(todoRepository.findById(Mockito.anyInt())).thenReturn(Optional.empty());
@@ -111,7 +368,7 @@ class TodoServiceTest {
 
 	@Test
 	void removeTodoById_IdNotFound_Failure() {
-		doNothing().when(todoRepository).deleteById(Mockito.anyInt());
+		when(todoRepository.deleteTodoById(Mockito.anyInt())).thenReturn(0);
 
 		Exception exception = assertThrows(NoResourceFoundException.class, () -> {
 			todoService.removeTodoById(0);
@@ -123,23 +380,23 @@ class TodoServiceTest {
 	@Test
 	void fullUpdateTodo_ValidIdAndTodo_Success() throws NoResourceFoundException {
 		TodoDto updatedTodoDto = new TodoDto(0, "new title", "new description", LocalDate.now().plusDays(1), 1);
-		Todo updatedTodo = new Todo(0, "new title", "new description", LocalDate.now().plusDays(1), 1);
 
-		when(todoRepository.findById(Mockito.anyInt())).thenReturn(Optional.of(new Todo()));
-		when(todoRepository.save(Mockito.any(Todo.class))).thenReturn(updatedTodo);
+		when(todoRepository.updateTodo(0, "new title", "new description", updatedTodoDto.getTargetDate(), 1)).thenReturn(1);
 
 		TodoDto repositoryResponse = todoService.fullUpdateTodo(0, updatedTodoDto);
 
+		verify(todoRepository, times(0)).findDtoById(Mockito.anyInt());
+
 		assertAll(() -> assertTrue(repositoryResponse.getTitle() == "new title"),
 				() -> assertTrue(repositoryResponse.getDescription() == "new description"),
-				() -> assertTrue(repositoryResponse.getTargetDate() == updatedTodo.getTargetDate()),
+				() -> assertTrue(repositoryResponse.getTargetDate() == updatedTodoDto.getTargetDate()),
 				() -> assertTrue(repositoryResponse.getPriority() == 1));
 	}
 
 	@Test
 	void fullUpdateTodo_IdNotFound_Failure() throws NoResourceFoundException {
 		TodoDto updatedTodo = new TodoDto(0, "new title", "new description", LocalDate.now().plusDays(1), 1);
-		when(todoRepository.findById(Mockito.anyInt())).thenReturn(Optional.empty());
+		when(todoRepository.updateTodo(Mockito.anyInt(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyInt())).thenReturn(0);
 
 		Exception exception = assertThrows(NoResourceFoundException.class, () -> {
 			todoService.fullUpdateTodo(0, updatedTodo);
@@ -148,6 +405,37 @@ class TodoServiceTest {
 		assertTrue(exception.getMessage().contains("No static resource Todo with id '0'"));
 	}
 
+	@Test
+	void fullUpdateTodo_MatchingVersion_Success() throws NoResourceFoundException {
+		TodoDto updatedTodoDto = new TodoDto(0, "new title", "new description", LocalDate.now().plusDays(1), 1);
+		when(todoRepository.updateTodo(0, 4L, "new title", "new description", updatedTodoDto.getTargetDate(), 1)).thenReturn(1);
+
+		TodoDto repositoryResponse = todoService.fullUpdateTodo(0, updatedTodoDto, 4L);
+
+		assertThat(repositoryResponse.getVersion()).isEqualTo(5);
+	}
+
+	@Test
+	void fullUpdateTodo_StaleVersion_Failure() {
+		TodoDto updatedTodoDto = new TodoDto(0, "new title", "new description", LocalDate.now().plusDays(1), 1);
+		when(todoRepository.updateTodo(Mockito.anyInt(), Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyInt())).thenReturn(0);
+		when(todoRepository.existsById(0)).thenReturn(true);
+
+		assertThrows(PreconditionFailedException.class, () -> {
+			todoService.fullUpdateTodo(0, updatedTodoDto, 4L);
+		});
+	}
+
+	@Test
+	void removeTodoById_StaleVersion_Failure() {
+		when(todoRepository.deleteTodoById(0, 2L)).thenReturn(0);
+		when(todoRepository.existsById(0)).thenReturn(true);
+
+		assertThrows(PreconditionFailedException.class, () -> {
+			todoService.removeTodoById(0, 2L);
+		});
+	}
+
 	// PARTIAL UPDATE TODO
 	@Test
 	void partialUpdateTodo_ValidIdAndFields_Success() throws NoResourceFoundException {
@@ -159,8 +447,8 @@ class TodoServiceTest {
 			}
 		};
 
-		when(todoRepository.findById(Mockito.anyInt())).thenReturn(Optional.of(new Todo()));
-		when(todoRepository.save(Mockito.any(Todo.class))).thenReturn(new Todo(0, "updated title", null, null, 3));
+		when(todoRepository.updateFields(0, Map.of(TodoField.TITLE, "updated title", TodoField.PRIORITY, 3), null)).thenReturn(1);
+		when(todoRepository.findDtoById(Mockito.anyInt())).thenReturn(Optional.of(new TodoDto(0, "updated title", null, null, 3)));
 
 		TodoDto repositoryResponse = todoService.partialUpdateTodo(0, fieldsToUpdate);
 
@@ -169,6 +457,27 @@ class TodoServiceTest {
 
 	}
 
+	@Test
+	void partialUpdateTodo_ReturnMinimal_SkipsReRead() throws NoResourceFoundException {
+		when(todoRepository.updateFields(Mockito.eq(0), Mockito.anyMap(), Mockito.isNull())).thenReturn(1);
+
+		TodoDto repositoryResponse = todoService.partialUpdateTodo(0, Map.of("priority", 2), false);
+
+		verify(todoRepository, times(0)).findDtoById(Mockito.anyInt());
+		assertThat(repositoryResponse).isNull();
+	}
+
+	@Test
+	void partialUpdateTodo_IdNotFound_Failure() {
+		when(todoRepository.updateFields(Mockito.anyInt(), Mockito.anyMap(), Mockito.isNull())).thenReturn(0);
+
+		Exception exception = assertThrows(NoResourceFoundException.class, () -> {
+			todoService.partialUpdateTodo(0, Map.of("priority", 2));
+		});
+
+		assertTrue(exception.getMessage().contains("No static resource Todo with id '0'"));
+	}
+
 	@Test
 	void partialUpdateTodo_ValidIdAndInvalidFields_Success() throws NoResourceFoundException {
 		@SuppressWarnings("serial")
@@ -0,0 +1,74 @@
+package com.exercise.todotest.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.exercise.todotest.dto.TodoDto;
+import com.exercise.todotest.enums.WriteOperationType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class TodoWriteJournalTest {
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void unapplied_AfterReopen_OnlyWritesWithoutMarker() throws Exception {
+		Path path = directory.resolve("writes.journal");
+		TodoWrite delete = new TodoWrite("1", WriteOperationType.DELETE, 10, null, null, 3L);
+		TodoWrite update = new TodoWrite("2", WriteOperationType.UPDATE, 11,
+				new TodoDto(11, "Title", "Some description", LocalDate.now().plusDays(1), 2), null, null);
+		TodoWrite patch = new TodoWrite("3", WriteOperationType.PATCH, 12, null, Map.of("priority", 4), null);
+
+		try (TodoWriteJournal journal = new TodoWriteJournal(path, objectMapper)) {
+			journal.append(delete);
+			journal.append(update);
+			journal.append(patch);
+			journal.markApplied(List.of("1"));
+		}
+
+		try (TodoWriteJournal journal = new TodoWriteJournal(path, objectMapper)) {
+			// TodoDto has no equals
+			assertThat(journal.unapplied()).usingRecursiveFieldByFieldElementComparator().containsExactly(update, patch);
+		}
+	}
+
+	@Test
+	void markApplied_NothingPending_Truncates() throws Exception {
+		Path path = directory.resolve("writes.journal");
+
+		try (TodoWriteJournal journal = new TodoWriteJournal(path, objectMapper)) {
+			journal.append(new TodoWrite("1", WriteOperationType.DELETE, 10, null, null, null));
+			journal.append(new TodoWrite("2", WriteOperationType.DELETE, 11, null, null, null));
+			journal.markApplied(List.of("1", "2"));
+		}
+
+		assertThat(Files.size(path)).isZero();
+	}
+
+	@Test
+	void unapplied_TornLastLine_Skipped() throws Exception {
+		Path path = directory.resolve("writes.journal");
+		TodoWrite delete = new TodoWrite("1", WriteOperationType.DELETE, 10, null, null, null);
+
+		try (TodoWriteJournal journal = new TodoWriteJournal(path, objectMapper)) {
+			journal.append(delete);
+		}
+		Files.writeString(path, "{\"write\":{\"operationId\":\"2\",\"ty", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+		try (TodoWriteJournal journal = new TodoWriteJournal(path, objectMapper)) {
+			assertThat(journal.unapplied()).containsExactly(delete);
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package com.exercise.todotest.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
+
+import com.exercise.todotest.enums.WriteOperationStatus;
+import com.exercise.todotest.enums.WriteOperationType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class TodoWriteQueueTest {
+	private TodoWriteQueue todoWriteQueue;
+	private TodoService todoService;
+	private PlatformTransactionManager transactionManager;
+
+	@BeforeEach
+	void setup() {
+		todoService = Mockito.mock(TodoService.class);
+		transactionManager = Mockito.mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(Mockito.any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+
+		todoWriteQueue = new TodoWriteQueue(true, 10, 10, "", Duration.ofMinutes(1));
+		todoWriteQueue.todoService = todoService;
+		todoWriteQueue.transactionManager = transactionManager;
+		todoWriteQueue.objectMapper = new ObjectMapper();
+		todoWriteQueue.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		todoWriteQueue.stop();
+	}
+
+	@Test
+	void apply_Batch_OneCommit() throws Exception {
+		List<TodoWrite> batch = List.of(delete("1", 10), delete("2", 11), delete("3", 12));
+
+		todoWriteQueue.apply(batch);
+
+		verify(transactionManager, times(1)).commit(Mockito.any());
+		verify(transactionManager, times(0)).rollback(Mockito.any());
+		for (TodoWrite write : batch) {
+			assertThat(todoWriteQueue.getOperation(write.operationId()).getStatus()).isEqualTo(WriteOperationStatus.APPLIED);
+		}
+	}
+
+	@Test
+	void apply_OneWriteFails_RolledBackAndOthersAppliedAlone() throws Exception {
+		Mockito.doThrow(new NoResourceFoundException(null, "Todo with id '11'")).when(todoService).removeTodoById(11, null);
+		List<TodoWrite> batch = List.of(delete("1", 10), delete("2", 11), delete("3", 12));
+
+		todoWriteQueue.apply(batch);
+
+		verify(transactionManager, times(2)).rollback(Mockito.any());
+		verify(transactionManager, times(2)).commit(Mockito.any());
+		assertThat(todoWriteQueue.getOperation("1").getStatus()).isEqualTo(WriteOperationStatus.APPLIED);
+		assertThat(todoWriteQueue.getOperation("2").getStatus()).isEqualTo(WriteOperationStatus.FAILED);
+		assertThat(todoWriteQueue.getOperation("2").getError()).contains("Todo with id '11'");
+		assertThat(todoWriteQueue.getOperation("3").getStatus()).isEqualTo(WriteOperationStatus.APPLIED);
+	}
+
+	private static TodoWrite delete(String operationId, int todoId) {
+		return new TodoWrite(operationId, WriteOperationType.DELETE, todoId, null, null, null);
+	}
+}
@@ -0,0 +1,39 @@
+package com.exercise.todotest.sql;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Import into a test to route the application's {@code DataSource} through
+ * a JDBC proxy that feeds {@link StatementCounter}.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class StatementCountConfig {
+
+	@Bean
+	public StatementCounter statementCounter() {
+		return new StatementCounter();
+	}
+
+	@Bean
+	public static BeanPostProcessor statementCountingDataSourcePostProcessor(ObjectProvider<StatementCounter> statementCounter) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+				if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+					return bean;
+				}
+				return ProxyDataSourceBuilder.create(dataSource).name(beanName).listener(statementCounter.getObject())
+						.build();
+			}
+		};
+	}
+}
@@ -0,0 +1,136 @@
+package com.exercise.todotest.sql;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Records every statement sent through the proxied {@code DataSource}, one
+ * entry per execution: a JDBC batch counts once, however many rows it holds.
+ *
+ * Id sequence fetches are left out. Ids are allocated in blocks, so whether a
+ * given insert needs one depends on the inserts before it.
+ */
+public class StatementCounter implements QueryExecutionListener {
+	public enum Type {
+		SELECT, INSERT, UPDATE, DELETE, OTHER
+	}
+
+	public record Expected(Type type, int count) {
+	}
+
+	private record Executed(Type type, String sql, String transaction) {
+	}
+
+	private final List<Executed> executed = new ArrayList<>();
+
+	public static Expected select(int count) {
+		return new Expected(Type.SELECT, count);
+	}
+
+	public static Expected insert(int count) {
+		return new Expected(Type.INSERT, count);
+	}
+
+	public static Expected update(int count) {
+		return new Expected(Type.UPDATE, count);
+	}
+
+	public static Expected delete(int count) {
+		return new Expected(Type.DELETE, count);
+	}
+
+	public synchronized void reset() {
+		executed.clear();
+	}
+
+	/**
+	 * Fails unless exactly the expected statements ran since the last
+	 * {@link #reset()}; types not listed must not have run at all.
+	 */
+	public synchronized void assertStatements(Expected... expected) {
+		Map<Type, Integer> expectedCounts = new EnumMap<>(Type.class);
+		for (Expected expectation : expected) {
+			expectedCounts.merge(expectation.type(), expectation.count(), Integer::sum);
+		}
+		expectedCounts.values().removeIf(count -> count == 0);
+
+		Map<Type, Integer> actualCounts = new EnumMap<>(Type.class);
+		executed.forEach(statement -> actualCounts.merge(statement.type(), 1, Integer::sum));
+
+		if (!expectedCounts.equals(actualCounts)) {
+			throw new AssertionError("Expected statements " + expectedCounts + " but ran " + actualCounts + ":\n"
+					+ executed.stream().map(Executed::sql).collect(Collectors.joining("\n")));
+		}
+	}
+
+	/**
+	 * Fails unless the statements since the last {@link #reset()} ran in
+	 * transactions started by exactly these methods, in this order, given as
+	 * {@code Class.method}.
+	 */
+	public synchronized void assertTransactions(String... expected) {
+		List<String> transactions = executed.stream().map(Executed::transaction).distinct().toList();
+		if (!transactions.equals(List.of(expected))) {
+			throw new AssertionError("Expected transactions " + List.of(expected) + " but ran " + transactions + ":\n"
+					+ executed.stream().map(statement -> statement.transaction() + ": " + statement.sql())
+							.collect(Collectors.joining("\n")));
+		}
+	}
+
+	/** Like {@link #assertStatements(Expected...)} with nothing expected. */
+	public void assertNoStatements() {
+		assertStatements();
+	}
+
+	@Override
+	public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+	}
+
+	@Override
+	public synchronized void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		for (QueryInfo queryInfo : queryInfoList) {
+			String sql = queryInfo.getQuery().strip();
+			String lowerCaseSql = sql.toLowerCase(Locale.ROOT);
+			if (lowerCaseSql.contains("todo_seq")) {
+				continue;
+			}
+			executed.add(new Executed(typeOf(lowerCaseSql), sql, currentTransaction()));
+		}
+	}
+
+	// runs on the thread that sent the statement; names are the fully qualified method
+	private static String currentTransaction() {
+		String name = TransactionSynchronizationManager.getCurrentTransactionName();
+		if (name == null) {
+			return null;
+		}
+		int method = name.lastIndexOf('.');
+		return name.substring(name.lastIndexOf('.', method - 1) + 1);
+	}
+
+	private static Type typeOf(String lowerCaseSql) {
+		if (lowerCaseSql.startsWith("select") || lowerCaseSql.startsWith("with")) {
+			return Type.SELECT;
+		}
+		if (lowerCaseSql.startsWith("insert")) {
+			return Type.INSERT;
+		}
+		if (lowerCaseSql.startsWith("update")) {
+			return Type.UPDATE;
+		}
+		if (lowerCaseSql.startsWith("delete")) {
+			return Type.DELETE;
+		}
+		return Type.OTHER;
+	}
+}